@@ -1,8 +1,18 @@
 package com.techie.designPattern.StructuralDesign;
 
 
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.IdGenerator;
+import com.techie.designPattern.common.Money;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * USE CASE: Payment Gateway Integration
@@ -11,93 +21,350 @@ import java.util.UUID;
  */
 
 // Target interface
-sealed interface PaymentGateway permits StripeAdapter, PayPalAdapter, RazorpayAdapter {
+sealed interface PaymentGateway permits StripeAdapter, PayPalAdapter, RazorpayAdapter, ResilientGateway {
     record PaymentResult(boolean success, String transactionId, String message) {}
-    PaymentResult processPayment(double amount, String currency);
+
+    // Amount in minor units (cents, paise) of an interned currency
+    record PaymentRequest(long amountMinor, CurrencyCode currency) {
+        public PaymentRequest {
+            Objects.requireNonNull(currency, "Currency cannot be null");
+        }
+
+        public PaymentRequest(double amount, String currency) {
+            this(Money.toMinor(amount, CurrencyCode.of(currency)), CurrencyCode.of(currency));
+        }
+    }
+
+    PaymentResult processPayment(long amountMinor, CurrencyCode currency);
+
+    // Repeating a call with the same key (retry or hedge) never charges twice
+    PaymentResult processPayment(String idempotencyKey, long amountMinor, CurrencyCode currency);
+
+    // Legacy entry points: the double is rounded to minor units once, here
+    default PaymentResult processPayment(double amount, String currency) {
+        var code = CurrencyCode.of(currency);
+        return processPayment(Money.toMinor(amount, code), code);
+    }
+
+    default PaymentResult processPayment(String idempotencyKey, double amount, String currency) {
+        var code = CurrencyCode.of(currency);
+        return processPayment(idempotencyKey, Money.toMinor(amount, code), code);
+    }
+
+    // Results are returned in request order. Gateways without a native bulk
+    // endpoint fall back to one processPayment call per item.
+    default List<PaymentResult> processBatch(List<PaymentRequest> requests) {
+        var results = new ArrayList<PaymentResult>(requests.size());
+        for (var request : requests) {
+            results.add(processPayment(request.amountMinor(), request.currency()));
+        }
+        return results;
+    }
 }
 
 // Adaptee 1: Stripe API
 class StripeAPI {
+    private final SimulatedNetwork network;
+    private final IdGenerator ids;
+    private final IdempotencyLedger<String> ledger = new IdempotencyLedger<>();
+
+    StripeAPI() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    StripeAPI(SimulatedNetwork network) {
+        this(network, IdGenerator.timeOrdered());
+    }
+
+    StripeAPI(SimulatedNetwork network, IdGenerator ids) {
+        this.network = network;
+        this.ids = ids;
+    }
+
     public String charge(int amountInCents, String curr) {
-        System.out.println("Stripe: Charging " + amountInCents + " cents");
-        return "stripe_" + UUID.randomUUID();
+        network.roundTrip();
+        AsyncLogSink.console().println("Stripe: Charging " + amountInCents + " cents");
+        return ids.next("stripe_");
+    }
+
+    // Mirrors Stripe's Idempotency-Key header
+    public String charge(int amountInCents, String curr, String idempotencyKey) {
+        network.roundTrip();
+        return ledger.execute(idempotencyKey, () -> {
+            AsyncLogSink.console().println("Stripe: Charging " + amountInCents + " cents");
+            return ids.next("stripe_");
+        });
+    }
+
+    // Native bulk endpoint: one round trip for many charges in the same currency
+    public String[] chargeAll(int[] amountsInCents, String curr) {
+        network.roundTrip();
+        AsyncLogSink.console().println("Stripe: Charging " + amountsInCents.length + " payments in one batch");
+        var txnIds = new String[amountsInCents.length];
+        for (int i = 0; i < txnIds.length; i++) {
+            txnIds[i] = ids.next("stripe_");
+        }
+        return txnIds;
     }
 }
 
 // Adapter 1
 final class StripeAdapter implements PaymentGateway {
-    private final StripeAPI stripe = new StripeAPI();
+    private final StripeAPI stripe;
+
+    StripeAdapter() {
+        this(new StripeAPI());
+    }
+
+    StripeAdapter(StripeAPI stripe) {
+        this.stripe = stripe;
+    }
+
+    // Stripe already takes minor units; toIntExact refuses amounts its int field can't hold
+    @Override
+    public PaymentResult processPayment(long amountMinor, CurrencyCode currency) {
+        String txnId = stripe.charge(Math.toIntExact(amountMinor), currency.code());
+        return new PaymentResult(true, txnId, "Stripe payment successful");
+    }
 
     @Override
-    public PaymentResult processPayment(double amount, String currency) {
-        int cents = (int) (amount * 100);
-        String txnId = stripe.charge(cents, currency);
+    public PaymentResult processPayment(String idempotencyKey, long amountMinor, CurrencyCode currency) {
+        String txnId = stripe.charge(Math.toIntExact(amountMinor), currency.code(), idempotencyKey);
         return new PaymentResult(true, txnId, "Stripe payment successful");
     }
+
+    @Override
+    public List<PaymentResult> processBatch(List<PaymentRequest> requests) {
+        // Stripe batches per currency; group, charge each group once, then restore request order
+        Map<CurrencyCode, List<Integer>> byCurrency = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            byCurrency.computeIfAbsent(requests.get(i).currency(), c -> new ArrayList<>()).add(i);
+        }
+        var results = new PaymentResult[requests.size()];
+        byCurrency.forEach((currency, indexes) -> {
+            int[] cents = new int[indexes.size()];
+            for (int i = 0; i < cents.length; i++) {
+                cents[i] = Math.toIntExact(requests.get(indexes.get(i)).amountMinor());
+            }
+            String[] txnIds = stripe.chargeAll(cents, currency.code());
+            for (int i = 0; i < txnIds.length; i++) {
+                results[indexes.get(i)] = new PaymentResult(true, txnIds[i], "Stripe payment successful");
+            }
+        });
+        return List.of(results);
+    }
 }
 
 // Adaptee 2: PayPal API
 class PayPalAPI {
     public record PayPalResponse(String id, String status) {}
 
-    public PayPalResponse makePayment(String amt, String cur) {
-        System.out.println("PayPal: Processing " + amt + " " + cur);
-        return new PayPalResponse("pp_" + UUID.randomUUID(), "COMPLETED");
+    private final SimulatedNetwork network;
+    private final IdGenerator ids;
+    private final IdempotencyLedger<PayPalResponse> ledger = new IdempotencyLedger<>();
+
+    PayPalAPI() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    PayPalAPI(SimulatedNetwork network) {
+        this(network, IdGenerator.timeOrdered());
+    }
+
+    PayPalAPI(SimulatedNetwork network, IdGenerator ids) {
+        this.network = network;
+        this.ids = ids;
+    }
+
+    // amt is only read during the call, so callers may pass a reused buffer
+    public PayPalResponse makePayment(CharSequence amt, String cur) {
+        network.roundTrip();
+        AsyncLogSink.console().println("PayPal: Processing " + amt + " " + cur);
+        return new PayPalResponse(ids.next("pp_"), "COMPLETED");
+    }
+
+    // Mirrors PayPal's PayPal-Request-Id header
+    public PayPalResponse makePayment(CharSequence amt, String cur, String requestId) {
+        network.roundTrip();
+        return ledger.execute(requestId, () -> {
+            AsyncLogSink.console().println("PayPal: Processing " + amt + " " + cur);
+            return new PayPalResponse(ids.next("pp_"), "COMPLETED");
+        });
     }
 }
 
 // Adapter 2
 final class PayPalAdapter implements PaymentGateway {
-    private final PayPalAPI paypal = new PayPalAPI();
+    private static final String COMPLETED = "COMPLETED";
+    private static final String COMPLETED_MESSAGE = "PayPal payment " + COMPLETED;
+    private static final ThreadLocal<StringBuilder> AMOUNT_TEXT = ThreadLocal.withInitial(() -> new StringBuilder(24));
+
+    private final PayPalAPI paypal;
+
+    PayPalAdapter() {
+        this(new PayPalAPI());
+    }
+
+    PayPalAdapter(PayPalAPI paypal) {
+        this.paypal = paypal;
+    }
+
+    @Override
+    public PaymentResult processPayment(long amountMinor, CurrencyCode currency) {
+        return toResult(paypal.makePayment(decimal(amountMinor, currency), currency.code()));
+    }
 
     @Override
-    public PaymentResult processPayment(double amount, String currency) {
-        var response = paypal.makePayment(String.valueOf(amount), currency);
-        boolean success = "COMPLETED".equals(response.status());
-        return new PaymentResult(success, response.id(),
-                "PayPal payment " + response.status());
+    public PaymentResult processPayment(String idempotencyKey, long amountMinor, CurrencyCode currency) {
+        return toResult(paypal.makePayment(decimal(amountMinor, currency), currency.code(), idempotencyKey));
+    }
+
+    // PayPal wants a decimal string ("10.50"); format into this thread's buffer instead of a new String
+    static CharSequence decimal(long amountMinor, CurrencyCode currency) {
+        var buffer = AMOUNT_TEXT.get();
+        buffer.setLength(0);
+        return Money.appendDecimal(buffer, amountMinor, currency);
+    }
+
+    private static PaymentResult toResult(PayPalAPI.PayPalResponse response) {
+        boolean success = COMPLETED.equals(response.status());
+        return new PaymentResult(success, response.id(), success ? COMPLETED_MESSAGE : "PayPal payment " + response.status());
     }
 }
 
 // Adaptee 3: Razorpay API
 class RazorpayAPI {
+    private final SimulatedNetwork network;
+    private final IdGenerator ids;
+    private final IdempotencyLedger<Map<String, Object>> ledger = new IdempotencyLedger<>();
+
+    RazorpayAPI() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    RazorpayAPI(SimulatedNetwork network) {
+        this(network, IdGenerator.timeOrdered());
+    }
+
+    RazorpayAPI(SimulatedNetwork network, IdGenerator ids) {
+        this.network = network;
+        this.ids = ids;
+    }
+
+    // An order carrying a "receipt" is created at most once per receipt
     public Map<String, Object> createOrder(Map<String, Object> params) {
-        System.out.println("Razorpay: Creating order " + params);
-        return Map.of("id", "rzp_" + UUID.randomUUID(),
+        network.roundTrip();
+        if (params.get("receipt") instanceof String receipt) {
+            return ledger.execute(receipt, () -> newOrder(params));
+        }
+        return newOrder(params);
+    }
+
+    private Map<String, Object> newOrder(Map<String, Object> params) {
+        AsyncLogSink.console().println("Razorpay: Creating order " + params);
+        return Map.of("id", ids.next("rzp_"),
                 "status", "created");
     }
 }
 
 // Adapter 3
 final class RazorpayAdapter implements PaymentGateway {
-    private final RazorpayAPI razorpay = new RazorpayAPI();
+    private final RazorpayAPI razorpay;
+
+    RazorpayAdapter() {
+        this(new RazorpayAPI());
+    }
+
+    RazorpayAdapter(RazorpayAPI razorpay) {
+        this.razorpay = razorpay;
+    }
+
+    @Override
+    public PaymentResult processPayment(long amountMinor, CurrencyCode currency) {
+        return processPayment(null, amountMinor, currency);
+    }
 
     @Override
-    public PaymentResult processPayment(double amount, String currency) {
-        Map<String, Object> params = Map.of("amount", amount, "currency", currency);
-        var order = razorpay.createOrder(params);
+    public PaymentResult processPayment(String idempotencyKey, long amountMinor, CurrencyCode currency) {
+        var order = razorpay.createOrder(OrderParams.reuse(amountMinor, currency, idempotencyKey));
         return new PaymentResult(true, (String) order.get("id"),
                 "Razorpay order created");
     }
 }
 
+// Razorpay's order parameters ("amount" in paise, "currency", optional "receipt") as a
+// read-only map over fields. One instance per thread is refilled for each call, so the
+// adapter builds no map and boxes nothing; a value is only boxed if the API reads it.
+final class OrderParams extends AbstractMap<String, Object> {
+    private static final ThreadLocal<OrderParams> CURRENT = ThreadLocal.withInitial(OrderParams::new);
+
+    private long amount;
+    private CurrencyCode currency;
+    private String receipt;
+
+    static OrderParams reuse(long amount, CurrencyCode currency, String receipt) {
+        var params = CURRENT.get();
+        params.amount = amount;
+        params.currency = currency;
+        params.receipt = receipt;
+        return params;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        return switch (name) {
+            case "amount" -> amount;
+            case "currency" -> currency.code();
+            case "receipt" -> receipt;
+            default -> null;
+        };
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    // Only used for printing and comparison, never on the charge path
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        var entries = new LinkedHashMap<String, Object>();
+        entries.put("amount", amount);
+        entries.put("currency", currency.code());
+        if (receipt != null) {
+            entries.put("receipt", receipt);
+        }
+        return entries.entrySet();
+    }
+}
+
 // Payment processor with pattern matching
 class PaymentProcessor {
     public static void process(PaymentGateway gateway, double amount) {
-        var result = switch (gateway) {
-            case StripeAdapter s -> s.processPayment(amount, "USD");
-            case PayPalAdapter p -> p.processPayment(amount, "USD");
-            case RazorpayAdapter r -> r.processPayment(amount, "INR");
-        };
+        var currency = currencyOf(gateway);
+        var result = gateway.processPayment(Money.toMinor(amount, currency), currency);
 
-        System.out.println("Result: " + result.message());
+        AsyncLogSink.console().println("Result: " + result.message());
+    }
+
+    static CurrencyCode currencyOf(PaymentGateway gateway) {
+        return switch (gateway) {
+            case StripeAdapter s -> CurrencyCode.USD;
+            case PayPalAdapter p -> CurrencyCode.USD;
+            case RazorpayAdapter r -> CurrencyCode.INR;
+            // Wrapped gateways settle in their delegate's currency
+            case ResilientGateway g -> currencyOf(g.delegate());
+        };
     }
 }
 
 
 public class AdapterPattern {
     public static void main(String[] args) {
-        System.out.println("=== AdapterPattern Demo ===");
+        AsyncLogSink.console().println("=== AdapterPattern Demo ===");
 
         PaymentGateway stripe = new StripeAdapter();
         PaymentGateway paypal = new PayPalAdapter();
@@ -110,6 +377,18 @@ public class AdapterPattern {
 
         // Direct call to demonstrate result object and accessors
         var result = stripe.processPayment(15.75, "USD");
-        System.out.println("Direct call - success: " + result.success() + ", id: " + result.transactionId() + ", msg: " + result.message());
+        AsyncLogSink.console().println("Direct call - success: " + result.success() + ", id: " + result.transactionId() + ", msg: " + result.message());
+
+        // Wrapped with a circuit breaker and bulkhead, the processor treats it like any other gateway
+        var guardedRazorpay = new ResilientGateway(razorpay);
+        PaymentProcessor.process(guardedRazorpay, 750.00);
+        AsyncLogSink.console().println("Guarded Razorpay: " + guardedRazorpay.metrics());
+
+        // Batch call: Stripe charges natively in bulk, the others fall back to per-item calls
+        var batch = List.of(new PaymentGateway.PaymentRequest(1.00, "USD"),
+                new PaymentGateway.PaymentRequest(2.50, "USD"));
+        AsyncLogSink.console().println("Stripe batch: " + stripe.processBatch(batch).size() + " results");
+        AsyncLogSink.console().println("PayPal batch: " + paypal.processBatch(batch).size() + " results");
+        AsyncLogSink.console().flush();
     }
 }
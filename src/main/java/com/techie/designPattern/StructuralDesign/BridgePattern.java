@@ -1,61 +1,218 @@
 package com.techie.designPattern.StructuralDesign;
 
+import com.techie.designPattern.common.AsyncLogSink;
+
+import java.util.List;
+
 /**
  * USE CASE: Cross-Platform Notification System
  * PROBLEM: Decouple abstraction from implementation
  * JDK 17 FEATURE: Sealed interfaces for controlled hierarchies
  */
 
+enum Channel { EMAIL, SMS, PUSH }
+
 // Implementation interface
 sealed interface MessageSender permits EmailSender, SMSSender, PushSender {
     void send(String message, String recipient);
+
+    Channel channel();
+
+    // The same message to every recipient, in provider calls of at most maxBatchSize();
+    // a failed call throws and the rest of the list is not sent
+    default void sendBulk(String message, List<String> recipients) {
+        int batchSize = maxBatchSize();
+        for (int from = 0; from < recipients.size(); from += batchSize) {
+            // A view of the chunk, so nothing is copied
+            sendBatch(message, recipients.subList(from, Math.min(from + batchSize, recipients.size())));
+        }
+    }
+
+    // One provider call delivering the message to every recipient given, at most maxBatchSize()
+    void sendBatch(String message, List<String> recipients);
+
+    int maxBatchSize();
 }
 
 final class EmailSender implements MessageSender {
+    private static final int MAX_BATCH_SIZE = 1_000;
+
+    private final SimulatedNetwork network;
+
+    EmailSender() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    EmailSender(SimulatedNetwork network) {
+        this.network = network;
+    }
+
     @Override
     public void send(String message, String recipient) {
-        System.out.println("Email to " + recipient + ": " + message);
+        network.roundTrip();
+        AsyncLogSink.console().println("Email to " + recipient + ": " + message);
+    }
+
+    @Override
+    public void sendBatch(String message, List<String> recipients) {
+        network.roundTrip();
+        AsyncLogSink.console().println("Email to " + String.join(", ", recipients) + ": " + message);
+    }
+
+    @Override
+    public Channel channel() {
+        return Channel.EMAIL;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
     }
 }
 
 final class SMSSender implements MessageSender {
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final SimulatedNetwork network;
+
+    SMSSender() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    SMSSender(SimulatedNetwork network) {
+        this.network = network;
+    }
+
     @Override
     public void send(String message, String recipient) {
-        System.out.println("SMS to " + recipient + ": " + message);
+        network.roundTrip();
+        AsyncLogSink.console().println("SMS to " + recipient + ": " + message);
+    }
+
+    @Override
+    public void sendBatch(String message, List<String> recipients) {
+        network.roundTrip();
+        AsyncLogSink.console().println("SMS to " + String.join(", ", recipients) + ": " + message);
+    }
+
+    @Override
+    public Channel channel() {
+        return Channel.SMS;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
     }
 }
 
 final class PushSender implements MessageSender {
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final SimulatedNetwork network;
+
+    PushSender() {
+        this(SimulatedNetwork.NONE);
+    }
+
+    PushSender(SimulatedNetwork network) {
+        this.network = network;
+    }
+
     @Override
     public void send(String message, String recipient) {
-        System.out.println("Push notification to " + recipient + ": " + message);
+        network.roundTrip();
+        AsyncLogSink.console().println("Push notification to " + recipient + ": " + message);
+    }
+
+    @Override
+    public void sendBatch(String message, List<String> recipients) {
+        network.roundTrip();
+        AsyncLogSink.console().println("Push notification to " + String.join(", ", recipients) + ": " + message);
+    }
+
+    @Override
+    public Channel channel() {
+        return Channel.PUSH;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
     }
 }
 
+// Declared most urgent first; schedulers serve lanes in this order
+enum Priority { URGENT, REGULAR }
+
 // Abstraction
-sealed interface Notification permits UrgentNotification, RegularNotification {
+sealed interface Notification permits UrgentNotification, RegularNotification, DeduplicatingNotification {
     void notify(String message, String recipient);
+
+    MessageSender sender();
+
+    // Decorates the message once for the whole list, not once per recipient
+    void notifyBulk(String message, List<String> recipients);
+
+    // One personalized copy per recipient; the decoration is compiled into the template once
+    void notifyEach(MessageTemplate template, List<String> recipients, MessageTemplate.Binder binder);
+
+    Priority priority();
 }
 
 record UrgentNotification(MessageSender sender) implements Notification {
+    @Override
+    public Priority priority() {
+        return Priority.URGENT;
+    }
+
     @Override
     public void notify(String message, String recipient) {
-        System.out.println("[URGENT]");
+        AsyncLogSink.console().println("[URGENT]");
         sender.send("⚠️ " + message, recipient);
     }
+
+    @Override
+    public void notifyBulk(String message, List<String> recipients) {
+        AsyncLogSink.console().println("[URGENT]");
+        sender.sendBulk("⚠️ " + message, recipients);
+    }
+
+    @Override
+    public void notifyEach(MessageTemplate template, List<String> recipients, MessageTemplate.Binder binder) {
+        AsyncLogSink.console().println("[URGENT]");
+        template.withPrefix("⚠️ ").sendEach(sender, recipients, binder);
+    }
 }
 
 record RegularNotification(MessageSender sender) implements Notification {
+    @Override
+    public Priority priority() {
+        return Priority.REGULAR;
+    }
+
     @Override
     public void notify(String message, String recipient) {
-        System.out.println("[INFO]");
+        AsyncLogSink.console().println("[INFO]");
         sender.send("ℹ️ " + message, recipient);
     }
+
+    @Override
+    public void notifyBulk(String message, List<String> recipients) {
+        AsyncLogSink.console().println("[INFO]");
+        sender.sendBulk("ℹ️ " + message, recipients);
+    }
+
+    @Override
+    public void notifyEach(MessageTemplate template, List<String> recipients, MessageTemplate.Binder binder) {
+        AsyncLogSink.console().println("[INFO]");
+        template.withPrefix("ℹ️ ").sendEach(sender, recipients, binder);
+    }
 }
 
 public class BridgePattern {
     public static void main(String[] args) {
-        System.out.println("=== BridgePattern Demo ===");
+        AsyncLogSink.console().println("=== BridgePattern Demo ===");
 
         MessageSender emailSender = new EmailSender();
         MessageSender smsSender = new SMSSender();
@@ -68,7 +225,15 @@ public class BridgePattern {
         urgentEmail.notify("Server is down!", "ops@example.com");
         regularSms.notify("Daily report is ready.", "+1234567890");
         urgentPush.notify("You have a critical alert.", "user-device-token");
+        regularSms.notifyBulk("Maintenance tonight at 22:00.", List.of("+1234567890", "+1987654321"));
+
+        var shipped = MessageTemplate.compile("Hi {name}, order {orderId} has shipped.");
+        regularSms.notifyEach(shipped, List.of("+1234567890", "+1987654321"), (recipient, values) -> {
+            values[0] = recipient.endsWith("890") ? "Asha" : "Ben";
+            values[1] = "A-" + recipient.substring(recipient.length() - 4);
+        });
 
-        System.out.println("BridgePattern demo finished.");
+        AsyncLogSink.console().println("BridgePattern demo finished.");
+        AsyncLogSink.console().flush();
     }
 }
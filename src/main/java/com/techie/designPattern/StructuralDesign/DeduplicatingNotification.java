@@ -0,0 +1,266 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * USE CASE: "Server is down!" fired every few seconds to the same on-call engineer during an incident
+ * PROBLEM: Every repeat costs a provider call and buries the recipient in duplicates
+ * JDK 17 FEATURE: Sealed interfaces - the decorator is one more permitted Notification
+ *
+ * Wraps any Notification and lets a (recipient, message, channel) through at most once per
+ * window. Repeats inside the window are dropped and counted; they do not extend the window,
+ * so a flood still produces one notification per window. A key is claimed before the delegate
+ * sends and released again if the send throws, so a failed delivery does not suppress retries.
+ */
+record DeduplicatingNotification(Notification delegate, DedupCache cache) implements Notification {
+    DeduplicatingNotification {
+        Objects.requireNonNull(delegate, "Delegate notification cannot be null");
+        Objects.requireNonNull(cache, "Dedup cache cannot be null");
+    }
+
+    @Override
+    public MessageSender sender() {
+        return delegate.sender();
+    }
+
+    @Override
+    public Priority priority() {
+        return delegate.priority();
+    }
+
+    @Override
+    public void notify(String message, String recipient) {
+        long fingerprint = DedupCache.fingerprint(recipient, message, sender().channel());
+        if (cache.shouldSend(fingerprint)) {
+            deliver(new long[] {fingerprint}, 1, () -> delegate.notify(message, recipient));
+        }
+    }
+
+    @Override
+    public void notifyBulk(String message, List<String> recipients) {
+        var channel = sender().channel();
+        var claimed = new long[recipients.size()];
+        int claimedCount = 0;
+        // Copied only once something is suppressed; a list with no repeats is passed through as is
+        List<String> fresh = null;
+        for (int i = 0; i < recipients.size(); i++) {
+            var recipient = recipients.get(i);
+            long fingerprint = DedupCache.fingerprint(recipient, message, channel);
+            if (!cache.shouldSend(fingerprint)) {
+                if (fresh == null) {
+                    fresh = new ArrayList<>(recipients.subList(0, i));
+                }
+                continue;
+            }
+            claimed[claimedCount++] = fingerprint;
+            if (fresh != null) {
+                fresh.add(recipient);
+            }
+        }
+        var toSend = fresh == null ? recipients : fresh;
+        deliver(claimed, claimedCount, () -> delegate.notifyBulk(message, toSend));
+    }
+
+    // Keyed on each recipient's own rendered copy, as notify() would see it; the delegate renders
+    // the survivors again with its decoration, so the binder runs twice for them
+    @Override
+    public void notifyEach(MessageTemplate template, List<String> recipients, MessageTemplate.Binder binder) {
+        var channel = sender().channel();
+        var values = new String[template.variables().size()];
+        var scratch = new StringBuilder();
+        var claimed = new long[recipients.size()];
+        int claimedCount = 0;
+        List<String> fresh = null;
+        for (int i = 0; i < recipients.size(); i++) {
+            var recipient = recipients.get(i);
+            binder.bind(recipient, values);
+            long fingerprint = DedupCache.fingerprint(recipient, template.render(scratch, values), channel);
+            if (!cache.shouldSend(fingerprint)) {
+                if (fresh == null) {
+                    fresh = new ArrayList<>(recipients.subList(0, i));
+                }
+                continue;
+            }
+            claimed[claimedCount++] = fingerprint;
+            if (fresh != null) {
+                fresh.add(recipient);
+            }
+        }
+        var toSend = fresh == null ? recipients : fresh;
+        deliver(claimed, claimedCount, () -> delegate.notifyEach(template, toSend, binder));
+    }
+
+    // Keys are claimed before the send; if it throws they are released, so the retry gets through
+    private void deliver(long[] claimed, int count, Runnable send) {
+        if (count == 0) {
+            return;
+        }
+        try {
+            send.run();
+        } catch (RuntimeException | Error e) {
+            for (int i = 0; i < count; i++) {
+                cache.forget(claimed[i]);
+            }
+            throw e;
+        }
+    }
+}
+
+// Fixed-size, set-associative table of 64-bit key fingerprints and last-sent times. Memory is
+// one long array sized once (16 bytes per entry), however many distinct keys arrive; each key
+// sits next to its time, so a bucket is two cache lines. A new key
+// takes a free or expired slot in its 8-way bucket, else the one sent longest ago (sliding-window
+// eviction). Buckets are guarded by striped locks, so threads contend only on the same stripe.
+final class DedupCache {
+    private static final int WAYS = 8;
+    private static final int MAX_STRIPES = 1024;
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final int bucketMask;
+    // Entry i is table[2i] (key) and table[2i + 1] (sent at)
+    private final long[] table;
+    private final ReentrantLock[] stripes;
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder evictedEarly = new LongAdder();
+
+    DedupCache(int capacity, Duration window) {
+        this(capacity, window, System::nanoTime);
+    }
+
+    // nanoClock is injectable for simulations and tests
+    DedupCache(int capacity, Duration window, LongSupplier nanoClock) {
+        if (capacity < WAYS || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Capacity must be between " + WAYS + " and 2^29");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.windowNanos = window.toNanos();
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        int buckets = slots / WAYS;
+        this.bucketMask = buckets - 1;
+        this.table = new long[2 * slots];
+        this.stripes = new ReentrantLock[Math.min(buckets, MAX_STRIPES)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // True if this key was not sent within the window; the caller is then expected to send it
+    boolean shouldSend(String recipient, String message, Channel channel) {
+        return shouldSend(fingerprint(recipient, message, channel));
+    }
+
+    boolean shouldSend(long fingerprint) {
+        // 0 marks a free slot
+        long key = fingerprint == 0 ? 1 : fingerprint;
+        int bucket = (int) (key >>> 32) & bucketMask;
+        var lock = stripes[bucket & (stripes.length - 1)];
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            int base = bucket * WAYS;
+            int free = -1;
+            int oldest = base;
+            long oldestAge = -1;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                long k = table[2 * slot];
+                long age = now - table[2 * slot + 1];
+                if (k == key) {
+                    if (age < windowNanos) {
+                        suppressed.increment();
+                        return false;
+                    }
+                    table[2 * slot + 1] = now;
+                    passed.increment();
+                    return true;
+                }
+                if (k == 0 || age >= windowNanos) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (age > oldestAge) {
+                    oldestAge = age;
+                    oldest = slot;
+                }
+            }
+            int victim = free;
+            if (victim < 0) {
+                victim = oldest;
+                evictedEarly.increment();
+            }
+            table[2 * victim] = key;
+            table[2 * victim + 1] = now;
+            passed.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Releases a key claimed by shouldSend, e.g. when sending it failed; a no-op if it has
+    // since been evicted
+    void forget(long fingerprint) {
+        long key = fingerprint == 0 ? 1 : fingerprint;
+        int bucket = (int) (key >>> 32) & bucketMask;
+        var lock = stripes[bucket & (stripes.length - 1)];
+        lock.lock();
+        try {
+            int base = bucket * WAYS;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (table[2 * slot] == key) {
+                    table[2 * slot] = 0;
+                    table[2 * slot + 1] = 0;
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 64-bit FNV-1a over the recipient, its length and the message, salted with the channel,
+    // finished with the MurmurHash3 mixer so both halves are usable for indexing
+    static long fingerprint(String recipient, String message, Channel channel) {
+        long h = 0xCBF29CE484222325L ^ channel.ordinal();
+        for (int i = 0; i < recipient.length(); i++) {
+            h = (h ^ recipient.charAt(i)) * 0x100000001B3L;
+        }
+        h = (h ^ recipient.length()) * 0x100000001B3L;
+        for (int i = 0; i < message.length(); i++) {
+            h = (h ^ message.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    int capacity() {
+        return table.length / 2;
+    }
+
+    long passed() {
+        return passed.sum();
+    }
+
+    long suppressed() {
+        return suppressed.sum();
+    }
+
+    // Keys pushed out while still inside their window: a repeat of one of them gets through,
+    // so a steadily rising count means the capacity is too small for the traffic
+    long evictedEarly() {
+        return evictedEarly.sum();
+    }
+}
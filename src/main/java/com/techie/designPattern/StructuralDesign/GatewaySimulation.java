@@ -0,0 +1,156 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * USE CASE: Local stand-ins for the remote side of the payment adaptees and message senders
+ * PROBLEM: Routing, hedging and isolation can't be exercised against in-process calls that never wait or fail
+ * JDK 17 FEATURE: Records with compact constructors
+ */
+
+// Per-call network delay (base + uniform jitter) and failure probability for a simulated adaptee or sender
+record SimulatedNetwork(long baseMicros, long jitterMicros, double failureRate) {
+    static final SimulatedNetwork NONE = new SimulatedNetwork(0, 0, 0);
+
+    SimulatedNetwork {
+        if (baseMicros < 0 || jitterMicros < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+        }
+    }
+
+    static SimulatedNetwork latency(long baseMicros, long jitterMicros) {
+        return new SimulatedNetwork(baseMicros, jitterMicros, 0);
+    }
+
+    // Sleeps rather than spins, so simulated calls on virtual threads release their carrier
+    void roundTrip() {
+        var random = ThreadLocalRandom.current();
+        long micros = baseMicros + (jitterMicros == 0 ? 0 : random.nextLong(jitterMicros + 1));
+        if (micros > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(micros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during simulated gateway call", e);
+            }
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated gateway failure");
+        }
+    }
+}
+
+// Outcomes by idempotency key, each forgotten once window has passed since it completed, so
+// memory holds the keys completed within one window plus those in flight rather than every key
+// ever seen. A key re-used after its window starts a new operation. Expired keys are dropped
+// when a new key is claimed, by whichever caller gets the sweep lock.
+final class IdempotencyWindow<T> {
+    static final Duration DEFAULT_WINDOW = Duration.ofMinutes(10);
+
+    private record Expiry(String key, CompletableFuture<?> outcome, long expiresAt) {}
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, CompletableFuture<T>> outcomes = new ConcurrentHashMap<>();
+    // In completion order, so expiry times only grow from head to tail (give or take a race)
+    private final ConcurrentLinkedQueue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock sweeping = new ReentrantLock();
+
+    IdempotencyWindow(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    // nanoClock is injectable for tests
+    IdempotencyWindow(Duration window, LongSupplier nanoClock) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Idempotency window must be positive");
+        }
+        this.windowNanos = window.toNanos();
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+    }
+
+    // Null if the key was free and now maps to outcome, else the outcome already kept for it
+    CompletableFuture<T> claim(String key, CompletableFuture<T> outcome) {
+        Objects.requireNonNull(key, "Idempotency key cannot be null");
+        expire();
+        var existing = outcomes.putIfAbsent(key, outcome);
+        if (existing == null) {
+            outcome.whenComplete((value, e) -> expiries.offer(new Expiry(key, outcome, nanoClock.getAsLong() + windowNanos)));
+        }
+        return existing;
+    }
+
+    // Frees the key at once, e.g. after a failure that settled nothing
+    void release(String key, CompletableFuture<T> outcome) {
+        outcomes.remove(key, outcome);
+    }
+
+    int size() {
+        return outcomes.size();
+    }
+
+    private void expire() {
+        if (expiries.isEmpty() || !sweeping.tryLock()) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            Expiry head;
+            while ((head = expiries.peek()) != null && now - head.expiresAt() >= 0) {
+                expiries.poll();
+                // A no-op if the key was released, or re-claimed after a release
+                outcomes.remove(head.key(), head.outcome());
+            }
+        } finally {
+            sweeping.unlock();
+        }
+    }
+}
+
+// Gateway-side idempotency: the first request with a key performs the charge, later ones
+// (retries, hedges) within the idempotency window get the same outcome instead of charging again.
+final class IdempotencyLedger<T> {
+    private final IdempotencyWindow<T> outcomes;
+
+    IdempotencyLedger() {
+        this(IdempotencyWindow.DEFAULT_WINDOW);
+    }
+
+    IdempotencyLedger(Duration window) {
+        this.outcomes = new IdempotencyWindow<>(window);
+    }
+
+    T execute(String key, Supplier<T> charge) {
+        var mine = new CompletableFuture<T>();
+        var existing = outcomes.claim(key, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            T outcome = charge.get();
+            mine.complete(outcome);
+            return outcome;
+        } catch (RuntimeException e) {
+            // A failed charge settled nothing, so the key may be retried
+            outcomes.release(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int size() {
+        return outcomes.size();
+    }
+}
@@ -0,0 +1,179 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * USE CASE: Thousands of callers notifying one recipient each over the same channel
+ * PROBLEM: One provider round trip (and one decorated copy of the text) per recipient
+ * JDK 21 FEATURE: Virtual thread flusher + MessageSender.sendBulk
+ *
+ * Recipients submitted with the same message text join one open batch. A batch goes out
+ * through Notification.notifyBulk when it reaches maxBatchSize recipients, or maxDelayMicros
+ * after it was opened, whichever comes first. Each submit only stores the recipient in the
+ * batch's array; every caller in a batch shares the batch's future.
+ */
+final class MessageCoalescer implements AutoCloseable {
+
+    private static final class Batch {
+        final String message;
+        final String[] recipients;
+        final long deadlineNanos;
+        final CompletableFuture<Void> sent = new CompletableFuture<>();
+        int size;
+        // Set under the lock once the batch has left the open map
+        boolean dispatched;
+
+        Batch(String message, int capacity, long deadlineNanos) {
+            this.message = message;
+            this.recipients = new String[capacity];
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private final Notification notification;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Open batches by message text, and in the order they were opened (which is deadline order)
+    private final Map<String, Batch> open = new HashMap<>();
+    private final ArrayDeque<Batch> byDeadline = new ArrayDeque<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread flusher;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+    private boolean closed;
+
+    MessageCoalescer(Notification notification, int maxBatchSize, long maxDelayMicros) {
+        this.notification = Objects.requireNonNull(notification, "Notification cannot be null");
+        if (maxBatchSize <= 0 || maxDelayMicros < 0) {
+            throw new IllegalArgumentException("Batch size must be positive, delay non-negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.flusher = Thread.ofVirtual().name("message-coalescer").start(this::run);
+    }
+
+    // Completes when the batch holding this recipient has been sent; fails if that call failed
+    public CompletableFuture<Void> submit(String message, String recipient) {
+        Objects.requireNonNull(message, "Message cannot be null");
+        Objects.requireNonNull(recipient, "Recipient cannot be null");
+        Batch batch;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Coalescer is closed");
+            }
+            batch = open.get(message);
+            if (batch == null) {
+                batch = new Batch(message, maxBatchSize, System.nanoTime() + maxDelayNanos);
+                open.put(message, batch);
+                byDeadline.add(batch);
+                if (byDeadline.size() == 1) {
+                    changed.signal();
+                }
+            }
+            batch.recipients[batch.size++] = recipient;
+            if (batch.size == maxBatchSize) {
+                open.remove(message);
+                batch.dispatched = true;
+                // Under the lock, so close() cannot shut the senders down before this is handed over
+                dispatch(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return batch.sent;
+    }
+
+    public long batchesSent() {
+        return batches.get();
+    }
+
+    public long messagesSent() {
+        return messages.get();
+    }
+
+    // Sends every open batch now, then waits for all sends to finish
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        senders.close();
+    }
+
+    private void run() {
+        while (true) {
+            Batch due;
+            lock.lock();
+            try {
+                while (!closed && byDeadline.isEmpty()) {
+                    changed.awaitUninterruptibly();
+                }
+                if (byDeadline.isEmpty()) {
+                    return;
+                }
+                var head = byDeadline.peek();
+                if (head.dispatched) {
+                    // Filled up and already sent by a submitter
+                    byDeadline.poll();
+                    continue;
+                }
+                long wait = head.deadlineNanos - System.nanoTime();
+                if (wait > 0 && !closed) {
+                    try {
+                        changed.awaitNanos(wait);
+                    } catch (InterruptedException e) {
+                        // Only close() stops the flusher; open batches must still go out
+                    }
+                    continue;
+                }
+                byDeadline.poll();
+                open.remove(head.message);
+                head.dispatched = true;
+                due = head;
+            } finally {
+                lock.unlock();
+            }
+            dispatch(due);
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        senders.execute(() -> {
+            try {
+                notification.notifyBulk(batch.message, Arrays.asList(batch.recipients).subList(0, batch.size));
+                // Counted before completing, so a caller that sees its future done also sees the send
+                batches.incrementAndGet();
+                messages.addAndGet(batch.size);
+                batch.sent.complete(null);
+            } catch (RuntimeException e) {
+                batch.sent.completeExceptionally(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * USE CASE: One bulk text with per-recipient fields, e.g. "Hi {name}, order {orderId} has shipped"
+ * PROBLEM: Concatenating every copy re-scans the text and allocates intermediate Strings per recipient
+ * JDK 17 FEATURE: Interned immutable instances + functional interfaces
+ *
+ * A template is parsed once into literal chunks alternating with variable slots. Placeholders
+ * are {name}; "{{" and "}}" stand for literal braces. A variable used twice shares one slot.
+ * Values are passed per slot (in the order of variables()) in a String[] the caller reuses, and
+ * rendering appends the chunks and values straight into a caller-owned StringBuilder or a
+ * ByteBuffer (UTF-8, literals pre-encoded), so the only allocation is the output itself.
+ */
+final class MessageTemplate {
+    // Past the cap templates still compile, they just aren't kept, so ad-hoc texts cannot grow it without bound
+    private static final int MAX_CACHED = 10_000;
+    private static final ConcurrentHashMap<String, MessageTemplate> COMPILED = new ConcurrentHashMap<>();
+
+    // Fills values (indexed by slot) for one recipient; may be called more than once per recipient
+    @FunctionalInterface
+    interface Binder {
+        void bind(String recipient, String[] values);
+    }
+
+    private final String source;
+    // literals[i] comes before slots[i]; the last literal trails the last slot
+    private final String[] literals;
+    private final byte[][] encodedLiterals;
+    private final int[] slots;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private MessageTemplate(String source, List<String> literals, List<Integer> slots, List<String> variables) {
+        this.source = source;
+        this.literals = literals.toArray(String[]::new);
+        this.encodedLiterals = new byte[this.literals.length][];
+        int length = 0;
+        for (int i = 0; i < this.literals.length; i++) {
+            encodedLiterals[i] = this.literals[i].getBytes(StandardCharsets.UTF_8);
+            length += this.literals[i].length();
+        }
+        this.slots = slots.stream().mapToInt(Integer::intValue).toArray();
+        this.variables = List.copyOf(variables);
+        this.literalLength = length;
+    }
+
+    static MessageTemplate compile(String source) {
+        Objects.requireNonNull(source, "Template cannot be null");
+        var cached = COMPILED.get(source);
+        if (cached != null) {
+            return cached;
+        }
+        var template = parse(source);
+        if (COMPILED.size() < MAX_CACHED) {
+            var raced = COMPILED.putIfAbsent(source, template);
+            return raced != null ? raced : template;
+        }
+        return template;
+    }
+
+    // The same template with literal text in front, e.g. the "⚠️ " of an urgent notification
+    MessageTemplate withPrefix(String prefix) {
+        return prefix.isEmpty() ? this : compile(escape(prefix) + source);
+    }
+
+    static String escape(String literal) {
+        return literal.replace("{", "{{").replace("}", "}}");
+    }
+
+    String source() {
+        return source;
+    }
+
+    // Variable names in slot order
+    List<String> variables() {
+        return variables;
+    }
+
+    int slot(String variable) {
+        int slot = variables.indexOf(variable);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Template has no variable {" + variable + "}");
+        }
+        return slot;
+    }
+
+    // Appends the rendered text to out; size out once and it is never reallocated
+    void renderTo(StringBuilder out, String[] values) {
+        checkValues(values);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(values[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    // Renders into scratch (cleared first) and returns the one String that leaves the template
+    String render(StringBuilder scratch, String[] values) {
+        scratch.setLength(0);
+        renderTo(scratch, values);
+        return scratch.toString();
+    }
+
+    // Writes UTF-8 at the buffer's position; throws BufferOverflowException if it does not fit
+    void renderTo(ByteBuffer out, String[] values) {
+        checkValues(values);
+        for (int i = 0; i < slots.length; i++) {
+            out.put(encodedLiterals[i]);
+            putUtf8(out, values[slots[i]]);
+        }
+        out.put(encodedLiterals[slots.length]);
+    }
+
+    // Length in chars of the literal text alone; add the values' lengths to size a builder
+    int literalLength() {
+        return literalLength;
+    }
+
+    // One builder and one values array for the whole list; each recipient costs only its rendered String
+    void sendEach(MessageSender sender, List<String> recipients, Binder binder) {
+        var values = new String[variables.size()];
+        var scratch = new StringBuilder(literalLength + 16 * values.length);
+        for (int i = 0; i < recipients.size(); i++) {
+            var recipient = recipients.get(i);
+            binder.bind(recipient, values);
+            sender.send(render(scratch, values), recipient);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private void checkValues(String[] values) {
+        if (values.length < variables.size()) {
+            throw new IllegalArgumentException("Expected " + variables.size() + " values, got " + values.length);
+        }
+        for (int slot = 0; slot < variables.size(); slot++) {
+            if (values[slot] == null) {
+                throw new IllegalArgumentException("No value for {" + variables.get(slot) + "}");
+            }
+        }
+    }
+
+    private static void putUtf8(ByteBuffer out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                        .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: replaced, as String.getBytes does
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static MessageTemplate parse(String source) {
+        var literals = new ArrayList<String>();
+        var slots = new ArrayList<Integer>();
+        var variables = new ArrayList<String>();
+        var literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '{' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+            } else if (c == '}' && i + 1 < source.length() && source.charAt(i + 1) == '}') {
+                literal.append('}');
+                i += 2;
+            } else if (c == '{') {
+                int close = source.indexOf('}', i + 1);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder at index " + i + " in template: " + source);
+                }
+                var name = source.substring(i + 1, close).strip();
+                if (name.isEmpty() || name.indexOf('{') >= 0) {
+                    throw new IllegalArgumentException("Invalid placeholder at index " + i + " in template: " + source);
+                }
+                int slot = variables.indexOf(name);
+                if (slot < 0) {
+                    slot = variables.size();
+                    variables.add(name);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(slot);
+                i = close + 1;
+            } else if (c == '}') {
+                throw new IllegalArgumentException("Unmatched '}' at index " + i + " in template: " + source);
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new MessageTemplate(source, literals, slots, variables);
+    }
+}
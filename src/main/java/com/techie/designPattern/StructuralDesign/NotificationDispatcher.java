@@ -0,0 +1,217 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.RateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * USE CASE: Broadcasting one alert to thousands of recipients over email, SMS and push
+ * PROBLEM: Notification.notify handles one recipient on one channel; a loop over a million is serial
+ * JDK 21 FEATURE: Virtual threads + records + EnumMap
+ *
+ * Recipients are split into one queue per channel. Each channel gets its own pool of virtual
+ * worker threads (its concurrency limit) that pull from the queue and pace themselves on the
+ * channel's RateLimiter, so a slow or throttled channel never holds up the others. The same
+ * Notification abstraction (urgent or regular) is bridged onto every channel's sender.
+ */
+final class NotificationDispatcher implements AutoCloseable {
+    private static final int MAX_FAILURE_SAMPLES = 100;
+
+    record Recipient(Channel channel, String address) {
+        Recipient {
+            Objects.requireNonNull(channel, "Channel cannot be null");
+            Objects.requireNonNull(address, "Address cannot be null");
+        }
+    }
+
+    record ChannelSettings(MessageSender sender, RateLimiter rateLimit, int concurrency) {
+        ChannelSettings {
+            Objects.requireNonNull(sender, "Sender cannot be null");
+            Objects.requireNonNull(rateLimit, "Rate limit cannot be null");
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("Concurrency must be positive");
+            }
+        }
+
+        static ChannelSettings unlimited(MessageSender sender, int concurrency) {
+            return new ChannelSettings(sender, RateLimiter.unlimited(), concurrency);
+        }
+    }
+
+    record Failure(Recipient recipient, String reason) {}
+
+    record ChannelReport(Channel channel, long delivered, long failed, Duration elapsed) {}
+
+    // failureSamples holds at most the first 100 failures; the counts are exact
+    record DispatchReport(long delivered, long failed, Map<Channel, ChannelReport> byChannel,
+                          List<Failure> failureSamples, Duration elapsed) {}
+
+    private final Map<Channel, ChannelSettings> channels;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    NotificationDispatcher(Map<Channel, ChannelSettings> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("At least one channel is required");
+        }
+        this.channels = new EnumMap<>(channels);
+    }
+
+    // Blocks until every recipient has been tried once; cheap to call from a virtual thread
+    public DispatchReport broadcast(Function<MessageSender, Notification> kind, String message,
+                                    List<Recipient> recipients) throws InterruptedException {
+        Objects.requireNonNull(kind, "Notification kind cannot be null");
+        Objects.requireNonNull(message, "Message cannot be null");
+        long start = System.nanoTime();
+        var failures = new FailureLog();
+
+        var queues = new EnumMap<Channel, List<Recipient>>(Channel.class);
+        for (var recipient : recipients) {
+            queues.computeIfAbsent(recipient.channel(), c -> new ArrayList<>()).add(recipient);
+        }
+
+        var runs = new ArrayList<ChannelRun>();
+        queues.forEach((channel, queue) -> {
+            var settings = channels.get(channel);
+            if (settings == null) {
+                var run = new ChannelRun(channel, queue, null, null, failures);
+                run.failAll("No sender configured for " + channel);
+                runs.add(run);
+            } else {
+                runs.add(new ChannelRun(channel, queue, settings, kind.apply(settings.sender()), failures));
+            }
+        });
+        var workers = new ArrayList<Future<?>>();
+        for (var run : runs) {
+            run.start(message, workers);
+        }
+        for (var worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Dispatch worker failed", e.getCause());
+            }
+        }
+
+        var byChannel = new EnumMap<Channel, ChannelReport>(Channel.class);
+        long delivered = 0;
+        long failed = 0;
+        for (var run : runs) {
+            var report = run.report();
+            byChannel.put(run.channel, report);
+            delivered += report.delivered();
+            failed += report.failed();
+        }
+        return new DispatchReport(delivered, failed, Collections.unmodifiableMap(byChannel),
+                failures.samples(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // One channel's share of a broadcast: workers claim recipients through a shared cursor
+    private final class ChannelRun {
+        private final Channel channel;
+        private final List<Recipient> queue;
+        private final ChannelSettings settings;
+        private final Notification notification;
+        private final FailureLog failures;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger running = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private volatile long finishedNanos;
+
+        ChannelRun(Channel channel, List<Recipient> queue, ChannelSettings settings,
+                   Notification notification, FailureLog failures) {
+            this.channel = channel;
+            this.queue = queue;
+            this.settings = settings;
+            this.notification = notification;
+            this.failures = failures;
+        }
+
+        void start(String message, List<Future<?>> workers) {
+            if (settings == null) {
+                return;
+            }
+            int count = Math.min(settings.concurrency(), queue.size());
+            running.set(count);
+            for (int i = 0; i < count; i++) {
+                workers.add(executor.submit(() -> work(message)));
+            }
+        }
+
+        private void work(String message) {
+            try {
+                int next;
+                while ((next = cursor.getAndIncrement()) < queue.size()) {
+                    var recipient = queue.get(next);
+                    try {
+                        settings.rateLimit().acquire();
+                        notification.notify(message, recipient.address());
+                        delivered.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        fail(recipient, "Interrupted");
+                        return;
+                    } catch (RuntimeException e) {
+                        fail(recipient, String.valueOf(e.getMessage()));
+                    }
+                }
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    finishedNanos = System.nanoTime();
+                }
+            }
+        }
+
+        void failAll(String reason) {
+            for (var recipient : queue) {
+                fail(recipient, reason);
+            }
+        }
+
+        private void fail(Recipient recipient, String reason) {
+            failed.incrementAndGet();
+            failures.add(new Failure(recipient, reason));
+        }
+
+        ChannelReport report() {
+            long end = finishedNanos == 0 ? System.nanoTime() : finishedNanos;
+            return new ChannelReport(channel, delivered.get(), failed.get(), Duration.ofNanos(end - startNanos));
+        }
+    }
+
+    // Keeps the first failures for diagnosis without letting a dead channel fill the heap
+    private static final class FailureLog {
+        private final ConcurrentLinkedQueue<Failure> samples = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Failure failure) {
+            if (size.get() < MAX_FAILURE_SAMPLES && size.incrementAndGet() <= MAX_FAILURE_SAMPLES) {
+                samples.add(failure);
+            }
+        }
+
+        List<Failure> samples() {
+            return List.copyOf(samples);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * USE CASE: "Server is down!" accepted from a caller must reach on-call even if this process crashes
+ * PROBLEM: Between Notification.notify and MessageSender.send the message only exists in memory
+ * JDK 21 FEATURE: Virtual thread delivery loop over a memory-mapped OutboxLog
+ *
+ * submit() writes the message to the log and returns once the record is on disk; a single
+ * delivery thread reads durable records in order, sends each through the registered
+ * Notification for its priority and channel, and then advances the log's cursor. On startup
+ * delivery resumes from the last forced cursor, so every record accepted before a crash is
+ * sent - a record delivered just before the crash, whose cursor move was not yet forced, is
+ * sent again (at-least-once).
+ */
+final class NotificationOutbox implements AutoCloseable {
+    static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    static final long DEFAULT_FLUSH_INTERVAL_MICROS = 1_000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+    private static final long IDLE_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final OutboxLog log;
+    // Indexed by priority and channel ordinal
+    private final Notification[][] routes = new Notification[Priority.values().length][Channel.values().length];
+    private final Thread deliverer;
+    private final ReentrantLock deliveredLock = new ReentrantLock();
+    private final Condition deliveredChanged = deliveredLock.newCondition();
+    private volatile int deliveryWaiters;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    NotificationOutbox(Path dir, List<Notification> targets) {
+        this(dir, targets, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_INTERVAL_MICROS);
+    }
+
+    // targets: at most one Notification per (priority, channel); records are routed back to them on delivery
+    NotificationOutbox(Path dir, List<Notification> targets, int segmentBytes, long flushIntervalMicros) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target notification is required");
+        }
+        for (var target : targets) {
+            var row = routes[target.priority().ordinal()];
+            int channel = target.sender().channel().ordinal();
+            if (row[channel] != null) {
+                throw new IllegalArgumentException("Duplicate target for " + target.priority() + " " + target.sender().channel());
+            }
+            row[channel] = target;
+        }
+        this.log = new OutboxLog(dir, segmentBytes, flushIntervalMicros);
+        this.deliverer = Thread.ofVirtual().name("outbox-deliverer-" + dir.getFileName()).start(this::run);
+    }
+
+    // Returns once the message is durable; it is then sent even if the process dies first
+    public void submit(Notification notification, String message, String recipient) throws InterruptedException {
+        log.awaitDurable(enqueue(notification, message, recipient));
+    }
+
+    // Appends without waiting for the fsync; returns the position to pass to awaitDurable or awaitDelivered
+    public long enqueue(Notification notification, String message, String recipient) {
+        Objects.requireNonNull(notification, "Notification cannot be null");
+        Objects.requireNonNull(message, "Message cannot be null");
+        Objects.requireNonNull(recipient, "Recipient cannot be null");
+        var channel = notification.sender().channel();
+        if (routes[notification.priority().ordinal()][channel.ordinal()] == null) {
+            throw new IllegalArgumentException("No target registered for " + notification.priority() + " " + channel);
+        }
+        return log.append(notification.priority(), channel, recipient, message);
+    }
+
+    public void awaitDurable(long position) throws InterruptedException {
+        log.awaitDurable(position);
+    }
+
+    // True once every record before position has been sent (or dropped after its last attempt)
+    public boolean awaitDelivered(long position, Duration timeout) throws InterruptedException {
+        if (log.cursor() >= position) {
+            return true;
+        }
+        deliveredLock.lock();
+        try {
+            deliveryWaiters++;
+            long remaining = timeout.toNanos();
+            while (log.cursor() < position) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = deliveredChanged.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            deliveryWaiters--;
+            deliveredLock.unlock();
+        }
+    }
+
+    public long delivered() {
+        return delivered.get();
+    }
+
+    // Records left over from an earlier run on this directory that this outbox has since sent or dropped
+    public long replayed() {
+        return replayed.get();
+    }
+
+    public long failedAttempts() {
+        return failedAttempts.get();
+    }
+
+    // Records given up on after MAX_ATTEMPTS failed sends
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public long flushes() {
+        return log.flushes();
+    }
+
+    // Stops delivery and closes the log; undelivered records are sent by the next outbox on this directory
+    @Override
+    public void close() {
+        closed = true;
+        deliverer.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                deliverer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        log.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        var reader = log.reader();
+        long recovered = log.recoveredPosition();
+        try {
+            while (!closed) {
+                long from = reader.position();
+                var entry = reader.next();
+                if (entry == null) {
+                    log.awaitReadable(reader.position(), IDLE_RECHECK_NANOS);
+                    continue;
+                }
+                if (!send(entry)) {
+                    // Interrupted by close(): left for the next outbox to replay
+                    return;
+                }
+                if (from < recovered) {
+                    replayed.incrementAndGet();
+                }
+                log.commit(reader.position());
+                if (deliveryWaiters > 0) {
+                    deliveredLock.lock();
+                    try {
+                        deliveredChanged.signalAll();
+                    } finally {
+                        deliveredLock.unlock();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    // False only if close() interrupted the attempts before one succeeded
+    private boolean send(OutboxLog.Entry entry) throws InterruptedException {
+        var notification = routes[entry.priority().ordinal()][entry.channel().ordinal()];
+        if (notification == null) {
+            // Written by an outbox that had a target this one was not given
+            dropped.incrementAndGet();
+            return true;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                notification.notify(entry.message(), entry.recipient());
+                delivered.incrementAndGet();
+                return true;
+            } catch (RuntimeException e) {
+                if (closed) {
+                    return false;
+                }
+                failedAttempts.incrementAndGet();
+                if (attempt == MAX_ATTEMPTS) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+                Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * USE CASE: Paging on-call engineers while a million newsletter pushes are still queued
+ * PROBLEM: One FIFO queue puts an urgent alert behind every regular message ahead of it
+ * JDK 21 FEATURE: Virtual thread workers + EnumMap lanes + sealed Notification.priority()
+ *
+ * Each Priority gets its own bounded lane. Workers dequeue STRICT (always the most urgent
+ * non-empty lane; lower lanes can starve) or WEIGHTED (round robin, taking up to weight
+ * messages from a lane per turn, so regular traffic keeps a guaranteed share). Queueing
+ * delay and delivery time are recorded per priority, so the urgent p99 can be watched
+ * directly while the regular lane is deep.
+ */
+final class NotificationScheduler implements AutoCloseable {
+
+    enum DequeuePolicy { STRICT, WEIGHTED }
+
+    // capacity bounds the messages waiting in the lane; weight is used by WEIGHTED only
+    record LaneSettings(int capacity, int weight) {
+        LaneSettings {
+            if (capacity <= 0 || weight <= 0) {
+                throw new IllegalArgumentException("Lane capacity and weight must be positive");
+            }
+        }
+    }
+
+    record LaneStats(Priority priority, int queued, long submitted, long rejected, long delivered, long failed,
+                     LatencyHistogram.Snapshot queueing, LatencyHistogram.Snapshot delivery) {}
+
+    private record Scheduled(Notification notification, String message, String recipient, long enqueuedNanos) {}
+
+    private static final class LaneMetrics {
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final LatencyHistogram queueing = new LatencyHistogram();
+        final LatencyHistogram delivery = new LatencyHistogram();
+    }
+
+    private final PriorityLanes<Scheduled> lanes;
+    private final Map<Priority, LaneMetrics> metrics = new EnumMap<>(Priority.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    NotificationScheduler(Map<Priority, LaneSettings> lanes, DequeuePolicy policy, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive");
+        }
+        this.lanes = new PriorityLanes<>(lanes, policy);
+        for (var priority : Priority.values()) {
+            metrics.put(priority, new LaneMetrics());
+        }
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::work);
+        }
+    }
+
+    // Urgent lane: 10,000 deep, served 8:1 against a 1,000,000-deep regular lane
+    static NotificationScheduler withDefaults(int workers) {
+        return new NotificationScheduler(Map.of(
+                Priority.URGENT, new LaneSettings(10_000, 8),
+                Priority.REGULAR, new LaneSettings(1_000_000, 1)), DequeuePolicy.WEIGHTED, workers);
+    }
+
+    // Returns false, without waiting, if the notification's lane is full
+    public boolean trySubmit(Notification notification, String message, String recipient) {
+        var scheduled = schedule(notification, message, recipient);
+        var lane = metrics.get(notification.priority());
+        if (!lanes.offer(notification.priority(), scheduled)) {
+            lane.rejected.incrementAndGet();
+            return false;
+        }
+        lane.submitted.incrementAndGet();
+        return true;
+    }
+
+    // Waits while the lane is full, which pushes back on producers of that priority only
+    public void submit(Notification notification, String message, String recipient) throws InterruptedException {
+        var scheduled = schedule(notification, message, recipient);
+        lanes.put(notification.priority(), scheduled);
+        metrics.get(notification.priority()).submitted.incrementAndGet();
+    }
+
+    private static Scheduled schedule(Notification notification, String message, String recipient) {
+        Objects.requireNonNull(notification, "Notification cannot be null");
+        Objects.requireNonNull(message, "Message cannot be null");
+        Objects.requireNonNull(recipient, "Recipient cannot be null");
+        return new Scheduled(notification, message, recipient, System.nanoTime());
+    }
+
+    public LaneStats stats(Priority priority) {
+        var lane = metrics.get(priority);
+        return new LaneStats(priority, lanes.size(priority), lane.submitted.get(), lane.rejected.get(),
+                lane.delivered.get(), lane.failed.get(), lane.queueing.snapshot(), lane.delivery.snapshot());
+    }
+
+    // Stops accepting, delivers everything already queued, then stops the workers
+    @Override
+    public void close() {
+        lanes.close();
+        executor.close();
+    }
+
+    private void work() {
+        try {
+            Scheduled next;
+            while ((next = lanes.take()) != null) {
+                var lane = metrics.get(next.notification().priority());
+                lane.queueing.record(System.nanoTime() - next.enqueuedNanos());
+                try {
+                    next.notification().notify(next.message(), next.recipient());
+                    lane.delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    lane.failed.incrementAndGet();
+                }
+                lane.delivery.record(System.nanoTime() - next.enqueuedNanos());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+// Bounded lanes, one per Priority, behind one lock: a taker waits for any lane, and a full
+// lane blocks only its own producers.
+final class PriorityLanes<T> {
+    private final ArrayDeque<T>[] lanes;
+    private final int[] capacities;
+    private final int[] weights;
+    private final NotificationScheduler.DequeuePolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition[] notFull;
+    private int size;
+    // WEIGHTED: the lane being served and how many more it may take this turn
+    private int current;
+    private int credits;
+    private boolean closed;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    PriorityLanes(Map<Priority, NotificationScheduler.LaneSettings> settings, NotificationScheduler.DequeuePolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "Dequeue policy cannot be null");
+        var priorities = Priority.values();
+        lanes = new ArrayDeque[priorities.length];
+        capacities = new int[priorities.length];
+        weights = new int[priorities.length];
+        notFull = new Condition[priorities.length];
+        for (var priority : priorities) {
+            var lane = settings.get(priority);
+            if (lane == null) {
+                throw new IllegalArgumentException("No lane configured for " + priority);
+            }
+            int i = priority.ordinal();
+            // Grows as needed up to capacity, so a deep but idle lane costs nothing up front
+            lanes[i] = new ArrayDeque<>(Math.min(lane.capacity(), 1024));
+            capacities[i] = lane.capacity();
+            weights[i] = lane.weight();
+            notFull[i] = lock.newCondition();
+        }
+        credits = weights[0];
+    }
+
+    boolean offer(Priority priority, T item) {
+        int i = priority.ordinal();
+        lock.lock();
+        try {
+            checkOpen();
+            if (lanes[i].size() == capacities[i]) {
+                return false;
+            }
+            enqueue(i, item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(Priority priority, T item) throws InterruptedException {
+        int i = priority.ordinal();
+        lock.lockInterruptibly();
+        try {
+            checkOpen();
+            while (lanes[i].size() == capacities[i]) {
+                notFull[i].await();
+                checkOpen();
+            }
+            enqueue(i, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for the next item by policy; returns null once closed and empty
+    T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            return poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Next item by policy without waiting, or null if every lane is empty
+    T poll() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            int lane = policy == NotificationScheduler.DequeuePolicy.STRICT ? firstNonEmpty() : nextWeighted();
+            size--;
+            notFull[lane].signal();
+            return lanes[lane].poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size(Priority priority) {
+        lock.lock();
+        try {
+            return lanes[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Items already queued can still be taken; producers waiting on a full lane are released
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            for (var condition : notFull) {
+                condition.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(int lane, T item) {
+        lanes[lane].add(Objects.requireNonNull(item, "Item cannot be null"));
+        size++;
+        notEmpty.signal();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+    }
+
+    private int firstNonEmpty() {
+        int lane = 0;
+        while (lanes[lane].isEmpty()) {
+            lane++;
+        }
+        return lane;
+    }
+
+    // Caller holds the lock and size > 0, so a full pass always finds a lane
+    private int nextWeighted() {
+        while (credits == 0 || lanes[current].isEmpty()) {
+            current = (current + 1) % lanes.length;
+            credits = weights[current];
+        }
+        credits--;
+        return current;
+    }
+}
@@ -0,0 +1,576 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * USE CASE: Keeping accepted notifications on disk until a sender has actually delivered them
+ * PROBLEM: A notification held only in memory is lost if the process dies before MessageSender.send
+ * JDK 21 FEATURE: Memory-mapped NIO buffers + CRC32C + platform flusher thread
+ *
+ * Records are appended to fixed-size segment files (outbox-&lt;base position&gt;.log) mapped into
+ * memory; a position is the segment's base plus the byte offset within it. A single flusher
+ * thread forces every segment page written since its last round in one go (group commit), so
+ * callers waiting for durability share one fsync. The delivered position lives in an 8-byte
+ * mapped cursor file that is forced on the same rounds; segments wholly behind it are deleted.
+ *
+ * Record layout: int body length, int CRC32C of the body mixed with the record's position,
+ * then the body: priority ordinal, channel ordinal, varint recipient length, recipient UTF-8,
+ * message UTF-8. A zero length ends the written part of a segment and -1 marks a segment that
+ * was rolled. On open, the last segment is scanned up to the first record that fails its
+ * checksum (a torn write) and everything from there on is zeroed before appending resumes.
+ */
+final class OutboxLog implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "outbox-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CURSOR_FILE = "outbox.cursor";
+    private static final int HEADER_BYTES = 8;
+    private static final int ROLL_MARKER = -1;
+    private static final int MIN_SEGMENT_BYTES = 4096;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Channel[] CHANNELS = Channel.values();
+
+    record Entry(Priority priority, Channel channel, String recipient, String message) {}
+
+    private static final class Segment {
+        final long base;
+        final int size;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(long base, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.size = buffer.capacity();
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        long end() {
+            return base + size;
+        }
+    }
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long flushIntervalNanos;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel cursorChannel;
+    private final MappedByteBuffer cursorBuffer;
+    private final long recoveredPosition;
+
+    // Appenders: the active segment, the next free position and the checksum scratch
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C appendCrc = new CRC32C();
+    private Segment active;
+    private long writePosition;
+    private boolean closed;
+
+    // Published by the flusher and the reader respectively
+    private volatile long durable;
+    private volatile long committed;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition durableChanged = syncLock.newCondition();
+    private volatile int syncWaiters;
+    private volatile boolean flusherDone;
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final Thread flusher;
+    // Flusher only
+    private long forcedCursor;
+    private Segment forcedSegment;
+
+    OutboxLog(Path dir, int segmentBytes, long flushIntervalMicros) {
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_BYTES + " bytes");
+        }
+        if (flushIntervalMicros <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        this.dir = Objects.requireNonNull(dir, "Outbox directory cannot be null");
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(flushIntervalMicros);
+        FileChannel cursorFile = null;
+        try {
+            Files.createDirectories(dir);
+            cursorFile = FileChannel.open(dir.resolve(CURSOR_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.cursorBuffer = cursorFile.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            try (var files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (var file : files) {
+                    var segment = openSegment(file, baseOf(file), 0);
+                    segments.put(segment.base, segment);
+                }
+            }
+        } catch (IOException e) {
+            closeSegments();
+            closeQuietly(cursorFile);
+            throw new UncheckedIOException("Cannot open outbox in " + dir, e);
+        }
+        this.cursorChannel = cursorFile;
+
+        long cursor = cursorBuffer.getLong(0);
+        if (segments.isEmpty()) {
+            active = createSegment(Math.max(cursor, 0));
+            writePosition = active.base;
+        } else {
+            active = segments.lastEntry().getValue();
+            writePosition = recoverTail(active);
+        }
+        // A cursor file older than the segments, or lost along with a torn tail, is pulled into range
+        cursor = Math.max(cursor, segments.firstKey());
+        cursor = Math.min(cursor, writePosition);
+        cursorBuffer.putLong(0, cursor);
+
+        this.recoveredPosition = writePosition;
+        this.durable = writePosition;
+        this.committed = cursor;
+        this.forcedCursor = cursor;
+        this.forcedSegment = active;
+        this.flusher = Thread.ofPlatform().daemon().name("outbox-flusher-" + dir.getFileName()).start(this::run);
+    }
+
+    // Returns the position just past the record; pass it to awaitDurable to wait for the fsync.
+    // The record is readable (and so deliverable) only once it is durable.
+    long append(Priority priority, Channel channel, String recipient, String message) {
+        Objects.requireNonNull(priority, "Priority cannot be null");
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        byte[] to = recipient.getBytes(StandardCharsets.UTF_8);
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 2 + varintSize(to.length) + to.length + text.length;
+        int recordLength = HEADER_BYTES + bodyLength;
+        if (recordLength > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + recordLength + " bytes does not fit a segment");
+        }
+
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Outbox log is closed");
+            }
+            if (writePosition - active.base + recordLength > active.size) {
+                roll();
+            }
+            var buffer = active.buffer;
+            int at = (int) (writePosition - active.base);
+            int body = at + HEADER_BYTES;
+            buffer.put(body, (byte) priority.ordinal());
+            buffer.put(body + 1, (byte) channel.ordinal());
+            int pos = putVarint(buffer, body + 2, to.length);
+            buffer.put(pos, to);
+            buffer.put(pos + to.length, text);
+            appendCrc.reset();
+            appendCrc.update(buffer.slice(body, bodyLength));
+            buffer.putInt(at + 4, checksum(appendCrc, writePosition));
+            buffer.putInt(at, bodyLength);
+            writePosition += recordLength;
+            return writePosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Blocks until everything before position has been forced to disk
+    void awaitDurable(long position) throws InterruptedException {
+        if (durable >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            syncWaiters++;
+            // A waiting caller cuts the flusher's idle pause short
+            LockSupport.unpark(flusher);
+            while (durable < position) {
+                if (flusherDone) {
+                    throw new IllegalStateException("Outbox log closed before position " + position + " was made durable");
+                }
+                durableChanged.await();
+            }
+        } finally {
+            syncWaiters--;
+            syncLock.unlock();
+        }
+    }
+
+    // Waits up to timeoutNanos for a durable record past position, without hurrying the flusher
+    boolean awaitReadable(long position, long timeoutNanos) throws InterruptedException {
+        if (durable > position) {
+            return true;
+        }
+        syncLock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (durable <= position && !flusherDone) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = durableChanged.awaitNanos(remaining);
+            }
+            return durable > position;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Reads durable records from the delivered cursor onwards; meant for a single delivering thread
+    Reader reader() {
+        return new Reader(committed);
+    }
+
+    // Records before position have been delivered; forced with the next flush round
+    void commit(long position) {
+        if (position < committed) {
+            throw new IllegalArgumentException("Cursor cannot move backwards");
+        }
+        committed = position;
+    }
+
+    long cursor() {
+        return committed;
+    }
+
+    long durablePosition() {
+        return durable;
+    }
+
+    // Where appending resumed on open; records before it were written by an earlier process
+    long recoveredPosition() {
+        return recoveredPosition;
+    }
+
+    long flushes() {
+        return flushes.get();
+    }
+
+    long flushFailures() {
+        return flushFailures.get();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    // Rejects further appends, forces what was written and the cursor, then releases the files
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        LockSupport.unpark(flusher);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flusher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        closeAll();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    final class Reader {
+        private final CRC32C crc = new CRC32C();
+        private long position;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        // Position just past the last record returned; commit it once that record is delivered
+        long position() {
+            return position;
+        }
+
+        // The next durable record, or null if there is none yet
+        Entry next() {
+            while (position < durable) {
+                var floor = segments.floorEntry(position);
+                if (floor == null) {
+                    position = segments.firstKey();
+                    continue;
+                }
+                var segment = floor.getValue();
+                var buffer = segment.buffer;
+                int at = (int) (position - segment.base);
+                int length = at + HEADER_BYTES <= segment.size ? buffer.getInt(at) : 0;
+                if (length <= 0 || at + HEADER_BYTES + length > segment.size) {
+                    // Rolled, or torn by a crash before it was ever durable: the rest of this segment is empty
+                    position = segment.end();
+                    continue;
+                }
+                byte[] body = new byte[length];
+                buffer.get(at + HEADER_BYTES, body);
+                crc.reset();
+                crc.update(body);
+                if (buffer.getInt(at + 4) != checksum(crc, position)) {
+                    position = segment.end();
+                    continue;
+                }
+                position += HEADER_BYTES + length;
+                return decode(body);
+            }
+            return null;
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean closing;
+                long target;
+                Segment last;
+                appendLock.lock();
+                try {
+                    closing = closed;
+                    target = writePosition;
+                    last = active;
+                } finally {
+                    appendLock.unlock();
+                }
+                long cursor = committed;
+                boolean pending = target != durable || cursor != forcedCursor;
+                if (pending) {
+                    try {
+                        force(target, last, cursor);
+                    } catch (UncheckedIOException e) {
+                        // Nothing is reported durable; the next round tries again
+                        flushFailures.incrementAndGet();
+                        if (closing) {
+                            return;
+                        }
+                        LockSupport.parkNanos(this, flushIntervalNanos);
+                        continue;
+                    }
+                    signalDurable(target);
+                    deleteDelivered();
+                }
+                if (closing) {
+                    return;
+                }
+                // With callers waiting, go straight into the next round: it covers whatever they
+                // appended while this one was forcing
+                if (!pending || syncWaiters == 0) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+            }
+        } finally {
+            flusherDone = true;
+            syncLock.lock();
+            try {
+                durableChanged.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    private void force(long target, Segment last, long cursor) {
+        long from = durable;
+        // Segments rolled since the last round are forced whole
+        for (var segment : segments.subMap(forcedSegment.base, true, last.base, false).values()) {
+            int start = (int) Math.max(0, from - segment.base);
+            segment.buffer.force(start, segment.size - start);
+        }
+        int start = (int) Math.max(0, from - last.base);
+        int end = (int) (target - last.base);
+        if (end > start) {
+            last.buffer.force(start, end - start);
+        }
+        forcedSegment = last;
+        if (cursor != forcedCursor) {
+            cursorBuffer.putLong(0, cursor);
+            cursorBuffer.force();
+            forcedCursor = cursor;
+        }
+        flushes.incrementAndGet();
+    }
+
+    private void signalDurable(long target) {
+        durable = target;
+        syncLock.lock();
+        try {
+            durableChanged.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Only segments the forced cursor has fully passed; the active segment is never among them
+    private void deleteDelivered() {
+        for (var segment : segments.headMap(forcedSegment.base).values()) {
+            if (segment.end() > forcedCursor) {
+                return;
+            }
+            segments.remove(segment.base);
+            closeQuietly(segment.channel);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                // Left behind; the next open skips it once the cursor is past it
+            }
+        }
+    }
+
+    private void roll() {
+        int at = (int) (writePosition - active.base);
+        if (at + Integer.BYTES <= active.size) {
+            active.buffer.putInt(at, ROLL_MARKER);
+        }
+        active = createSegment(active.end());
+        writePosition = active.base;
+    }
+
+    private Segment createSegment(long base) {
+        try {
+            var segment = openSegment(dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX)),
+                    base, segmentBytes);
+            segments.put(base, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create outbox segment in " + dir, e);
+        }
+    }
+
+    // size 0 maps an existing segment at its own length, which may predate a changed segmentBytes
+    private static Segment openSegment(Path path, long base, int size) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long length = size > 0 ? size : channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Outbox segment " + path + " has an invalid size of " + length + " bytes");
+            }
+            return new Segment(base, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Finds the end of the intact records in the last segment and zeroes the rest, so that
+    // leftovers of a torn write can never be read back as records once appending overwrites them
+    private long recoverTail(Segment segment) {
+        var buffer = segment.buffer;
+        var crc = new CRC32C();
+        int at = 0;
+        while (at + HEADER_BYTES <= segment.size) {
+            int length = buffer.getInt(at);
+            if (length <= 0 || at + HEADER_BYTES + length > segment.size) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(at + HEADER_BYTES, length));
+            if (buffer.getInt(at + 4) != checksum(crc, segment.base + at)) {
+                break;
+            }
+            at += HEADER_BYTES + length;
+        }
+        int zeroFrom = at;
+        while (zeroFrom < segment.size && (zeroFrom & 7) != 0) {
+            buffer.put(zeroFrom++, (byte) 0);
+        }
+        for (; zeroFrom + Long.BYTES <= segment.size; zeroFrom += Long.BYTES) {
+            buffer.putLong(zeroFrom, 0);
+        }
+        for (; zeroFrom < segment.size; zeroFrom++) {
+            buffer.put(zeroFrom, (byte) 0);
+        }
+        buffer.force();
+        return segment.base + at;
+    }
+
+    private static Entry decode(byte[] body) {
+        int priority = body[0];
+        int channel = body[1];
+        int length = 0;
+        int shift = 0;
+        int pos = 2;
+        byte b;
+        do {
+            b = body[pos++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new Entry(PRIORITIES[priority], CHANNELS[channel],
+                new String(body, pos, length, StandardCharsets.UTF_8),
+                new String(body, pos + length, body.length - pos - length, StandardCharsets.UTF_8));
+    }
+
+    // Mixing in the position rejects a stale but intact record left at some other offset
+    private static int checksum(CRC32C crc, long position) {
+        return (int) crc.getValue() ^ Long.hashCode(position * 0x9E3779B97F4A7C15L);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int putVarint(MappedByteBuffer buffer, int at, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put(at++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(at++, (byte) value);
+        return at;
+    }
+
+    private static long baseOf(Path file) throws IOException {
+        var name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file " + file + " in outbox directory", e);
+        }
+    }
+
+    private void closeAll() {
+        closeSegments();
+        closeQuietly(cursorChannel);
+    }
+
+    private void closeSegments() {
+        for (var segment : segments.values()) {
+            closeQuietly(segment.channel);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // a mapping stays valid until collected; nothing else to release
+        }
+    }
+}
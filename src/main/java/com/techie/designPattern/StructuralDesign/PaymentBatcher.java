@@ -0,0 +1,162 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * USE CASE: Thousands of payments per second through one PaymentGateway
+ * PROBLEM: One round trip per payment caps throughput
+ * JDK 21 FEATURE: Virtual thread flusher + records
+ *
+ * Callers submit single payments and get a future back; a flusher thread collects up to
+ * maxBatchSize requests, or whatever arrived within maxDelayMicros of the first one,
+ * and sends them through PaymentGateway.processBatch in one call.
+ */
+final class PaymentBatcher implements AutoCloseable {
+    private record Pending(PaymentGateway.PaymentRequest request,
+                           CompletableFuture<PaymentGateway.PaymentResult> result) {}
+
+    // Queued by close(); everything submitted before it is flushed first
+    private static final Pending CLOSE = new Pending(null, null);
+
+    private final PaymentGateway gateway;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread flusher;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong payments = new AtomicLong();
+    private volatile boolean closed;
+
+    PaymentBatcher(PaymentGateway gateway, int maxBatchSize, long maxDelayMicros, int queueCapacity) {
+        this.gateway = Objects.requireNonNull(gateway, "Gateway cannot be null");
+        if (maxBatchSize <= 0 || maxDelayMicros < 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive, delay non-negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flusher = Thread.ofVirtual().name("payment-batcher-" + gateway.getClass().getSimpleName()).start(this::run);
+    }
+
+    // Blocks while the queue is full, which pushes back on callers instead of growing without bound
+    public CompletableFuture<PaymentGateway.PaymentResult> submit(PaymentGateway.PaymentRequest request) {
+        Objects.requireNonNull(request, "Payment request cannot be null");
+        if (closed) {
+            throw new IllegalStateException("Batcher is closed");
+        }
+        var pending = new Pending(request, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result().completeExceptionally(e);
+            return pending.result();
+        }
+        // close() may have drained the queue between the check above and the put; if the request
+        // is still queued, no one else will take it, so fail it here. If it is gone, the flusher
+        // or close() has it and completes it
+        if (closed && queue.remove(pending)) {
+            pending.result().completeExceptionally(new IllegalStateException("Batcher is closed"));
+        }
+        return pending.result();
+    }
+
+    public long batchesFlushed() {
+        return batches.get();
+    }
+
+    public long paymentsFlushed() {
+        return payments.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(CLOSE);
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A submit racing with close may have slipped in behind the marker; one that lands after
+        // this drain fails itself
+        Pending straggler;
+        while ((straggler = queue.poll()) != null) {
+            if (straggler != CLOSE) {
+                straggler.result().completeExceptionally(new IllegalStateException("Batcher is closed"));
+            }
+        }
+    }
+
+    private void run() {
+        var batch = new ArrayList<Pending>(maxBatchSize);
+        try {
+            while (true) {
+                var first = queue.take();
+                if (first == CLOSE) {
+                    return;
+                }
+                batch.add(first);
+                boolean closing = fill(batch, System.nanoTime() + maxDelayNanos);
+                flush(batch);
+                batch.clear();
+                if (closing) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns true when the close marker was reached while filling
+    private boolean fill(List<Pending> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            var next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                    return false;
+                }
+            }
+            if (next == CLOSE) {
+                return true;
+            }
+            batch.add(next);
+        }
+        return false;
+    }
+
+    private void flush(List<Pending> batch) {
+        var requests = new ArrayList<PaymentGateway.PaymentRequest>(batch.size());
+        for (var pending : batch) {
+            requests.add(pending.request());
+        }
+        // Counted before completing, so a caller that sees its result also sees the flush
+        batches.incrementAndGet();
+        payments.addAndGet(batch.size());
+        try {
+            var results = gateway.processBatch(requests);
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Gateway returned " + results.size() + " results for " + batch.size() + " payments");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (var pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+}
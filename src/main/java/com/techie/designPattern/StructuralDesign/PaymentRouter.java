@@ -0,0 +1,290 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * USE CASE: Spreading payments over every configured PaymentGateway
+ * PROBLEM: A static switch always picks the same gateway, however slow or broken it is
+ * JDK 21 FEATURE: Virtual threads + records
+ *
+ * Each payment goes to the healthy gateway with the lowest latency EWMA, weighted by the
+ * requests it already has in flight so a burst does not all land on one gateway. With hedging on,
+ * a duplicate request is sent to the same gateway once the primary has been outstanding
+ * longer than that gateway's p95; both carry the same idempotency key, so the gateway
+ * settles the payment once and the first response wins. Hedging across different gateways
+ * is deliberately not done: two providers cannot de-duplicate each other's charges.
+ * A definite decline fails over to the next-best gateway with the same key. A gateway that
+ * throws (a timeout, a reset connection) may still have charged, so the payment is never moved
+ * to another gateway then: it is retried on the same one with the same key, up to
+ * MAX_UNKNOWN_RETRIES times, and otherwise completes with an "outcome unknown" failure to be
+ * reconciled with that gateway. Re-submitting a key
+ * returns the original outcome for idempotencyWindow after it completes (10 minutes by default);
+ * after that the key is forgotten and a re-submit is routed as a new payment.
+ */
+final class PaymentRouter implements AutoCloseable {
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int MIN_SAMPLES_FOR_HEDGE = 20;
+    private static final int FAILURES_BEFORE_EJECTION = 3;
+    private static final long EJECTION_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Stand-in latency for gateways with no samples yet, so they get explored
+    private static final double UNMEASURED_NANOS = 1_000;
+    // Retries on the same gateway after it threw, before giving up with an unknown outcome
+    static final int MAX_UNKNOWN_RETRIES = 2;
+
+    public record GatewayStats(String gateway, double ewmaMicros, long p95Micros, long calls,
+                               long failures, boolean healthy) {}
+
+    private final List<Route> routes;
+    private final boolean hedging;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Client-side de-duplication: re-submitting a key within the window returns the original outcome
+    private final IdempotencyWindow<PaymentGateway.PaymentResult> byKey;
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    PaymentRouter(List<? extends PaymentGateway> gateways, boolean hedging) {
+        this(gateways, hedging, new IdempotencyWindow<>(IdempotencyWindow.DEFAULT_WINDOW));
+    }
+
+    PaymentRouter(List<? extends PaymentGateway> gateways, boolean hedging,
+                  IdempotencyWindow<PaymentGateway.PaymentResult> idempotencyWindow) {
+        if (gateways.isEmpty()) {
+            throw new IllegalArgumentException("At least one gateway is required");
+        }
+        this.routes = gateways.stream().map(Route::new).toList();
+        this.hedging = hedging;
+        this.byKey = Objects.requireNonNull(idempotencyWindow, "Idempotency window cannot be null");
+    }
+
+    public CompletableFuture<PaymentGateway.PaymentResult> route(String idempotencyKey,
+                                                                 PaymentGateway.PaymentRequest request) {
+        Objects.requireNonNull(idempotencyKey, "Idempotency key cannot be null");
+        Objects.requireNonNull(request, "Payment request cannot be null");
+        var result = new CompletableFuture<PaymentGateway.PaymentResult>();
+        var existing = byKey.claim(idempotencyKey, result);
+        if (existing != null) {
+            return existing;
+        }
+        new Dispatch(idempotencyKey, request, result).attempt();
+        return result;
+    }
+
+    public long hedgesSent() {
+        return hedgesSent.get();
+    }
+
+    public long hedgesWon() {
+        return hedgesWon.get();
+    }
+
+    public List<GatewayStats> stats() {
+        long now = System.nanoTime();
+        return routes.stream().map(r -> new GatewayStats(r.gateway.getClass().getSimpleName(),
+                r.ewmaNanos() / 1_000.0, r.latency.percentile(0.95) / 1_000,
+                r.calls.get(), r.failures.get(), r.isHealthy(now))).toList();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    // Healthy routes first, fastest first; ejected routes stay as a last resort
+    private Route pick(List<Route> tried) {
+        long now = System.nanoTime();
+        Route best = null;
+        boolean bestHealthy = false;
+        double bestScore = Double.MAX_VALUE;
+        for (Route route : routes) {
+            if (tried.contains(route)) {
+                continue;
+            }
+            boolean healthy = route.isHealthy(now);
+            double score = route.score();
+            if (best == null || (healthy && !bestHealthy) || (healthy == bestHealthy && score < bestScore)) {
+                best = route;
+                bestHealthy = healthy;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // State for one payment. The phase (which gateway is being tried) and the number of attempts
+    // in flight share one atomic word, so a late hedge can never land on a gateway that has
+    // already been abandoned for failover.
+    private final class Dispatch {
+        private static final long PHASE = 1L << 32;
+
+        private final String key;
+        private final PaymentGateway.PaymentRequest request;
+        private final CompletableFuture<PaymentGateway.PaymentResult> result;
+        // Only touched by the thread that starts the next phase
+        private final List<Route> tried = new ArrayList<>();
+        private int unknownRetries;
+        private final AtomicLong state = new AtomicLong();
+        private volatile PaymentGateway.PaymentResult lastFailure;
+        // Set when an attempt of the current phase threw, so it may have charged
+        private volatile boolean unknown;
+
+        Dispatch(String key, PaymentGateway.PaymentRequest request,
+                 CompletableFuture<PaymentGateway.PaymentResult> result) {
+            this.key = key;
+            this.request = request;
+            this.result = result;
+        }
+
+        void attempt() {
+            var route = pick(tried);
+            if (route == null) {
+                var failure = lastFailure;
+                result.complete(failure != null ? failure
+                        : new PaymentGateway.PaymentResult(false, null, "All gateways failed"));
+                return;
+            }
+            tried.add(route);
+            start(route);
+        }
+
+        // Another try on the gateway whose outcome is unknown; it de-duplicates on the key
+        private void retryOrGiveUp(Route route) {
+            if (unknownRetries++ < MAX_UNKNOWN_RETRIES) {
+                start(route);
+                return;
+            }
+            result.complete(new PaymentGateway.PaymentResult(false, null, "Outcome unknown at "
+                    + route.gateway.getClass().getSimpleName() + "; reconcile before charging elsewhere"));
+        }
+
+        private void start(Route route) {
+            unknown = false;
+            long phase = state.addAndGet(PHASE + 1) >>> 32;
+            send(route, false);
+            if (hedging && route.calls.get() >= MIN_SAMPLES_FOR_HEDGE) {
+                long delay = route.latency.percentile(0.95);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor)
+                        .execute(() -> hedge(route, phase));
+            }
+        }
+
+        private void hedge(Route route, long phase) {
+            if (result.isDone()) {
+                return;
+            }
+            long before = state.getAndUpdate(s -> (s >>> 32) == phase && (int) s > 0 ? s + 1 : s);
+            if ((before >>> 32) == phase && (int) before > 0) {
+                hedgesSent.incrementAndGet();
+                send(route, true);
+            }
+        }
+
+        // The caller has already counted this attempt in state
+        private void send(Route route, boolean hedge) {
+            route.dispatched();
+            executor.execute(() -> {
+                var outcome = route.call(key, request);
+                if (outcome != null && outcome.success()) {
+                    if (result.complete(outcome) && hedge) {
+                        hedgesWon.incrementAndGet();
+                    }
+                } else if (outcome != null) {
+                    lastFailure = outcome;
+                } else {
+                    unknown = true;
+                }
+                // The last unsuccessful attempt on this gateway moves on to the next one, but
+                // only if every attempt here was a definite decline
+                if ((int) state.decrementAndGet() == 0 && !result.isDone()) {
+                    if (unknown) {
+                        retryOrGiveUp(route);
+                    } else {
+                        attempt();
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class Route {
+        private final PaymentGateway gateway;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        Route(PaymentGateway gateway) {
+            this.gateway = Objects.requireNonNull(gateway, "Gateway cannot be null");
+        }
+
+        // Counted when the request is dispatched, not when it starts running, so a burst of
+        // routing decisions already sees the load it is creating
+        void dispatched() {
+            inFlight.incrementAndGet();
+        }
+
+        // Returns null when the gateway threw, meaning the charge may or may not have happened;
+        // the failure is recorded either way
+        PaymentGateway.PaymentResult call(String key, PaymentGateway.PaymentRequest request) {
+            long start = System.nanoTime();
+            PaymentGateway.PaymentResult outcome = null;
+            try {
+                outcome = gateway.processPayment(key, request.amountMinor(), request.currency());
+                return outcome;
+            } catch (RuntimeException e) {
+                return null;
+            } finally {
+                inFlight.decrementAndGet();
+                record(System.nanoTime() - start, outcome != null && outcome.success());
+            }
+        }
+
+        // Expected wait if one more request is sent here now
+        double score() {
+            double ewma = ewmaNanos();
+            return (ewma == 0 ? UNMEASURED_NANOS : ewma) * (inFlight.get() + 1);
+        }
+
+        double ewmaNanos() {
+            return Double.longBitsToDouble(ewmaBits.get());
+        }
+
+        boolean isHealthy(long now) {
+            return now - ejectedUntil >= 0;
+        }
+
+        private void record(long nanos, boolean success) {
+            calls.incrementAndGet();
+            latency.record(nanos);
+            long current;
+            double next;
+            do {
+                current = ewmaBits.get();
+                double ewma = Double.longBitsToDouble(current);
+                next = ewma == 0 ? nanos : ewma + EWMA_ALPHA * (nanos - ewma);
+            } while (!ewmaBits.compareAndSet(current, Double.doubleToRawLongBits(next)));
+
+            if (success) {
+                consecutiveFailures.set(0);
+            } else {
+                failures.incrementAndGet();
+                if (consecutiveFailures.incrementAndGet() >= FAILURES_BEFORE_EJECTION) {
+                    consecutiveFailures.set(0);
+                    ejectedUntil = System.nanoTime() + EJECTION_NANOS;
+                }
+            }
+        }
+    }
+}
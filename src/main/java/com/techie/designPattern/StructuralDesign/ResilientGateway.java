@@ -0,0 +1,280 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.CurrencyCode;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * USE CASE: Isolating callers from a slow or failing payment provider
+ * PROBLEM: One degraded adaptee (e.g. RazorpayAPI) makes every caller of PaymentProcessor pile up behind it
+ * JDK 17 FEATURE: Sealed interfaces (the wrapper is itself a permitted PaymentGateway) + records
+ *
+ * Decorator around any PaymentGateway: a concurrency bulkhead caps calls in flight, and a
+ * circuit breaker opens on a high error or slow-call rate. Rejections return a pre-built
+ * failed PaymentResult instead of throwing, so shedding load allocates nothing.
+ */
+final class ResilientGateway implements PaymentGateway {
+
+    public record Settings(int windowSize, int minimumCalls, double failureRateThreshold,
+                           double slowCallRateThreshold, Duration slowCallDuration,
+                           Duration openDuration, int halfOpenTrialCalls, int maxConcurrentCalls) {
+        static final Settings DEFAULTS = new Settings(100, 20, 0.5, 0.8,
+                Duration.ofSeconds(2), Duration.ofSeconds(30), 5, 64);
+
+        public Settings {
+            if (windowSize <= 0 || minimumCalls <= 0 || halfOpenTrialCalls <= 0 || maxConcurrentCalls <= 0) {
+                throw new IllegalArgumentException("Window, minimum calls, trial calls and concurrency must be positive");
+            }
+            Objects.requireNonNull(slowCallDuration, "Slow call duration cannot be null");
+            Objects.requireNonNull(openDuration, "Open duration cannot be null");
+        }
+    }
+
+    public record Metrics(CircuitBreaker.State state, long opened, long halfOpened, long closed,
+                          long breakerRejections, long bulkheadRejections, int inFlight) {}
+
+    private final PaymentGateway delegate;
+    private final CircuitBreaker breaker;
+    private final Bulkhead bulkhead;
+    private final PaymentResult circuitOpen;
+    private final PaymentResult bulkheadFull;
+
+    ResilientGateway(PaymentGateway delegate) {
+        this(delegate, Settings.DEFAULTS);
+    }
+
+    ResilientGateway(PaymentGateway delegate, Settings settings) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate gateway cannot be null");
+        this.breaker = new CircuitBreaker(settings);
+        this.bulkhead = new Bulkhead(settings.maxConcurrentCalls());
+        String name = delegate.getClass().getSimpleName();
+        this.circuitOpen = new PaymentResult(false, null, "Circuit open: " + name);
+        this.bulkheadFull = new PaymentResult(false, null, "Too many concurrent calls: " + name);
+    }
+
+    PaymentGateway delegate() {
+        return delegate;
+    }
+
+    public Metrics metrics() {
+        return new Metrics(breaker.state(), breaker.opened.get(), breaker.halfOpened.get(), breaker.closed.get(),
+                breaker.rejections.get(), bulkhead.rejections.get(), bulkhead.inFlight.get());
+    }
+
+    @Override
+    public PaymentResult processPayment(long amountMinor, CurrencyCode currency) {
+        return guarded(null, amountMinor, currency);
+    }
+
+    @Override
+    public PaymentResult processPayment(String idempotencyKey, long amountMinor, CurrencyCode currency) {
+        return guarded(Objects.requireNonNull(idempotencyKey, "Idempotency key cannot be null"), amountMinor, currency);
+    }
+
+    // The whole batch is one call as far as the breaker and bulkhead are concerned
+    @Override
+    public List<PaymentResult> processBatch(List<PaymentRequest> requests) {
+        var rejection = admit();
+        if (rejection != null) {
+            return Collections.nCopies(requests.size(), rejection);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            var results = delegate.processBatch(requests);
+            success = results.stream().allMatch(PaymentResult::success);
+            return results;
+        } finally {
+            complete(start, success);
+        }
+    }
+
+    private PaymentResult guarded(String idempotencyKey, long amountMinor, CurrencyCode currency) {
+        var rejection = admit();
+        if (rejection != null) {
+            return rejection;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            var result = idempotencyKey == null
+                    ? delegate.processPayment(amountMinor, currency)
+                    : delegate.processPayment(idempotencyKey, amountMinor, currency);
+            success = result.success();
+            return result;
+        } finally {
+            complete(start, success);
+        }
+    }
+
+    // Returns null when the call may proceed, otherwise the pre-built rejection
+    private PaymentResult admit() {
+        if (!bulkhead.tryAcquire()) {
+            return bulkheadFull;
+        }
+        if (!breaker.tryAcquire()) {
+            bulkhead.release();
+            return circuitOpen;
+        }
+        return null;
+    }
+
+    private void complete(long start, boolean success) {
+        bulkhead.release();
+        breaker.record(System.nanoTime() - start, success);
+    }
+}
+
+// Caps concurrent calls; a full bulkhead rejects immediately instead of queueing
+final class Bulkhead {
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicLong rejections = new AtomicLong();
+    private final int maxConcurrentCalls;
+
+    Bulkhead(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrentCalls) {
+                rejections.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+}
+
+// Lock-free breaker over a count-based sliding window of the last windowSize outcomes
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    final AtomicLong opened = new AtomicLong();
+    final AtomicLong halfOpened = new AtomicLong();
+    final AtomicLong closed = new AtomicLong();
+    final AtomicLong rejections = new AtomicLong();
+
+    private final ResilientGateway.Settings settings;
+    private final long slowCallNanos;
+    private final long openNanos;
+    // State and the time it opened change together in one CAS, so no reader sees OPEN with an
+    // earlier trip's time; a Phase is only allocated on a transition
+    private record Phase(State state, long openedAt) {}
+
+    private static final Phase CLOSED = new Phase(State.CLOSED, 0);
+    private static final Phase HALF_OPEN = new Phase(State.HALF_OPEN, 0);
+
+    private final AtomicReference<Phase> phase = new AtomicReference<>(CLOSED);
+
+    // Ring of outcome flags plus running totals, updated with getAndSet so no lock is needed
+    private final AtomicIntegerArray window;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    // Half-open bookkeeping
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+    CircuitBreaker(ResilientGateway.Settings settings) {
+        this.settings = settings;
+        this.slowCallNanos = settings.slowCallDuration().toNanos();
+        this.openNanos = settings.openDuration().toNanos();
+        this.window = new AtomicIntegerArray(settings.windowSize());
+    }
+
+    State state() {
+        return phase.get().state();
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            var current = phase.get();
+            if (current == CLOSED) {
+                return true;
+            }
+            if (current.state() == State.OPEN) {
+                if (System.nanoTime() - current.openedAt() < openNanos) {
+                    rejections.incrementAndGet();
+                    return false;
+                }
+                if (phase.compareAndSet(current, HALF_OPEN)) {
+                    trialSuccesses.set(0);
+                    trialPermits.set(settings.halfOpenTrialCalls());
+                    halfOpened.incrementAndGet();
+                }
+                continue;
+            }
+            if (trialPermits.getAndDecrement() > 0) {
+                return true;
+            }
+            rejections.incrementAndGet();
+            return false;
+        }
+    }
+
+    void record(long nanos, boolean success) {
+        boolean slow = nanos >= slowCallNanos;
+        if (phase.get() == HALF_OPEN) {
+            if (!success || slow) {
+                trip(HALF_OPEN);
+            } else if (trialSuccesses.incrementAndGet() >= settings.halfOpenTrialCalls()
+                    && phase.compareAndSet(HALF_OPEN, CLOSED)) {
+                resetWindow();
+                closed.incrementAndGet();
+            }
+            return;
+        }
+
+        int flags = RECORDED | (success ? 0 : FAILED) | (slow ? SLOW : 0);
+        int slot = (int) (cursor.getAndIncrement() % window.length());
+        int previous = window.getAndSet(slot, flags);
+        int total = (previous & RECORDED) == 0 ? recorded.incrementAndGet() : recorded.get();
+        int failed = failures.addAndGet(bit(flags, FAILED) - bit(previous, FAILED));
+        int slowed = slowCalls.addAndGet(bit(flags, SLOW) - bit(previous, SLOW));
+
+        if (total >= settings.minimumCalls()
+                && (failed >= settings.failureRateThreshold() * total
+                || slowed >= settings.slowCallRateThreshold() * total)) {
+            trip(CLOSED);
+        }
+    }
+
+    private void trip(Phase from) {
+        if (phase.compareAndSet(from, new Phase(State.OPEN, System.nanoTime()))) {
+            opened.incrementAndGet();
+        }
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < window.length(); i++) {
+            window.set(i, 0);
+        }
+        recorded.set(0);
+        failures.set(0);
+        slowCalls.set(0);
+    }
+
+    private static int bit(int flags, int mask) {
+        return (flags & mask) == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,368 @@
+package com.techie.designPattern.common;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * USE CASE: Log lines from payment adaptees, message senders and Payment.process
+ * PROBLEM: System.out.println takes the stream's lock on every call, so all threads queue on stdout
+ * JDK 21 FEATURE: Thread builders + PrintStream.charset()
+ *
+ * Callers put lines into a bounded lock-free ring (a Vyukov multi-producer queue) and return.
+ * One writer thread drains it, encodes a batch into one reused buffer (ASCII lines are copied
+ * byte for byte, anything else goes through a CharsetEncoder) and hands it to the channel in
+ * as few writes as possible. When the ring is full the line is dropped or the caller waits,
+ * per OverflowPolicy. The console sink looks up System.out for each batch, so redirecting
+ * stdout still works; call flush() before reading what was redirected.
+ */
+public final class AsyncLogSink implements AutoCloseable {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    public static final String POLICY_PROPERTY = "asyncLog.policy";
+    public static final String CAPACITY_PROPERTY = "asyncLog.capacity";
+
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final class ConsoleHolder {
+        static final AsyncLogSink CONSOLE = createConsole();
+    }
+
+    // Where drained bytes go; only ever called from the writer thread
+    private interface Target extends AutoCloseable {
+        WritableByteChannel channel();
+
+        Charset charset();
+
+        void afterBatch() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final Target target;
+    private final OverflowPolicy policy;
+    private final int mask;
+    private final Object[] lines;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Writer thread only
+    private long head;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private final ByteBuffer batch = ByteBuffer.allocate(BATCH_BYTES);
+    private CharsetEncoder encoder;
+    private boolean asciiCompatible;
+    private volatile boolean idle;
+    private volatile boolean closed;
+    private final Thread writer;
+
+    private AsyncLogSink(Target target, int capacity, OverflowPolicy policy, String name) {
+        checkCapacity(capacity);
+        this.target = target;
+        this.policy = Objects.requireNonNull(policy, "Overflow policy cannot be null");
+        this.mask = capacity - 1;
+        this.lines = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.writer = Thread.ofPlatform().daemon().name(name).start(this::run);
+    }
+
+    // Shared stdout sink; policy and capacity come from system properties, default BLOCK / 65536
+    public static AsyncLogSink console() {
+        return ConsoleHolder.CONSOLE;
+    }
+
+    // Appends UTF-8 lines to the file, creating it if needed
+    public static AsyncLogSink open(Path file, int capacity, OverflowPolicy policy) throws IOException {
+        checkCapacity(capacity);
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new AsyncLogSink(new ChannelTarget(channel), capacity, policy, "async-log-" + file.getFileName());
+    }
+
+    // Writes UTF-8 lines to any channel (socket, pipe); the channel is closed with the sink
+    public static AsyncLogSink open(WritableByteChannel channel, int capacity, OverflowPolicy policy) {
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        return new AsyncLogSink(new ChannelTarget(channel), capacity, policy, "async-log-channel");
+    }
+
+    private static AsyncLogSink createConsole() {
+        var policy = OverflowPolicy.valueOf(System.getProperty(POLICY_PROPERTY, OverflowPolicy.BLOCK.name()));
+        int capacity = Integer.getInteger(CAPACITY_PROPERTY, 1 << 16);
+        var sink = new AsyncLogSink(new ConsoleTarget(), capacity, policy, "async-log-console");
+        Runtime.getRuntime().addShutdownHook(new Thread(sink::close, "async-log-shutdown"));
+        return sink;
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two >= 2: " + capacity);
+        }
+    }
+
+    // Returns false if the line was dropped because the ring was full (DROP) or the sink is closed
+    public boolean println(String line) {
+        Objects.requireNonNull(line, "Line cannot be null");
+        if (closed) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        for (int attempt = 0; !offer(line); attempt++) {
+            if (policy == OverflowPolicy.DROP || closed) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            LockSupport.unpark(writer);
+            // Yield first: the writer usually needs only a moment of CPU to free a whole batch of slots
+            if (attempt < 8) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    // Waits until every line accepted before this call has been handed to the target
+    public void flush() {
+        long target = tail.get();
+        while (written.get() < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public long writeFailures() {
+        return writeFailures.get();
+    }
+
+    // Writes out everything already accepted, then stops the writer
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(String line) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    lines[index] = line;
+                    // Publishes the line to the writer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (drain() > 0) {
+                    continue;
+                }
+                if (closed && head == tail.get()) {
+                    return;
+                }
+                idle = true;
+                // Re-check after announcing idleness, so a producer that missed the flag is seen here
+                if (!hasNext()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        } finally {
+            try {
+                target.close();
+            } catch (IOException e) {
+                writeFailures.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean hasNext() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    // Encodes every published line into as few channel writes as possible
+    private int drain() {
+        int count = 0;
+        try {
+            var charset = target.charset();
+            if (encoder == null || !encoder.charset().equals(charset)) {
+                encoder = charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                asciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                        || charset.equals(StandardCharsets.ISO_8859_1);
+            }
+            var channel = target.channel();
+            // Bounded, so a steady stream of lines still gets written out and counted for flush()
+            while (count <= mask && hasNext()) {
+                int index = (int) (head & mask);
+                var line = (String) lines[index];
+                lines[index] = null;
+                sequences.set(index, head + mask + 1);
+                head++;
+                count++;
+                encode(line, channel);
+            }
+            if (count > 0) {
+                writeOut(channel);
+                target.afterBatch();
+            }
+        } catch (IOException | RuntimeException e) {
+            writeFailures.incrementAndGet();
+            batch.clear();
+        }
+        if (count > 0) {
+            written.set(head);
+        }
+        return count;
+    }
+
+    private void encode(String line, WritableByteChannel channel) throws IOException {
+        if (asciiCompatible && copyAscii(line)) {
+            return;
+        }
+        var chars = CharBuffer.wrap(line);
+        encoder.reset();
+        // A line longer than the batch buffer is written out in pieces
+        while (encoder.encode(chars, batch, true).isOverflow()) {
+            writeOut(channel);
+        }
+        while (encoder.flush(batch).isOverflow()) {
+            writeOut(channel);
+        }
+        if (batch.remaining() < NEWLINE.length) {
+            writeOut(channel);
+        }
+        batch.put(NEWLINE);
+    }
+
+    // Copies the line and newline if it is all ASCII and fits; otherwise leaves the buffer untouched
+    private boolean copyAscii(String line) {
+        int length = line.length();
+        int position = batch.position();
+        if (length + NEWLINE.length > batch.remaining()) {
+            return false;
+        }
+        byte[] bytes = batch.array();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            bytes[position + i] = (byte) c;
+        }
+        System.arraycopy(NEWLINE, 0, bytes, position + length, NEWLINE.length);
+        batch.position(position + length + NEWLINE.length);
+        return true;
+    }
+
+    private void writeOut(WritableByteChannel channel) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+    }
+
+    // Resolves System.out per batch, so System.setOut redirects what is written from then on
+    private static final class ConsoleTarget implements Target {
+        private PrintStream stream;
+        private WritableByteChannel channel;
+
+        @Override
+        public WritableByteChannel channel() {
+            var current = System.out;
+            if (current != stream) {
+                stream = current;
+                channel = Channels.newChannel(current);
+            }
+            return channel;
+        }
+
+        @Override
+        public Charset charset() {
+            return System.out.charset();
+        }
+
+        @Override
+        public void afterBatch() {
+            if (stream != null) {
+                stream.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            afterBatch();
+        }
+    }
+
+    private record ChannelTarget(WritableByteChannel channel) implements Target {
+        @Override
+        public Charset charset() {
+            return StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public void afterBatch() {}
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.techie.designPattern.common;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * USE CASE: Currency carried next to a minor-unit amount on every payment
+ * PROBLEM: Currency strings are compared, hashed and re-parsed on each call
+ * JDK 17 FEATURE: Interned immutable instances (identity is equality)
+ *
+ * One instance per ISO 4217 code, so codes compare by identity and lookups for
+ * known codes allocate nothing. The number of minor digits (2 for USD, 0 for JPY)
+ * comes from java.util.Currency once, when the code is first seen.
+ */
+public final class CurrencyCode {
+    private static final ConcurrentHashMap<String, CurrencyCode> INTERNED = new ConcurrentHashMap<>();
+
+    public static final CurrencyCode USD = of("USD");
+    public static final CurrencyCode EUR = of("EUR");
+    public static final CurrencyCode GBP = of("GBP");
+    public static final CurrencyCode INR = of("INR");
+    public static final CurrencyCode JPY = of("JPY");
+
+    private final String code;
+    private final int minorDigits;
+    private final long minorPerMajor;
+
+    private CurrencyCode(String code, int minorDigits) {
+        this.code = code;
+        this.minorDigits = minorDigits;
+        long scale = 1;
+        for (int i = 0; i < minorDigits; i++) {
+            scale *= 10;
+        }
+        this.minorPerMajor = scale;
+    }
+
+    public static CurrencyCode of(String code) {
+        Objects.requireNonNull(code, "Currency code cannot be null");
+        var interned = INTERNED.get(code);
+        return interned != null ? interned : INTERNED.computeIfAbsent(code, CurrencyCode::create);
+    }
+
+    private static CurrencyCode create(String code) {
+        java.util.Currency currency;
+        try {
+            currency = java.util.Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency code: " + code, e);
+        }
+        // Pseudo-currencies such as XAU report -1; treat them as whole units
+        return new CurrencyCode(code, Math.max(0, currency.getDefaultFractionDigits()));
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public int minorDigits() {
+        return minorDigits;
+    }
+
+    // 100 for USD, 1 for JPY
+    public long minorPerMajor() {
+        return minorPerMajor;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
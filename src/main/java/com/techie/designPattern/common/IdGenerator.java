@@ -0,0 +1,74 @@
+package com.techie.designPattern.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * USE CASE: Transaction ids for adaptees and payment records
+ * PROBLEM: UUID.randomUUID() goes through a shared SecureRandom; currentTimeMillis() ids collide
+ * JDK 17 FEATURE: Interface static/default methods as the plug-in point
+ *
+ * An id is a fixed-length ASCII string. Implementations write it straight into a caller's
+ * byte[] or char[], so a hot path can reuse one buffer; next(prefix) is the convenience
+ * form that builds exactly one String.
+ */
+public interface IdGenerator {
+
+    // Characters in one encoded id
+    int length();
+
+    // Writes the next id into out[offset, offset + length()) and returns length()
+    int next(byte[] out, int offset);
+
+    int next(char[] out, int offset);
+
+    // prefix must be ASCII, e.g. "stripe_"
+    default String next(String prefix) {
+        int prefixLength = prefix.length();
+        var bytes = new byte[prefixLength + length()];
+        for (int i = 0; i < prefixLength; i++) {
+            bytes[i] = (byte) prefix.charAt(i);
+        }
+        next(bytes, prefixLength);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    // Process-wide time-ordered generator; see TimeOrderedIdGenerator
+    static IdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.SHARED;
+    }
+
+    // The previous behaviour, kept for comparison and for callers that need RFC 4122 ids
+    static IdGenerator randomUuid() {
+        return RandomUuidGenerator.INSTANCE;
+    }
+}
+
+enum RandomUuidGenerator implements IdGenerator {
+    INSTANCE;
+
+    @Override
+    public int length() {
+        return 36;
+    }
+
+    @Override
+    public int next(byte[] out, int offset) {
+        var text = UUID.randomUUID().toString();
+        for (int i = 0; i < 36; i++) {
+            out[offset + i] = (byte) text.charAt(i);
+        }
+        return 36;
+    }
+
+    @Override
+    public int next(char[] out, int offset) {
+        UUID.randomUUID().toString().getChars(0, 36, out, offset);
+        return 36;
+    }
+
+    @Override
+    public String next(String prefix) {
+        return prefix + UUID.randomUUID();
+    }
+}
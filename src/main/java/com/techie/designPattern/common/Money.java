@@ -0,0 +1,99 @@
+package com.techie.designPattern.common;
+
+import java.util.Objects;
+
+/**
+ * USE CASE: Payment amounts on the settlement hot path
+ * PROBLEM: double amounts round wrongly ((int) (0.29 * 100) == 28) and formatting or boxing them allocates per call
+ * JDK 17 FEATURE: Static helpers over primitive long, no wrapper objects
+ *
+ * Amounts travel as a long count of minor units (cents, paise) next to an interned
+ * CurrencyCode. These helpers convert at the edges: from a double once, when a legacy
+ * caller hands one in, and to the decimal text some providers want, written into a
+ * caller-supplied StringBuilder so nothing is allocated.
+ */
+public final class Money {
+    // Beyond 2^53 a double no longer holds every whole number of minor units
+    private static final double MAX_EXACT = 0x1p53;
+
+    private Money() {}
+
+    // Rounds half away from zero to the nearest minor unit
+    public static long toMinor(double amount, CurrencyCode currency) {
+        Objects.requireNonNull(currency, "Currency cannot be null");
+        double scaled = amount * currency.minorPerMajor();
+        if (!Double.isFinite(scaled) || Math.abs(scaled) >= MAX_EXACT) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        return (long) (scaled + Math.copySign(0.5, scaled));
+    }
+
+    public static double toMajor(long amountMinor, CurrencyCode currency) {
+        return (double) amountMinor / currency.minorPerMajor();
+    }
+
+    // Appends e.g. "-12.05" for -1205 USD or "500" for 500 JPY
+    public static StringBuilder appendDecimal(StringBuilder out, long amountMinor, CurrencyCode currency) {
+        int digits = currency.minorDigits();
+        if (digits == 0) {
+            return out.append(amountMinor);
+        }
+        long scale = currency.minorPerMajor();
+        long major = amountMinor / scale;
+        long minor = Math.abs(amountMinor % scale);
+        if (amountMinor < 0 && major == 0) {
+            out.append('-');
+        }
+        out.append(major).append('.');
+        for (long pad = scale / 10; pad > 1 && minor < pad; pad /= 10) {
+            out.append('0');
+        }
+        return out.append(minor);
+    }
+
+    public static String format(long amountMinor, CurrencyCode currency) {
+        return appendDecimal(new StringBuilder(24), amountMinor, currency).toString();
+    }
+
+    // Parses "12.5", "12.50" or "-0.07"; more fraction digits than the currency allows is an error
+    public static long parse(CharSequence text, CurrencyCode currency) {
+        Objects.requireNonNull(text, "Amount cannot be null");
+        int length = text.length();
+        int i = 0;
+        boolean negative = length > 0 && text.charAt(0) == '-';
+        if (negative || (length > 0 && text.charAt(0) == '+')) {
+            i++;
+        }
+        long major = 0;
+        int majorDigits = 0;
+        for (; i < length && text.charAt(i) != '.'; i++, majorDigits++) {
+            major = Math.addExact(Math.multiplyExact(major, 10), digit(text, i));
+        }
+        long minor = 0;
+        int fractionDigits = 0;
+        if (i < length) {
+            for (i++; i < length; i++, fractionDigits++) {
+                if (fractionDigits == currency.minorDigits()) {
+                    throw new IllegalArgumentException("Too many decimal places for " + currency + ": " + text);
+                }
+                minor = minor * 10 + digit(text, i);
+            }
+        }
+        if (majorDigits == 0 && fractionDigits == 0) {
+            throw new IllegalArgumentException("Not an amount: " + text);
+        }
+        for (int d = fractionDigits; d < currency.minorDigits(); d++) {
+            minor *= 10;
+        }
+        long total = Math.addExact(Math.multiplyExact(major, currency.minorPerMajor()), minor);
+        return negative ? -total : total;
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Not an amount: " + text);
+        }
+        return c - '0';
+    }
+}
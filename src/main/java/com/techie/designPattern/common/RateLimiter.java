@@ -0,0 +1,79 @@
+package com.techie.designPattern.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * USE CASE: Per-channel send limits (SMS provider: 100/s, push gateway: 1000/s)
+ * PROBLEM: Fan-out from many threads overruns provider quotas unless calls are paced
+ * JDK 21 FEATURE: Virtual threads make sleeping until a permit is free cheap
+ *
+ * Generic cell rate algorithm: one atomic "theoretical arrival time" per limiter. A permit is
+ * reserved with a single CAS; callers then sleep until their slot, so waiting needs no lock
+ * and no queue. Up to burst permits may be taken back to back after an idle period.
+ */
+public final class RateLimiter {
+    private static final RateLimiter UNLIMITED = new RateLimiter(0, 0);
+
+    private final long intervalNanos;
+    // How far ahead of its ideal time a permit may be handed out
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    private RateLimiter(long intervalNanos, long toleranceNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = toleranceNanos;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    public static RateLimiter perSecond(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        long interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        return new RateLimiter(interval, interval * (burst - 1));
+    }
+
+    public static RateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    // Takes a permit if one is free right now
+    public boolean tryAcquire() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, now);
+            if (start - toleranceNanos > now) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // Reserves the next permit and sleeps until it is due
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now;
+        long start;
+        while (true) {
+            now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            start = Math.max(tat, now);
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                break;
+            }
+        }
+        long wait = start - toleranceNanos - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.techie.designPattern.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * USE CASE: Unique, sortable transaction ids at millions per second from many threads
+ * PROBLEM: A shared random source or a shared counter makes every id a point of contention
+ * JDK 17 FEATURE: ThreadLocal state + fixed-width Crockford base32 (ULID layout)
+ *
+ * 128-bit ids laid out as 48-bit epoch millis | 40-bit node | 40-bit counter, written as 26
+ * characters that sort in time order. Every thread gets its own node number from this
+ * generator, so threads never share mutable state; within a thread the counter makes ids
+ * strictly increasing, even when the clock stands still or steps backwards.
+ *
+ * Node numbers start at a seed (random for SHARED) and are handed out in sequence, so ids from
+ * one generator are unique until 2^40 threads have used it. Ids from different processes are
+ * separated by their random seeds, with the same odds as ULID's random part.
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+    static final TimeOrderedIdGenerator SHARED = new TimeOrderedIdGenerator(new SecureRandom().nextLong());
+
+    public static final int LENGTH = 26;
+
+    private static final int COUNTER_BITS = 40;
+    private static final int NODE_BITS = 40;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long TIME_MASK = (1L << 48) - 1;
+    // Node bits that spill from the high word into the low word
+    private static final int NODE_LOW_BITS = 64 - COUNTER_BITS;
+
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+    }
+
+    private static final class State {
+        final long node;
+        long lastMillis = Long.MIN_VALUE;
+        long counter;
+        long high;
+        long low;
+
+        State(long node) {
+            this.node = node;
+        }
+
+        void advance(long now) {
+            if (now > lastMillis) {
+                lastMillis = now;
+                counter = 0;
+            } else if (++counter > COUNTER_MASK) {
+                // 2^40 ids in one millisecond: borrow the next one rather than repeat
+                lastMillis++;
+                counter = 0;
+            }
+            high = (lastMillis & TIME_MASK) << 16 | node >>> NODE_LOW_BITS;
+            low = node << COUNTER_BITS | counter;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final AtomicLong nextNode;
+    private final ThreadLocal<State> state;
+
+    public TimeOrderedIdGenerator(long nodeSeed) {
+        this(nodeSeed, System::currentTimeMillis);
+    }
+
+    // clock returns epoch millis; injectable for simulations and tests
+    public TimeOrderedIdGenerator(long nodeSeed, LongSupplier clock) {
+        this.clock = clock;
+        this.nextNode = new AtomicLong(nodeSeed);
+        this.state = ThreadLocal.withInitial(() -> new State(nextNode.getAndIncrement() & NODE_MASK));
+    }
+
+    @Override
+    public int length() {
+        return LENGTH;
+    }
+
+    // Written from the last character back: 12 characters from the low word, one that
+    // straddles both words, then 13 from the high word (the first holds only 3 bits)
+    @Override
+    public int next(byte[] out, int offset) {
+        var s = advance();
+        long hi = s.high;
+        long lo = s.low;
+        int last = offset + LENGTH - 1;
+        for (int i = 0; i < 12; i++) {
+            out[last - i] = ALPHABET[(int) (lo >>> (5 * i)) & 31];
+        }
+        out[last - 12] = ALPHABET[(int) (lo >>> 60 | hi << 4) & 31];
+        for (int i = 0; i < 13; i++) {
+            out[last - 13 - i] = ALPHABET[(int) (hi >>> (1 + 5 * i)) & 31];
+        }
+        return LENGTH;
+    }
+
+    @Override
+    public int next(char[] out, int offset) {
+        var s = advance();
+        long hi = s.high;
+        long lo = s.low;
+        int last = offset + LENGTH - 1;
+        for (int i = 0; i < 12; i++) {
+            out[last - i] = (char) ALPHABET[(int) (lo >>> (5 * i)) & 31];
+        }
+        out[last - 12] = (char) ALPHABET[(int) (lo >>> 60 | hi << 4) & 31];
+        for (int i = 0; i < 13; i++) {
+            out[last - 13 - i] = (char) ALPHABET[(int) (hi >>> (1 + 5 * i)) & 31];
+        }
+        return LENGTH;
+    }
+
+    private State advance() {
+        var s = state.get();
+        s.advance(clock.getAsLong());
+        return s;
+    }
+
+    // Epoch millis an id was generated at
+    public static long timestampOf(CharSequence id) {
+        return decodeHigh(id) >>> 16;
+    }
+
+    static long decodeHigh(CharSequence id) {
+        return decode(id, true);
+    }
+
+    static long decodeLow(CharSequence id) {
+        return decode(id, false);
+    }
+
+    private static long decode(CharSequence id, boolean high) {
+        if (id.length() != LENGTH) {
+            throw new IllegalArgumentException("Id must be " + LENGTH + " characters: " + id);
+        }
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = id.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0 || (i == 0 && value > 7)) {
+                throw new IllegalArgumentException("Not a time-ordered id: " + id);
+            }
+            hi = hi << 5 | lo >>> 59;
+            lo = lo << 5 | value;
+        }
+        return high ? hi : lo;
+    }
+}
@@ -0,0 +1,37 @@
+package com.techie.designPattern.common;
+
+import java.util.Objects;
+
+/**
+ * USE CASE: Sizing request bodies, cache entries and ledger records before they are written as UTF-8
+ * PROBLEM: text.getBytes(UTF_8).length encodes and allocates a whole byte[] just to learn its length
+ * JDK 17 FEATURE: Static helper over char data, no intermediate array
+ *
+ * Counts the bytes a String takes as UTF-8 in one pass over its chars, agreeing with
+ * String.getBytes(UTF_8) on every input, including unpaired surrogates.
+ */
+public final class Utf8 {
+    private Utf8() {}
+
+    // Unpaired surrogates count as the one-byte '?' they encode to
+    public static int length(String text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
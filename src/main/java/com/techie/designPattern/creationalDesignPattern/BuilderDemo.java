@@ -1,13 +1,19 @@
 package com.techie.designPattern.creationalDesignPattern;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Flow;
 
 /**
  * USE CASE: Building complex HTTP Request objects
  * PROBLEM: Too many constructor parameters, optional fields
  * JDK 17 FEATURE: Records with builder pattern
+ *
+ * The body is a RequestBody: text, or a buffer, file region or publisher streamed as it is sent.
  */
 
 // Immutable HTTP Request using record
@@ -15,7 +21,7 @@ record HttpRequest(
         String url,
         String method,
         Map<String, String> headers,
-        String body,
+        RequestBody content,
         int timeout,
         boolean followRedirects
 ) {
@@ -23,17 +29,45 @@ record HttpRequest(
     public HttpRequest {
         Objects.requireNonNull(url, "URL cannot be null");
         Objects.requireNonNull(method, "Method cannot be null");
+        Objects.requireNonNull(headers, "Headers cannot be null");
+        Objects.requireNonNull(content, "Body cannot be null");
         if (timeout < 0) {
             throw new IllegalArgumentException("Timeout must be positive");
         }
+        // Free for headers from a Builder; any other map is copied once into an immutable set
+        headers = HttpHeaders.copyOf(headers);
     }
 
+    public HttpRequest(String url, String method, Map<String, String> headers, String body, int timeout,
+                       boolean followRedirects) {
+        this(url, method, headers, RequestBody.of(body), timeout, followRedirects);
+    }
+
+    // The text of a String body ("" when there is none); other bodies are read through content()
+    public String body() {
+        if (content instanceof RequestBody.Text text) {
+            return text.text();
+        }
+        throw new IllegalStateException("Body is streamed, read it through content(): " + content);
+    }
+
+    private static final ThreadLocal<Builder> REUSABLE = ThreadLocal.withInitial(Builder::new);
+
     // Builder class
+    // Headers are kept as a shared base plus this builder's own changes, so build() and copy()
+    // cost O(changes) however many headers the base holds
     public static class Builder {
+        // A reset builder gives its header arrays back if one use grew them past this
+        private static final int MAX_RETAINED_HEADERS = 64;
+
         private String url;
         private String method = "GET";
-        private Map<String, String> headers = new HashMap<>();
-        private String body = "";
+        private HttpHeaders baseHeaders = HttpHeaders.EMPTY;
+        // Set (value) or removed (null) on top of baseHeaders; names interned and distinct
+        private String[] headerNames = new String[4];
+        private String[] headerValues = new String[4];
+        private int headerCount;
+        private RequestBody content = RequestBody.EMPTY;
         private int timeout = 30;
         private boolean followRedirects = true;
 
@@ -48,12 +82,50 @@ record HttpRequest(
         }
 
         public Builder header(String key, String value) {
-            this.headers.put(key, value);
+            putHeader(HttpHeaders.name(key), Objects.requireNonNull(value, "Header value cannot be null"));
+            return this;
+        }
+
+        // Shared headers every request from this builder starts from; header() calls stay on top
+        public Builder headers(HttpHeaders base) {
+            this.baseHeaders = Objects.requireNonNull(base, "Headers cannot be null");
+            return this;
+        }
+
+        public Builder removeHeader(String key) {
+            putHeader(HttpHeaders.name(key), null);
             return this;
         }
 
         public Builder body(String body) {
-            this.body = body;
+            this.content = RequestBody.of(body);
+            return this;
+        }
+
+        // Sent from the buffer's position to its limit, without copying
+        public Builder body(ByteBuffer body) {
+            this.content = RequestBody.of(body);
+            return this;
+        }
+
+        public Builder body(Path file) throws IOException {
+            this.content = RequestBody.ofFile(file);
+            return this;
+        }
+
+        public Builder body(Path file, long offset, long length) {
+            this.content = RequestBody.ofFile(file, offset, length);
+            return this;
+        }
+
+        // contentLength may be RequestBody.UNKNOWN_LENGTH; the body is then sent chunked
+        public Builder body(Flow.Publisher<ByteBuffer> body, long contentLength) {
+            this.content = RequestBody.ofPublisher(body, contentLength);
+            return this;
+        }
+
+        public Builder body(RequestBody body) {
+            this.content = Objects.requireNonNull(body, "Body cannot be null");
             return this;
         }
 
@@ -67,15 +139,85 @@ record HttpRequest(
             return this;
         }
 
+        // An independent builder with the same settings; shares the base headers, copies only the changes
+        public Builder copy() {
+            var copy = new Builder();
+            copy.url = url;
+            copy.method = method;
+            copy.baseHeaders = baseHeaders;
+            copy.headerNames = Arrays.copyOf(headerNames, Math.max(4, headerCount));
+            copy.headerValues = Arrays.copyOf(headerValues, copy.headerNames.length);
+            copy.headerCount = headerCount;
+            copy.content = content;
+            copy.timeout = timeout;
+            copy.followRedirects = followRedirects;
+            return copy;
+        }
+
+        // Back to the state of a new builder, keeping the header arrays for the next use
+        public Builder reset() {
+            url = null;
+            method = "GET";
+            baseHeaders = HttpHeaders.EMPTY;
+            if (headerNames.length > MAX_RETAINED_HEADERS) {
+                headerNames = new String[4];
+                headerValues = new String[4];
+            } else {
+                // Cleared so a built request is the only thing still holding the old values
+                Arrays.fill(headerNames, 0, headerCount, null);
+                Arrays.fill(headerValues, 0, headerCount, null);
+            }
+            headerCount = 0;
+            content = RequestBody.EMPTY;
+            timeout = 30;
+            followRedirects = true;
+            return this;
+        }
+
         public HttpRequest build() {
-            return new HttpRequest(url, method, new HashMap<>(headers),
-                    body, timeout, followRedirects);
+            return new HttpRequest(url, method, HttpHeaders.layer(baseHeaders, headerNames, headerValues, headerCount),
+                    content, timeout, followRedirects);
+        }
+
+        // Matches by identity first, then by equals: names past the intern cap are not canonical
+        private void putHeader(String name, String value) {
+            int at = HttpHeaders.indexOf(headerNames, headerCount, name);
+            if (at >= 0) {
+                headerValues[at] = value;
+                return;
+            }
+            if (headerCount == headerNames.length) {
+                headerNames = Arrays.copyOf(headerNames, headerCount * 2);
+                headerValues = Arrays.copyOf(headerValues, headerCount * 2);
+            }
+            headerNames[headerCount] = name;
+            headerValues[headerCount++] = value;
         }
     }
 
     public static Builder builder() {
         return new Builder();
     }
+
+    // This thread's builder, reset. With a shared base and no header() calls, build() then
+    // allocates only the request; each header() change adds its share of one small delta.
+    // Valid until the next reusableBuilder() call on the same thread, so don't hold it across
+    // code that may build requests itself, and never hand it to another thread.
+    public static Builder reusableBuilder() {
+        return REUSABLE.get().reset();
+    }
+
+    // A builder for a variant of this request: its headers become the shared base, so a
+    // variant built with a few header changes costs O(changes)
+    public Builder toBuilder() {
+        return new Builder()
+                .url(url)
+                .method(method)
+                .headers(HttpHeaders.copyOf(headers))
+                .body(content)
+                .timeout(timeout)
+                .followRedirects(followRedirects);
+    }
 }
 
 // Usage
@@ -0,0 +1,297 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.Utf8;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * USE CASE: The same GET (feature flags, exchange rates, config) re-issued many times per second
+ * PROBLEM: Every repeat is a round trip, and a burst of identical misses is a burst of identical fetches
+ * JDK 17 FEATURE: Records as cache keys + CompletableFuture for single-flight
+ *
+ * Decorates any HttpEngine. A GET without a body is keyed on method, URL and the values of the
+ * configured vary headers (Accept, Authorization - whatever changes the answer); other headers,
+ * such as a request id, do not split the cache. A request carrying credentials (Authorization,
+ * Proxy-Authorization, Cookie) bypasses the cache unless those headers are vary headers, so one
+ * user's response is never served to another. 200 responses are kept for a fixed TTL unless
+ * they carry Cache-Control no-store, no-cache or private, or a Vary naming a header that is not
+ * part of the key (or Vary: *), and the least recently used entries
+ * are evicted to stay within a byte budget. Concurrent misses for one key share one in-flight
+ * fetch. Bodies of at least offHeapThreshold bytes are kept UTF-8 encoded in direct buffers,
+ * outside the GC heap, and decoded again on every hit.
+ */
+final class CachingHttpEngine implements HttpEngine {
+    // Rough per-entry cost besides the body: key, response, headers and map node
+    static final int ENTRY_OVERHEAD = 256;
+
+    // Byte counts are UTF-8 body sizes; heapBytes and offHeapBytes include ENTRY_OVERHEAD per entry
+    record CacheStats(long hits, long misses, long collapsed, long evictions, int entries,
+                      long heapBytes, long offHeapBytes, long bytesServed) {}
+
+    private record Key(String method, String url, List<String> varied) {}
+
+    private static final List<String> CREDENTIAL_HEADERS = List.of("authorization", "proxy-authorization", "cookie");
+
+    // Off-heap entries keep the response with an empty body next to the encoded one
+    private record Entry(HttpResponse response, ByteBuffer offHeapBody, long bodyBytes, long expiresAt) {
+        long weight() {
+            return bodyBytes + ENTRY_OVERHEAD;
+        }
+    }
+
+    private final HttpEngine delegate;
+    private final String[] varyHeaders;
+    // Lower-cased, for matching against a response's Vary and a request's credential headers
+    private final Set<String> keyedNames;
+    private final List<String> unkeyedCredentials;
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final int offHeapThreshold;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access order, so the first entry is the least recently used; guarded by lock
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long heapBytes;
+    private long offHeapBytes;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<HttpResponse>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    CachingHttpEngine(HttpEngine delegate, List<String> varyHeaders, Duration ttl, long maxBytes) {
+        this(delegate, varyHeaders, ttl, maxBytes, Integer.MAX_VALUE);
+    }
+
+    CachingHttpEngine(HttpEngine delegate, List<String> varyHeaders, Duration ttl, long maxBytes, int offHeapThreshold) {
+        this(delegate, varyHeaders, ttl, maxBytes, offHeapThreshold, System::nanoTime);
+    }
+
+    // nanoClock is injectable for tests
+    CachingHttpEngine(HttpEngine delegate, List<String> varyHeaders, Duration ttl, long maxBytes, int offHeapThreshold,
+                      LongSupplier nanoClock) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate engine cannot be null");
+        this.varyHeaders = varyHeaders.stream().map(HttpHeaders::name).toArray(String[]::new);
+        this.keyedNames = varyHeaders.stream().map(name -> name.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        this.unkeyedCredentials = CREDENTIAL_HEADERS.stream().filter(name -> !keyedNames.contains(name)).toList();
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        if (maxBytes <= 0 || offHeapThreshold < 0) {
+            throw new IllegalArgumentException("Byte budget must be positive and off-heap threshold non-negative");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxBytes = maxBytes;
+        this.offHeapThreshold = offHeapThreshold;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> send(HttpRequest request, Duration timeout) {
+        if (!"GET".equals(request.method()) || !request.content().isEmpty() || carriesUnkeyedCredentials(request)) {
+            return delegate.send(request, timeout);
+        }
+        var key = keyOf(request);
+        var cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        // The shared fetch runs with the first caller's timeout; the others can only give up sooner
+        var fetch = new CompletableFuture<HttpResponse>();
+        var running = inFlight.putIfAbsent(key, fetch);
+        if (running != null) {
+            collapsed.increment();
+            // A copy, so one caller timing out or cancelling leaves the shared fetch alone
+            var joined = running.copy();
+            return timeout.isZero() ? joined : joined.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        // Another fetch may have stored the key between the lookup and claiming the slot
+        cached = lookup(key);
+        if (cached != null) {
+            inFlight.remove(key, fetch);
+            fetch.complete(cached);
+            return fetch.copy();
+        }
+        misses.increment();
+        CompletableFuture<HttpResponse> call;
+        try {
+            call = delegate.send(request, timeout);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((response, e) -> {
+            try {
+                // Stored before the slot is released, so the next caller finds it in the cache
+                if (response != null) {
+                    store(key, response);
+                }
+            } finally {
+                inFlight.remove(key, fetch);
+                if (e != null) {
+                    fetch.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                } else {
+                    fetch.complete(response);
+                }
+            }
+        });
+        return fetch.copy();
+    }
+
+    CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits.sum(), misses.sum(), collapsed.sum(), evictions.sum(), entries.size(),
+                    heapBytes, offHeapBytes, bytesServed.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Header names are matched ignoring case, as on the wire: "authorization: Bearer bob" must not
+    // share a key with "authorization: Bearer alice" just because neither is spelled "Authorization".
+    // Values sent under two spellings of one name are joined, as repeated headers are in HTTP.
+    private Key keyOf(HttpRequest request) {
+        var varied = new String[varyHeaders.length];
+        if (varyHeaders.length > 0) {
+            for (var header : request.headers().entrySet()) {
+                for (int i = 0; i < varyHeaders.length; i++) {
+                    if (varyHeaders[i].equalsIgnoreCase(header.getKey())) {
+                        varied[i] = varied[i] == null ? header.getValue() : varied[i] + ", " + header.getValue();
+                    }
+                }
+            }
+        }
+        return new Key(request.method(), request.url(), Arrays.asList(varied));
+    }
+
+    private HttpResponse lookup(Key key) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+                entries.remove(key);
+                release(entry);
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        hits.increment();
+        bytesServed.add(entry.bodyBytes());
+        if (entry.offHeapBody() == null) {
+            return entry.response();
+        }
+        var head = entry.response();
+        var body = StandardCharsets.UTF_8.decode(entry.offHeapBody().duplicate()).toString();
+        return new HttpResponse(head.statusCode(), head.url(), head.headers(), body);
+    }
+
+    private void store(Key key, HttpResponse response) {
+        if (!isCacheable(response)) {
+            return;
+        }
+        long expiresAt = nanoClock.getAsLong() + ttlNanos;
+        Entry entry;
+        int length = Utf8.length(response.body());
+        if (length >= offHeapThreshold) {
+            var encoded = StandardCharsets.UTF_8.encode(response.body());
+            var offHeap = ByteBuffer.allocateDirect(encoded.remaining()).put(encoded).flip();
+            var head = new HttpResponse(response.statusCode(), response.url(), response.headers(), "");
+            entry = new Entry(head, offHeap, offHeap.capacity(), expiresAt);
+        } else {
+            entry = new Entry(response, null, length, expiresAt);
+        }
+        if (entry.weight() > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            var replaced = entries.put(key, entry);
+            if (replaced != null) {
+                release(replaced);
+            }
+            if (entry.offHeapBody() != null) {
+                offHeapBytes += entry.weight();
+            } else {
+                heapBytes += entry.weight();
+            }
+            var eldest = entries.values().iterator();
+            while (heapBytes + offHeapBytes > maxBytes) {
+                release(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with lock held; a direct buffer's memory goes back once the buffer is collected
+    private void release(Entry entry) {
+        if (entry.offHeapBody() != null) {
+            offHeapBytes -= entry.weight();
+        } else {
+            heapBytes -= entry.weight();
+        }
+    }
+
+    // Header names are case-insensitive on the wire, so every name is checked, not just one spelling
+    private boolean carriesUnkeyedCredentials(HttpRequest request) {
+        if (unkeyedCredentials.isEmpty() || request.headers().isEmpty()) {
+            return false;
+        }
+        for (String name : request.headers().keySet()) {
+            for (String credential : unkeyedCredentials) {
+                if (credential.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isCacheable(HttpResponse response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        // The response may differ by headers the key ignores; storing it would serve the wrong variant
+        var vary = response.headers().get("vary");
+        if (vary != null) {
+            for (String name : vary.split(",")) {
+                var varied = name.trim().toLowerCase(Locale.ROOT);
+                if (!varied.isEmpty() && !keyedNames.contains(varied)) {
+                    return false;
+                }
+            }
+        }
+        var cacheControl = response.headers().get("cache-control");
+        if (cacheControl == null) {
+            return true;
+        }
+        var directives = cacheControl.toLowerCase(Locale.ROOT);
+        return !directives.contains("no-store") && !directives.contains("no-cache") && !directives.contains("private");
+    }
+}
@@ -0,0 +1,419 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * USE CASE: Loading ConfigurationManager.Config from a local file and reloading it on change
+ * PROBLEM: Hard-coded configuration; polling the file for changes
+ * JDK 17 FEATURE: NIO ByteBuffers + WatchService
+ *
+ * Two flat formats are accepted, detected from the first non-blank byte:
+ *   properties: one {@code key=value} (or {@code key: value}) per line, '#' or '!' comments
+ *   JSON:       a single flat object, e.g. {"apiKey": "k", "dbUrl": "jdbc:...", "timeout": 30}
+ * Keys match the Config record components; unknown keys are ignored and missing ones keep their defaults.
+ * Files are read into a direct buffer, so a large config never inflates the heap; the watcher
+ * keeps one buffer for all its reloads.
+ */
+final class ConfigFileLoader {
+    private static final byte[] API_KEY = "apiKey".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DB_URL = "dbUrl".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TIMEOUT = "timeout".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private ConfigFileLoader() {
+    }
+
+    public static ConfigurationManager.Config load(Path file, ConfigurationManager.Config defaults) {
+        return new Reader().load(file, defaults);
+    }
+
+    public static ConfigurationManager.Config parse(ByteBuffer buffer, ConfigurationManager.Config defaults) {
+        Objects.requireNonNull(defaults, "Defaults cannot be null");
+        var fields = new Fields(defaults);
+        int pos = skipWhitespace(buffer, buffer.position(), buffer.limit());
+        if (pos < buffer.limit() && buffer.get(pos) == '{') {
+            parseJson(buffer, pos + 1, fields);
+        } else {
+            parseProperties(buffer, pos, fields);
+        }
+        return new ConfigurationManager.Config(fields.apiKey, fields.dbUrl, fields.timeout);
+    }
+
+    // Loads the file once (publishing it if it differs from current), then watches the file's
+    // directory and hands every successfully re-parsed, changed config to onChange.
+    // The watch is registered before the first load, so an edit in between is not missed.
+    public static Watcher watch(Path file, ConfigurationManager.Config current,
+                                Consumer<ConfigurationManager.Config> onChange) {
+        return new Watcher(file.toAbsolutePath(), current, onChange);
+    }
+
+    static final class Watcher implements AutoCloseable {
+        private final Path file;
+        private final Consumer<ConfigurationManager.Config> onChange;
+        private final WatchService watchService;
+        private final Thread thread;
+        private final AtomicLong reloads = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        // Used by the constructor, then only by the watcher thread it starts
+        private final Reader reader = new Reader();
+        private volatile ConfigurationManager.Config lastGood;
+
+        private Watcher(Path file, ConfigurationManager.Config current, Consumer<ConfigurationManager.Config> onChange) {
+            this.file = file;
+            this.onChange = Objects.requireNonNull(onChange, "Change listener cannot be null");
+            try {
+                this.watchService = file.getFileSystem().newWatchService();
+                file.getParent().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot watch config file " + file, e);
+            }
+            try {
+                this.lastGood = reader.load(file, Objects.requireNonNull(current, "Current config cannot be null"));
+            } catch (RuntimeException e) {
+                closeQuietly(watchService);
+                throw e;
+            }
+            if (!lastGood.equals(current)) {
+                onChange.accept(lastGood);
+            }
+            this.thread = Thread.ofVirtual().name("config-watcher-" + file.getFileName()).start(this::run);
+        }
+
+        public long reloads() {
+            return reloads.get();
+        }
+
+        public long failures() {
+            return failures.get();
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(watchService);
+            thread.interrupt();
+        }
+
+        private static void closeQuietly(WatchService watchService) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    var key = watchService.take();
+                    boolean touched = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        // Covers in-place edits and editors that write a temp file and rename it over ours
+                        if (file.getFileName().equals(event.context())) {
+                            touched = true;
+                        }
+                    }
+                    key.reset();
+                    if (touched) {
+                        reload();
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            }
+        }
+
+        private void reload() {
+            ConfigurationManager.Config next;
+            try {
+                next = reader.load(file, lastGood);
+            } catch (RuntimeException e) {
+                // Half-written or invalid file: keep serving the last good config; the write
+                // still in progress fires another event, which retries
+                failures.incrementAndGet();
+                return;
+            }
+            // One save often fires several events; only publish real changes
+            if (!next.equals(lastGood)) {
+                lastGood = next;
+                reloads.incrementAndGet();
+                onChange.accept(next);
+            }
+        }
+    }
+
+    // Reads whole files into one direct buffer, reused and grown as needed; not thread-safe.
+    // Read rather than mapped: a mapped file truncated mid-read (an editor rewriting it) faults
+    // with InternalError. A read that comes back short, or a file whose size changed meanwhile,
+    // is being rewritten: it fails rather than publish a prefix such as timeout=3 of timeout=30.
+    static final class Reader {
+        private ByteBuffer buffer;
+
+        ConfigurationManager.Config load(Path file, ConfigurationManager.Config defaults) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return load(channel, defaults);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read config file " + file, e);
+            }
+        }
+
+        // Parsed in place in the buffer; only the matched values become Strings
+        ConfigurationManager.Config load(SeekableByteChannel channel, ConfigurationManager.Config defaults)
+                throws IOException {
+            long size = channel.size();
+            if (size > MAX_SIZE) {
+                throw new IOException("Config file too large: " + size + " bytes");
+            }
+            var target = buffer((int) size);
+            while (target.hasRemaining() && channel.read(target) >= 0) {
+                // read until full or the file ends early
+            }
+            if (target.hasRemaining() || channel.size() != size) {
+                throw new IOException("Config file changed while being read");
+            }
+            return parse(target.flip(), defaults);
+        }
+
+        private ByteBuffer buffer(int size) {
+            if (buffer == null || buffer.capacity() < size) {
+                buffer = ByteBuffer.allocateDirect(Math.max(size, 4096));
+            }
+            return buffer.clear().limit(size);
+        }
+    }
+
+    private static void parseProperties(ByteBuffer buffer, int pos, Fields fields) {
+        int limit = buffer.limit();
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int start = skipBlanks(buffer, pos, lineEnd);
+            if (start < lineEnd && buffer.get(start) != '#' && buffer.get(start) != '!') {
+                int sep = start;
+                while (sep < lineEnd && !isSeparator(buffer.get(sep))) {
+                    sep++;
+                }
+                int keyEnd = trimEnd(buffer, start, sep);
+                int valueStart = sep;
+                if (valueStart < lineEnd) {
+                    valueStart = skipBlanks(buffer, valueStart + 1, lineEnd);
+                }
+                int valueEnd = trimEnd(buffer, valueStart, lineEnd);
+                assign(fields, buffer, start, keyEnd, valueStart, valueEnd, false);
+            }
+            pos = lineEnd + 1;
+        }
+    }
+
+    private static void parseJson(ByteBuffer buffer, int pos, Fields fields) {
+        int limit = buffer.limit();
+        while (true) {
+            pos = skipWhitespace(buffer, pos, limit);
+            if (pos >= limit) {
+                throw new IllegalArgumentException("Unterminated JSON config object");
+            }
+            byte b = buffer.get(pos);
+            if (b == '}') {
+                return;
+            }
+            if (b == ',') {
+                pos++;
+                continue;
+            }
+            if (b != '"') {
+                throw new IllegalArgumentException("Expected a JSON key at byte " + pos);
+            }
+            int keyStart = pos + 1;
+            int keyEnd = endOfString(buffer, keyStart, limit);
+            pos = skipWhitespace(buffer, keyEnd + 1, limit);
+            if (pos >= limit || buffer.get(pos) != ':') {
+                throw new IllegalArgumentException("Expected ':' at byte " + pos);
+            }
+            pos = skipWhitespace(buffer, pos + 1, limit);
+            if (pos >= limit) {
+                throw new IllegalArgumentException("Missing JSON value at byte " + pos);
+            }
+            if (buffer.get(pos) == '"') {
+                int valueEnd = endOfString(buffer, pos + 1, limit);
+                assign(fields, buffer, keyStart, keyEnd, pos + 1, valueEnd, true);
+                pos = valueEnd + 1;
+            } else if (buffer.get(pos) == '{' || buffer.get(pos) == '[') {
+                throw new IllegalArgumentException("Nested JSON values are not supported (byte " + pos + ")");
+            } else {
+                int valueEnd = pos;
+                while (valueEnd < limit && !isJsonDelimiter(buffer.get(valueEnd))) {
+                    valueEnd++;
+                }
+                assign(fields, buffer, keyStart, keyEnd, pos, valueEnd, false);
+                pos = valueEnd;
+            }
+        }
+    }
+
+    private static void assign(Fields fields, ByteBuffer buffer, int keyStart, int keyEnd,
+                               int valueStart, int valueEnd, boolean escaped) {
+        if (matches(buffer, keyStart, keyEnd, API_KEY)) {
+            fields.apiKey = decode(buffer, valueStart, valueEnd, escaped);
+        } else if (matches(buffer, keyStart, keyEnd, DB_URL)) {
+            fields.dbUrl = decode(buffer, valueStart, valueEnd, escaped);
+        } else if (matches(buffer, keyStart, keyEnd, TIMEOUT)) {
+            fields.timeout = parseInt(buffer, valueStart, valueEnd);
+        }
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseInt(ByteBuffer buffer, int start, int end) {
+        if (start >= end) {
+            throw new IllegalArgumentException("Timeout must be a number");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Timeout must be a non-negative integer");
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Timeout is out of range");
+            }
+        }
+        return (int) value;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end, boolean escaped) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes, 0, bytes.length);
+        if (!escaped || indexOf(bytes, (byte) '\\') < 0) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return unescape(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static String unescape(String raw) {
+        var out = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 == raw.length()) {
+                out.append(c);
+                continue;
+            }
+            char e = raw.charAt(++i);
+            switch (e) {
+                case 'n' -> out.append('\n');
+                case 't' -> out.append('\t');
+                case 'r' -> out.append('\r');
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= raw.length()) {
+                        throw new IllegalArgumentException("Truncated \\u escape in config value");
+                    }
+                    out.append((char) Integer.parseInt(raw, i + 1, i + 5, 16));
+                    i += 4;
+                }
+                default -> out.append(e);
+            }
+        }
+        return out.toString();
+    }
+
+    private static int endOfString(ByteBuffer buffer, int pos, int limit) {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == '\\') {
+                pos += 2;
+            } else if (b == '"') {
+                return pos;
+            } else {
+                pos++;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated JSON string");
+    }
+
+    private static int indexOf(byte[] bytes, byte target) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == '=' || b == ':';
+    }
+
+    private static boolean isJsonDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private static int skipWhitespace(ByteBuffer buffer, int pos, int limit) {
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipBlanks(ByteBuffer buffer, int pos, int limit) {
+        while (pos < limit && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start) {
+            byte b = buffer.get(end - 1);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+
+    // Mutable scratch for one parse; becomes an immutable Config at the end
+    private static final class Fields {
+        private String apiKey;
+        private String dbUrl;
+        private int timeout;
+
+        Fields(ConfigurationManager.Config defaults) {
+            this.apiKey = defaults.apiKey();
+            this.dbUrl = defaults.dbUrl();
+            this.timeout = defaults.timeout();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * USE CASE: Bounded pool of reusable database connections
+ * PROBLEM: Creating a connection per request is slow and ignores the configured limit
+ * JDK 17 FEATURE: Pattern matching for instanceof + lock-free free-list
+ *
+ * Waiting never holds a monitor: blocked callers park on a CompletableFuture,
+ * so virtual threads unmount instead of pinning their carrier thread.
+ */
+
+// What the pool hands out; close() on a pooled connection returns it to the pool
+interface Connection extends AutoCloseable {
+    String id();
+
+    @Override
+    void close();
+}
+
+// Pluggable source of physical connections, so tests can use an in-memory stand-in
+@FunctionalInterface
+interface ConnectionFactory {
+    Connection create(int slot);
+
+    static ConnectionFactory inMemory(String prefix) {
+        return slot -> new InMemoryConnection(prefix + slot);
+    }
+}
+
+// Local stand-in for a real database connection
+final class InMemoryConnection implements Connection {
+    private final String id;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    InMemoryConnection(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        closed.set(true);
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
+
+final class ConnectionPool implements AutoCloseable {
+    private static final int EMPTY = -1;
+    static final Duration DEFAULT_LEAK_THRESHOLD = Duration.ofSeconds(60);
+
+    // Point-in-time view of pool health; wait and hold times are in nanoseconds
+    public record PoolStats(int maxConnections, int active, int idle, int waiting,
+                            LatencyHistogram.Snapshot acquireWait, LatencyHistogram.Snapshot holdTime,
+                            int leaked) {}
+
+    private final PooledConnection[] slots;
+
+    // FIFO queue of callers waiting for a connection; release hands off to the head directly.
+    // waiting counts the live ones, so stats() never walks the queue.
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    // Treiber stack of free slot indices; head packs an ABA stamp (high 32 bits) with the index (low 32 bits)
+    private final AtomicLong head = new AtomicLong(pack(0, EMPTY));
+    private final AtomicIntegerArray next;
+    private final AtomicIntegerArray leased;
+    private volatile boolean closed;
+
+    // Metrics: recording is allocation-free; counts are derived from slot state only when a snapshot is taken
+    private final AtomicLongArray leasedAt;
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final long leakThresholdNanos;
+    private final LongSupplier nanoClock;
+
+    ConnectionPool(int maxConnections, ConnectionFactory factory) {
+        this(maxConnections, factory, DEFAULT_LEAK_THRESHOLD);
+    }
+
+    ConnectionPool(int maxConnections, ConnectionFactory factory, Duration leakThreshold) {
+        this(maxConnections, factory, leakThreshold, System::nanoTime);
+    }
+
+    // nanoClock is injectable for tests
+    ConnectionPool(int maxConnections, ConnectionFactory factory, Duration leakThreshold, LongSupplier nanoClock) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive");
+        }
+        Objects.requireNonNull(factory, "Connection factory cannot be null");
+        Objects.requireNonNull(leakThreshold, "Leak threshold cannot be null");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "Clock cannot be null");
+        this.slots = new PooledConnection[maxConnections];
+        this.next = new AtomicIntegerArray(maxConnections);
+        this.leased = new AtomicIntegerArray(maxConnections);
+        this.leasedAt = new AtomicLongArray(maxConnections);
+        this.leakThresholdNanos = leakThreshold.toNanos();
+
+        // Pre-warm every slot so acquire never pays connection setup cost
+        for (int i = maxConnections - 1; i >= 0; i--) {
+            slots[i] = new PooledConnection(this, i, factory.create(i));
+            push(i);
+        }
+    }
+
+    public int maxConnections() {
+        return slots.length;
+    }
+
+    public int availableConnections() {
+        int available = slots.length;
+        for (int i = 0; i < slots.length; i++) {
+            available -= leased.get(i);
+        }
+        return available;
+    }
+
+    public int waitingCallers() {
+        return waiting.get();
+    }
+
+    public PoolStats stats() {
+        long now = nanoClock.getAsLong();
+        int active = 0;
+        int leaked = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (leased.get(i) == 1) {
+                active++;
+                if (now - leasedAt.get(i) > leakThresholdNanos) {
+                    leaked++;
+                }
+            }
+        }
+        return new PoolStats(slots.length, active, slots.length - active, waitingCallers(),
+                acquireWait.snapshot(), holdTime.snapshot(), leaked);
+    }
+
+    // Ids of connections held longer than the leak threshold, for logging the likely culprits
+    public List<String> suspectedLeaks() {
+        long now = nanoClock.getAsLong();
+        List<String> suspects = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            if (leased.get(i) == 1 && now - leasedAt.get(i) > leakThresholdNanos) {
+                suspects.add(slots[i].id());
+            }
+        }
+        return suspects;
+    }
+
+    // Completes immediately when a connection is free, otherwise queues behind earlier waiters.
+    // Cancelling or timing out the returned future (e.g. orTimeout) gives up the place in the queue.
+    public CompletableFuture<Connection> acquireAsync() {
+        ensureOpen();
+        var connection = tryAcquireNow();
+        if (connection != null) {
+            return CompletableFuture.completedFuture(connection);
+        }
+        return enqueueWaiter();
+    }
+
+    // Blocking variant; parks without holding a monitor, so it is safe to call from virtual threads
+    public Connection acquire(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        ensureOpen();
+        var connection = tryAcquireNow();
+        if (connection != null) {
+            return connection;
+        }
+        var waiter = enqueueWaiter();
+        try {
+            return waiter.get(timeout, unit);
+        } catch (TimeoutException e) {
+            if (waiter.cancel(false)) {
+                throw new TimeoutException("Timed out waiting for a connection after " + timeout + " " + unit);
+            }
+            // Lost the race with a hand-off: keep the connection rather than leaking it
+            return waiter.join();
+        } catch (InterruptedException e) {
+            if (waiter.cancel(false)) {
+                throw e;
+            }
+            Thread.currentThread().interrupt();
+            return waiter.join();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public void release(Connection connection) {
+        if (!(connection instanceof PooledConnection pooled) || pooled.pool != this) {
+            throw new IllegalArgumentException("Connection does not belong to this pool");
+        }
+        long heldSince = leasedAt.get(pooled.slot);
+        if (!leased.compareAndSet(pooled.slot, 1, 0)) {
+            throw new IllegalStateException("Connection already released: " + pooled.id());
+        }
+        holdTime.record(nanoClock.getAsLong() - heldSince);
+        push(pooled.slot);
+        handOff();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.fail(new IllegalStateException("Pool is closed"));
+        }
+        for (PooledConnection slot : slots) {
+            slot.physical.close();
+        }
+    }
+
+    private Connection tryAcquireNow() {
+        // Never barge past queued callers; that is what keeps hand-off FIFO
+        if (!waiters.isEmpty()) {
+            return null;
+        }
+        int slot = pop();
+        if (slot == EMPTY) {
+            return null;
+        }
+        lease(slot, nanoClock.getAsLong());
+        acquireWait.record(0);
+        return slots[slot];
+    }
+
+    private void lease(int slot, long now) {
+        leasedAt.set(slot, now);
+        leased.set(slot, 1);
+    }
+
+    private Waiter enqueueWaiter() {
+        var waiter = new Waiter(nanoClock.getAsLong());
+        waiting.incrementAndGet();
+        waiters.offer(waiter);
+        // A connection may have been released between the failed pop and the offer
+        handOff();
+        return waiter;
+    }
+
+    // Matches free slots with queued waiters until one side runs out.
+    // Re-checking the queue after pushing a slot back closes the race with a concurrent enqueue.
+    private void handOff() {
+        while (!waiters.isEmpty()) {
+            int slot = pop();
+            if (slot == EMPTY) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            lease(slot, now);
+            if (!completeNextWaiter(slots[slot], now)) {
+                leased.set(slot, 0);
+                push(slot);
+            }
+        }
+    }
+
+    private boolean completeNextWaiter(PooledConnection connection, long now) {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            // complete() fails for waiters that were cancelled or timed out; skip them
+            if (waiter.complete(connection)) {
+                acquireWait.record(now - waiter.enqueuedAt);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Pool is closed");
+        }
+    }
+
+    private void push(int slot) {
+        long current;
+        do {
+            current = head.get();
+            next.set(slot, index(current));
+        } while (!head.compareAndSet(current, pack(stamp(current) + 1, slot)));
+    }
+
+    private int pop() {
+        long current;
+        int top;
+        do {
+            current = head.get();
+            top = index(current);
+            if (top == EMPTY) {
+                return EMPTY;
+            }
+        } while (!head.compareAndSet(current, pack(stamp(current) + 1, next.get(top))));
+        return top;
+    }
+
+    private static long pack(long stamp, int index) {
+        return (stamp << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    private static long stamp(long packed) {
+        return packed >>> 32;
+    }
+
+    private static int index(long packed) {
+        return (int) packed;
+    }
+
+    // Every way a waiter ends leaves the count before it completes, so waitingCallers() is already
+    // down when the caller sees the outcome. A cancelled or timed-out (orTimeout) waiter also
+    // leaves the queue at once instead of waiting for a hand-off to skip it.
+    private final class Waiter extends CompletableFuture<Connection> {
+        private final long enqueuedAt;
+        private final AtomicBoolean left = new AtomicBoolean();
+
+        Waiter(long enqueuedAt) {
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public boolean complete(Connection connection) {
+            leave();
+            return super.complete(connection);
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            leave();
+            boolean failed = super.completeExceptionally(ex);
+            if (failed) {
+                waiters.remove(this);
+            }
+            return failed;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            leave();
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                waiters.remove(this);
+            }
+            return cancelled;
+        }
+
+        // For waiters already taken off the queue
+        void fail(Throwable ex) {
+            leave();
+            super.completeExceptionally(ex);
+        }
+
+        private void leave() {
+            if (left.compareAndSet(false, true)) {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+
+    // Pre-allocated per slot, so acquiring a connection allocates nothing
+    private static final class PooledConnection implements Connection {
+        private final ConnectionPool pool;
+        private final int slot;
+        private final Connection physical;
+
+        PooledConnection(ConnectionPool pool, int slot, Connection physical) {
+            this.pool = pool;
+            this.slot = slot;
+            this.physical = Objects.requireNonNull(physical, "Factory returned a null connection");
+        }
+
+        @Override
+        public String id() {
+            return physical.id();
+        }
+
+        @Override
+        public void close() {
+            pool.release(this);
+        }
+
+        @Override
+        public String toString() {
+            return physical.toString();
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package com.techie.designPattern.creationalDesignPattern;
 
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.IdGenerator;
+import com.techie.designPattern.common.Money;
+
+import java.util.Objects;
+
 /**
  * USE CASE: Payment Processing System
  * PROBLEM: Create different payment processors without specifying exact class
@@ -8,57 +15,96 @@ package com.techie.designPattern.creationalDesignPattern;
 
 // Payment hierarchy with sealed interface
 sealed interface Payment permits CreditCardPayment, UPIPayment, NetBankingPayment {
-    boolean process(double amount);
+    // Amount in minor units of currency()
+    boolean process(long amountMinor);
+    CurrencyCode currency();
     String getTransactionId();
+
+    default boolean process(double amount) {
+        return process(Money.toMinor(amount, currency()));
+    }
 }
 
 record CreditCardPayment(String cardNumber, String cvv) implements Payment {
     @Override
-    public boolean process(double amount) {
-        System.out.println("Processing credit card payment: $" + amount);
+    public boolean process(long amountMinor) {
+        AsyncLogSink.console().println("Processing credit card payment: $" + Money.format(amountMinor, currency()));
         return true;
     }
 
+    @Override
+    public CurrencyCode currency() {
+        return CurrencyCode.USD;
+    }
+
     @Override
     public String getTransactionId() {
-        return "CC-" + System.currentTimeMillis();
+        return PaymentIds.next("CC-");
     }
 }
 
 record UPIPayment(String upiId) implements Payment {
     @Override
-    public boolean process(double amount) {
-        System.out.println("Processing UPI payment: ₹" + amount);
+    public boolean process(long amountMinor) {
+        AsyncLogSink.console().println("Processing UPI payment: ₹" + Money.format(amountMinor, currency()));
         return true;
     }
 
+    @Override
+    public CurrencyCode currency() {
+        return CurrencyCode.INR;
+    }
+
     @Override
     public String getTransactionId() {
-        return "UPI-" + System.currentTimeMillis();
+        return PaymentIds.next("UPI-");
     }
 }
 
 record NetBankingPayment(String accountNumber, String ifsc) implements Payment {
     @Override
-    public boolean process(double amount) {
-        System.out.println("Processing net banking: ₹" + amount);
+    public boolean process(long amountMinor) {
+        AsyncLogSink.console().println("Processing net banking: ₹" + Money.format(amountMinor, currency()));
         return true;
     }
 
+    @Override
+    public CurrencyCode currency() {
+        return CurrencyCode.INR;
+    }
+
     @Override
     public String getTransactionId() {
-        return "NB-" + System.currentTimeMillis();
+        return PaymentIds.next("NB-");
+    }
+}
+
+// Transaction ids for the Payment records; the generator can be swapped, e.g. for fixed ids in tests
+final class PaymentIds {
+    private static volatile IdGenerator generator = IdGenerator.timeOrdered();
+
+    private PaymentIds() {}
+
+    static String next(String prefix) {
+        return generator.next(prefix);
+    }
+
+    static void use(IdGenerator ids) {
+        generator = Objects.requireNonNull(ids, "Id generator cannot be null");
     }
 }
 
 class PaymentFactory {
+    // Resolves the type name on every call; a hot path keeps the PaymentKind from
+    // PaymentRegistry.standard().resolve(type), or uses PaymentType.X.kind(), and skips the lookup
     public static Payment createPayment(String type, String... details) {
-        return switch (type.toLowerCase()) {
-            case "credit_card" -> new CreditCardPayment(details[0], details[1]);
-            case "upi" -> new UPIPayment(details[0]);
-            case "netbanking" -> new NetBankingPayment(details[0], details[1]);
-            default -> throw new IllegalArgumentException("Unknown payment type");
-        };
+        return PaymentRegistry.standard().resolve(type).create(details);
+    }
+
+    // Adds a type name, e.g. register("card", 2, CreditCardPayment::new). Payment stays sealed,
+    // so new names create the permitted records and processPayment's switch stays exhaustive
+    public static PaymentKind register(String type, int arity, PaymentCreator creator) {
+        return PaymentRegistry.standard().register(type, arity, creator);
     }
 
     // Pattern matching for payment processing
@@ -78,6 +124,12 @@ class PaymentFactory {
             }
         };
     }
+
+    // Counts and totals many payments at once on the common pool, without processing them;
+    // amountsMinor[i] belongs to payments[i]
+    public static PaymentSummary aggregate(Payment[] payments, long[] amountsMinor) {
+        return new PaymentAggregation().aggregate(payments, amountsMinor);
+    }
 }
 
 // Add a top-level public class with a main method to demonstrate the factory
@@ -85,22 +137,23 @@ public class FactoryPattern {
     public static void main(String[] args) {
         // Create and process a credit card payment
         Payment cc = PaymentFactory.createPayment("credit_card", "4111111111111111", "123");
-        System.out.println(PaymentFactory.processPayment(cc, 100.00));
+        AsyncLogSink.console().println(PaymentFactory.processPayment(cc, 100.00));
 
         // Create and process a UPI payment
         Payment upi = PaymentFactory.createPayment("upi", "user@bank");
-        System.out.println(PaymentFactory.processPayment(upi, 250.50));
+        AsyncLogSink.console().println(PaymentFactory.processPayment(upi, 250.50));
 
         // Create and process a net banking payment
         Payment nb = PaymentFactory.createPayment("netbanking", "12345678", "IFSC0001");
-        System.out.println(PaymentFactory.processPayment(nb, 500.25));
+        AsyncLogSink.console().println(PaymentFactory.processPayment(nb, 500.25));
 
         // Demonstrate handling of unknown type
         try {
             Payment unknown = PaymentFactory.createPayment("cash");
-            System.out.println(PaymentFactory.processPayment(unknown, 50.0));
+            AsyncLogSink.console().println(PaymentFactory.processPayment(unknown, 50.0));
         } catch (IllegalArgumentException e) {
-            System.out.println("Expected error for unknown type: " + e.getMessage());
+            AsyncLogSink.console().println("Expected error for unknown type: " + e.getMessage());
         }
+        AsyncLogSink.console().flush();
     }
 }
@@ -0,0 +1,430 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * USE CASE: Executing the HttpRequest records built in BuilderDemo against real services
+ * PROBLEM: A client per call loses connection reuse, and unbounded fan-out swamps the service
+ * JDK 21 FEATURE: java.net.http.HttpClient + CompletableFuture + virtual threads
+ *
+ * HttpEngine is the extension point. JdkHttpEngine sends through one shared HttpClient, so
+ * every request reuses its pooled connections; LimitingHttpEngine wraps any engine and caps
+ * the requests in flight, queueing the rest FIFO without blocking the caller.
+ * HttpRequest.timeout() is in seconds (0 for none) and covers the whole call: the time queued
+ * for an in-flight slot plus every redirect hop.
+ */
+
+// Header names are lower case, one value (the first) per name
+record HttpResponse(int statusCode, String url, Map<String, String> headers, String body) {
+    HttpResponse {
+        Objects.requireNonNull(url, "URL cannot be null");
+        Objects.requireNonNull(headers, "Headers cannot be null");
+        Objects.requireNonNull(body, "Body cannot be null");
+        headers = HttpHeaders.copyOf(headers);
+    }
+}
+
+@FunctionalInterface
+interface HttpEngine {
+    // timeout is what is left of the request's budget, Duration.ZERO for none. Failures,
+    // including a timeout (HttpTimeoutException or TimeoutException), complete the future
+    CompletableFuture<HttpResponse> send(HttpRequest request, Duration timeout);
+
+    default CompletableFuture<HttpResponse> send(HttpRequest request) {
+        return send(request, Duration.ofSeconds(request.timeout()));
+    }
+}
+
+final class JdkHttpEngine implements HttpEngine, AutoCloseable {
+    static final int MAX_REDIRECTS = 5;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    JdkHttpEngine() {
+        this(Duration.ofSeconds(10));
+    }
+
+    JdkHttpEngine(Duration connectTimeout) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Objects.requireNonNull(connectTimeout, "Connect timeout cannot be null"))
+                // Redirects are followed per request in send(), so one client and its connections serve both settings
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> send(HttpRequest request, Duration timeout) {
+        long deadline = timeout.isZero() ? 0 : System.nanoTime() + timeout.toNanos();
+        try {
+            var uri = URI.create(request.url());
+            return exchange(request, uri, uri, request.method(), request.content(), deadline, 0);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Waits for exchanges still in flight, then releases the client's connections
+    @Override
+    public void close() {
+        client.close();
+        executor.close();
+    }
+
+    private CompletableFuture<HttpResponse> exchange(HttpRequest request, URI origin, URI uri, String method,
+                                                     RequestBody body, long deadline, int redirects) {
+        var builder = java.net.http.HttpRequest.newBuilder(uri).method(method, publisherOf(body));
+        boolean sameOrigin = Objects.equals(origin.getScheme(), uri.getScheme())
+                && Objects.equals(origin.getAuthority(), uri.getAuthority());
+        request.headers().forEach((name, value) -> {
+            // Credentials are not handed to another host a redirect points at
+            if (sameOrigin || !isCredential(name)) {
+                builder.header(name, value);
+            }
+        });
+        if (deadline != 0) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return CompletableFuture.failedFuture(
+                        new HttpTimeoutException("Timed out after " + request.timeout() + "s: " + request.url()));
+            }
+            builder.timeout(Duration.ofNanos(left));
+        }
+        return client.sendAsync(builder.build(), BodyHandlers.ofString()).thenCompose(response -> {
+            int status = response.statusCode();
+            var location = response.headers().firstValue("location");
+            if (!request.followRedirects() || !isRedirect(status) || location.isEmpty()) {
+                return CompletableFuture.completedFuture(toResponse(response));
+            }
+            if (redirects == MAX_REDIRECTS) {
+                return CompletableFuture.failedFuture(
+                        new IOException("More than " + MAX_REDIRECTS + " redirects: " + request.url()));
+            }
+            var next = uri.resolve(location.get());
+            if ("https".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(next.getScheme())) {
+                // Never downgraded from https, as with HttpClient.Redirect.NORMAL
+                return CompletableFuture.completedFuture(toResponse(response));
+            }
+            // 303, and 301/302 after a POST, continue as a GET without the body, as browsers do
+            boolean toGet = status == 303 ? !"HEAD".equals(method)
+                    : (status == 301 || status == 302) && "POST".equals(method);
+            return exchange(request, origin, next, toGet ? "GET" : method, toGet ? RequestBody.EMPTY : body, deadline, redirects + 1);
+        });
+    }
+
+    // Only text is handed over whole; the other bodies are read in chunks as the client sends them
+    private static BodyPublisher publisherOf(RequestBody body) {
+        if (body.isEmpty()) {
+            return BodyPublishers.noBody();
+        }
+        return switch (body) {
+            case RequestBody.Text text -> BodyPublishers.ofString(text.text());
+            case RequestBody.Bytes bytes -> BodyPublishers.fromPublisher(BodyPublishers.ofInputStream(
+                    () -> new ByteBufferInputStream(bytes.buffer().duplicate())), bytes.contentLength());
+            case RequestBody.FileRegion region -> BodyPublishers.fromPublisher(BodyPublishers.ofInputStream(
+                    () -> openRegion(region)), region.length());
+            case RequestBody.Streamed streamed -> streamed.contentLength() == RequestBody.UNKNOWN_LENGTH
+                    ? BodyPublishers.fromPublisher(streamed.publisher())
+                    : BodyPublishers.fromPublisher(streamed.publisher(), streamed.contentLength());
+        };
+    }
+
+    private static InputStream openRegion(RequestBody.FileRegion region) {
+        try {
+            var channel = FileChannel.open(region.file(), StandardOpenOption.READ).position(region.offset());
+            return new BoundedInputStream(Channels.newInputStream(channel), region.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private static boolean isCredential(String name) {
+        return name.equalsIgnoreCase("Authorization") || name.equalsIgnoreCase("Cookie");
+    }
+
+    private static HttpResponse toResponse(java.net.http.HttpResponse<String> response) {
+        var headers = new HashMap<String, String>();
+        response.headers().map().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                headers.putIfAbsent(name.toLowerCase(Locale.ROOT), values.get(0));
+            }
+        });
+        return new HttpResponse(response.statusCode(), response.uri().toString(), headers, response.body());
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+    }
+
+    // Ends after limit bytes, or fails if the stream ends first
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long left;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.left = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (left == 0) {
+                return -1;
+            }
+            int n = in.read(bytes, offset, (int) Math.min(length, left));
+            if (n < 0) {
+                throw new EOFException("File ended " + left + " bytes before the body region");
+            }
+            left -= n;
+            return n;
+        }
+    }
+}
+
+// Caps the requests a delegate engine has in flight. Callers beyond the cap get a future that
+// is queued FIFO and started by whichever call frees a slot, so no thread blocks on the limit;
+// a queued request fails with TimeoutException once its whole timeout is spent waiting.
+final class LimitingHttpEngine implements HttpEngine {
+    private final HttpEngine delegate;
+    private final int maxInFlight;
+    private final AtomicInteger available;
+    // Non-zero while a thread is in handOff(); counts the passes asked of it
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    // Live waiters, so waiting() never walks the queue
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LongAdder timedOutWaiting = new LongAdder();
+
+    LimitingHttpEngine(HttpEngine delegate, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in-flight requests must be positive");
+        }
+        this.delegate = Objects.requireNonNull(delegate, "Delegate engine cannot be null");
+        this.maxInFlight = maxInFlight;
+        this.available = new AtomicInteger(maxInFlight);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> send(HttpRequest request, Duration timeout) {
+        // Never barge past queued callers; that is what keeps the queue FIFO
+        if (waiters.isEmpty() && tryTakeSlot()) {
+            queueWait.record(0);
+            return run(request, timeout);
+        }
+        var waiter = new Waiter(System.nanoTime());
+        waiting.incrementAndGet();
+        waiters.offer(waiter);
+        // A slot may have been freed between the failed take and the offer
+        handOff();
+        if (!timeout.isZero()) {
+            waiter.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        var result = waiter.handle((granted, e) -> e).thenCompose(e -> {
+            if (e == null) {
+                return run(request, remaining(timeout, waiter.queuedAt));
+            }
+            if (e instanceof TimeoutException) {
+                timedOutWaiting.increment();
+            }
+            return CompletableFuture.<HttpResponse>failedFuture(e);
+        });
+        // A caller that gives up while still queued leaves the queue
+        result.whenComplete((response, e) -> waiter.cancel(false));
+        return result;
+    }
+
+    int maxInFlight() {
+        return maxInFlight;
+    }
+
+    int inFlight() {
+        return maxInFlight - available.get();
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+
+    // Nanoseconds from send() to the request being handed to the delegate
+    LatencyHistogram.Snapshot queueWait() {
+        return queueWait.snapshot();
+    }
+
+    long timedOutWaiting() {
+        return timedOutWaiting.sum();
+    }
+
+    private CompletableFuture<HttpResponse> run(HttpRequest request, Duration timeout) {
+        CompletableFuture<HttpResponse> call;
+        try {
+            call = delegate.send(request, timeout);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        // The slot is free again before the caller sees the outcome
+        return call.whenComplete((response, e) -> release());
+    }
+
+    private void release() {
+        available.incrementAndGet();
+        handOff();
+    }
+
+    // Matches free slots with queued callers until one side runs out. Starting a waiter runs its
+    // request on this thread, and a delegate that fails at once releases its slot and calls back
+    // in here; only one thread drains at a time, and a call made meanwhile just asks it for one
+    // more pass, so thousands of synchronously failing requests never nest on the stack
+    private void handOff() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requested = 1;
+        do {
+            while (!waiters.isEmpty() && tryTakeSlot()) {
+                if (!startNextWaiter()) {
+                    available.incrementAndGet();
+                }
+            }
+            requested = drainRequests.addAndGet(-requested);
+        } while (requested != 0);
+    }
+
+    private boolean startNextWaiter() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            long now = System.nanoTime();
+            // complete() fails for waiters that timed out or were cancelled; skip them
+            if (waiter.complete(null)) {
+                queueWait.record(now - waiter.queuedAt);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryTakeSlot() {
+        int free;
+        do {
+            free = available.get();
+            if (free == 0) {
+                return false;
+            }
+        } while (!available.compareAndSet(free, free - 1));
+        return true;
+    }
+
+    private static Duration remaining(Duration timeout, long queuedAt) {
+        if (timeout.isZero()) {
+            return timeout;
+        }
+        // At least a nanosecond, so a spent budget times out in the delegate rather than meaning "none"
+        return Duration.ofNanos(Math.max(1, timeout.toNanos() - (System.nanoTime() - queuedAt)));
+    }
+
+    // Every way a waiter ends leaves the count before it completes, so waiting() is already down
+    // when the caller sees the outcome. One that times out or is cancelled also leaves the queue
+    // at once instead of waiting for a hand-off to skip it.
+    private final class Waiter extends CompletableFuture<Void> {
+        private final long queuedAt;
+        private final AtomicBoolean left = new AtomicBoolean();
+
+        Waiter(long queuedAt) {
+            this.queuedAt = queuedAt;
+        }
+
+        @Override
+        public boolean complete(Void granted) {
+            leave();
+            return super.complete(granted);
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            leave();
+            boolean failed = super.completeExceptionally(ex);
+            if (failed) {
+                waiters.remove(this);
+            }
+            return failed;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            leave();
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                waiters.remove(this);
+            }
+            return cancelled;
+        }
+
+        private void leave() {
+            if (left.compareAndSet(false, true)) {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+}
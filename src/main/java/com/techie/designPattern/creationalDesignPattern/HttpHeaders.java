@@ -0,0 +1,231 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * USE CASE: Thousands of API requests per second that share the same 5-10 headers
+ * PROBLEM: Copying the whole header HashMap into every built request
+ * JDK 17 FEATURE: Immutable persistent structure behind the Map interface
+ *
+ * An immutable header set is a small delta (names and values in two arrays) layered on a
+ * shared base set. Building or deriving a request costs O(delta): the base is referenced,
+ * never copied. A null value in a delta removes the base's header. Lookups walk the layers
+ * top down; once a chain is MAX_DEPTH layers deep the next layer flattens it into one array.
+ * Names are interned, so the usual lookup with a literal name matches by identity first; past
+ * the intern cap names are compared with equals, so identity is never required for correctness.
+ * Header sets are meant to stay small - every lookup is a linear scan.
+ */
+final class HttpHeaders extends AbstractMap<String, String> {
+    static final HttpHeaders EMPTY = new HttpHeaders(null, new String[0], new String[0], 0, 0);
+
+    private static final int MAX_DEPTH = 4;
+    // Past the cap names are still accepted, just not interned, so odd names cannot grow it without bound
+    private static final int MAX_INTERNED = 1_024;
+    private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<>();
+
+    // null for a flat set, whose arrays then hold no removals
+    private final HttpHeaders base;
+    private final String[] names;
+    private final String[] values;
+    private final int depth;
+    private final int size;
+    private Set<Entry<String, String>> entrySet;
+
+    private HttpHeaders(HttpHeaders base, String[] names, String[] values, int depth, int size) {
+        this.base = base;
+        this.names = names;
+        this.values = values;
+        this.depth = depth;
+        this.size = size;
+    }
+
+    static String name(String name) {
+        Objects.requireNonNull(name, "Header name cannot be null");
+        var interned = NAMES.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        if (NAMES.size() >= MAX_INTERNED) {
+            return name;
+        }
+        var raced = NAMES.putIfAbsent(name, name);
+        return raced != null ? raced : name;
+    }
+
+    // A base set, e.g. of("Accept", "application/json", "User-Agent", "client/1.0")
+    static HttpHeaders of(String... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected header name and value pairs");
+        }
+        int count = namesAndValues.length / 2;
+        var names = new String[count];
+        var values = new String[count];
+        int used = 0;
+        for (int i = 0; i < count; i++) {
+            var name = name(namesAndValues[2 * i]);
+            var value = Objects.requireNonNull(namesAndValues[2 * i + 1], "Header value cannot be null");
+            int at = indexOf(names, used, name);
+            if (at < 0) {
+                at = used++;
+                names[at] = name;
+            }
+            values[at] = value;
+        }
+        return used == 0 ? EMPTY : new HttpHeaders(null, Arrays.copyOf(names, used), Arrays.copyOf(values, used), 0, used);
+    }
+
+    static HttpHeaders copyOf(Map<String, String> headers) {
+        if (headers instanceof HttpHeaders shared) {
+            return shared;
+        }
+        var namesAndValues = new String[2 * headers.size()];
+        int i = 0;
+        for (var header : headers.entrySet()) {
+            namesAndValues[i++] = header.getKey();
+            namesAndValues[i++] = header.getValue();
+        }
+        return of(namesAndValues);
+    }
+
+    // The first count entries of the delta are copied; their names must be distinct (by equals)
+    static HttpHeaders layer(HttpHeaders base, String[] names, String[] values, int count) {
+        if (count == 0) {
+            return base;
+        }
+        int size = base.size;
+        for (int i = 0; i < count; i++) {
+            boolean inBase = base.containsKey(names[i]);
+            if (values[i] != null && !inBase) {
+                size++;
+            } else if (values[i] == null && inBase) {
+                size--;
+            }
+        }
+        var layered = new HttpHeaders(base, Arrays.copyOf(names, count), Arrays.copyOf(values, count), base.depth + 1, size);
+        return base.isEmpty() || layered.depth >= MAX_DEPTH ? layered.flatten() : layered;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    @Override
+    public String get(Object name) {
+        for (var layer = this; layer != null; layer = layer.base) {
+            int at = indexOf(layer.names, layer.names.length, name);
+            if (at >= 0) {
+                // null here is a removal, which hides the base's value too
+                return layer.values[at];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        var entries = entrySet;
+        if (entries == null) {
+            entries = new Entries(flatten());
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    // Every visible header in one flat layer; used for iteration and when a chain gets too deep
+    private HttpHeaders flatten() {
+        if (base == null) {
+            return this;
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        var names = new String[size];
+        var values = new String[size];
+        int used = 0;
+        for (var layer = this; layer != null; layer = layer.base) {
+            for (int i = 0; i < layer.names.length; i++) {
+                if (layer.values[i] != null && !hiddenAbove(layer, layer.names[i])) {
+                    names[used] = layer.names[i];
+                    values[used++] = layer.values[i];
+                }
+            }
+        }
+        return new HttpHeaders(null, names, values, 0, used);
+    }
+
+    // True if a layer above the given one sets or removes the name
+    private boolean hiddenAbove(HttpHeaders layer, String name) {
+        for (var above = this; above != layer; above = above.base) {
+            if (indexOf(above.names, above.names.length, name) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int indexOf(String[] names, int count, Object name) {
+        for (int i = 0; i < count; i++) {
+            if (names[i] == name) {
+                return i;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entries extends AbstractSet<Entry<String, String>> {
+        private final HttpHeaders flat;
+
+        Entries(HttpHeaders flat) {
+            this.flat = flat;
+        }
+
+        @Override
+        public int size() {
+            return flat.size;
+        }
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < flat.size;
+                }
+
+                @Override
+                public Entry<String, String> next() {
+                    if (next >= flat.size) {
+                        throw new NoSuchElementException();
+                    }
+                    int at = next++;
+                    return new SimpleImmutableEntry<>(flat.names[at], flat.values[at]);
+                }
+            };
+        }
+    }
+}
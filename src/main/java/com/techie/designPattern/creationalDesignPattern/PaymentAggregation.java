@@ -0,0 +1,165 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.CurrencyCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * USE CASE: End-of-day count and total per payment type over tens of millions of card, UPI and net banking payments
+ * PROBLEM: Adding them up one processPayment() call at a time runs on one core and builds a result string for each
+ * JDK 17 FEATURE: Sealed interface + exhaustive pattern switch, fork-join
+ *
+ * Payments and their amounts (minor units) come in as two parallel arrays. The range is split
+ * across a ForkJoinPool; each leaf sorts its payments into one slot per PaymentType with an
+ * exhaustive switch over the sealed hierarchy and adds them up in primitive long counters, and
+ * the slots are merged on the way back up. Nothing is allocated per payment and no string is
+ * built: the result is one compact summary with a count and total per type. This only
+ * aggregates: no payment is processed or settled, and amounts are summed as given. A total
+ * that overflows a long fails the run with ArithmeticException.
+ */
+
+// Totals for one payment type, in the currency its payments are in (null when there were none)
+record PaymentTotals(PaymentType type, CurrencyCode currency, long count, long totalMinor) {}
+
+record PaymentSummary(List<PaymentTotals> byType) {
+    PaymentSummary {
+        byType = List.copyOf(byType);
+    }
+
+    PaymentTotals of(PaymentType type) {
+        return byType.get(type.ordinal());
+    }
+
+    // Payments across all types; totals are per type, as the currencies differ
+    long count() {
+        long count = 0;
+        for (PaymentTotals totals : byType) {
+            count += totals.count();
+        }
+        return count;
+    }
+}
+
+final class PaymentAggregation {
+    // Below this many payments a range is summed in place rather than split further
+    private static final int MIN_LEAF = 8_192;
+    private static final int TYPES = PaymentType.values().length;
+
+    private final ForkJoinPool pool;
+    private final int leafSize;
+
+    PaymentAggregation() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    PaymentAggregation(ForkJoinPool pool) {
+        this(pool, 0);
+    }
+
+    // leafSize 0 picks about eight leaves per worker, but never fewer than MIN_LEAF payments each
+    PaymentAggregation(ForkJoinPool pool, int leafSize) {
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+        if (leafSize < 0) {
+            throw new IllegalArgumentException("Leaf size must not be negative");
+        }
+        this.leafSize = leafSize;
+    }
+
+    // amountsMinor[i] is the amount of payments[i], in minor units of that payment's currency
+    PaymentSummary aggregate(Payment[] payments, long[] amountsMinor) {
+        Objects.requireNonNull(payments, "Payments cannot be null");
+        Objects.requireNonNull(amountsMinor, "Amounts cannot be null");
+        if (payments.length != amountsMinor.length) {
+            throw new IllegalArgumentException("Payments and amounts must be the same length");
+        }
+        int leaf = leafSize > 0 ? leafSize : Math.max(MIN_LEAF, payments.length / (pool.getParallelism() * 8));
+        return pool.invoke(new Sum(payments, amountsMinor, 0, payments.length, leaf)).summary();
+    }
+
+    // Per-type slots, indexed by PaymentType ordinal
+    private static final class Tally {
+        final long[] count = new long[TYPES];
+        final long[] totalMinor = new long[TYPES];
+        final CurrencyCode[] currency = new CurrencyCode[TYPES];
+
+        void add(Payment[] payments, long[] amountsMinor, int from, int to) {
+            for (int i = from; i < to; i++) {
+                var payment = payments[i];
+                if (payment == null) {
+                    throw new NullPointerException("Payment cannot be null, at index " + i);
+                }
+                int slot = slot(payment);
+                count[slot]++;
+                totalMinor[slot] = Math.addExact(totalMinor[slot], amountsMinor[i]);
+                if (currency[slot] == null) {
+                    currency[slot] = payment.currency();
+                }
+            }
+        }
+
+        Tally merge(Tally other) {
+            for (int slot = 0; slot < TYPES; slot++) {
+                count[slot] += other.count[slot];
+                totalMinor[slot] = Math.addExact(totalMinor[slot], other.totalMinor[slot]);
+                if (currency[slot] == null) {
+                    currency[slot] = other.currency[slot];
+                }
+            }
+            return this;
+        }
+
+        PaymentSummary summary() {
+            var types = PaymentType.values();
+            var byType = new ArrayList<PaymentTotals>(TYPES);
+            for (int slot = 0; slot < TYPES; slot++) {
+                byType.add(new PaymentTotals(types[slot], currency[slot], count[slot], totalMinor[slot]));
+            }
+            return new PaymentSummary(byType);
+        }
+    }
+
+    // Exhaustive over the sealed hierarchy, so a new Payment record doesn't compile until it has a slot
+    private static int slot(Payment payment) {
+        return switch (payment) {
+            case CreditCardPayment cc -> PaymentType.CREDIT_CARD.ordinal();
+            case UPIPayment upi -> PaymentType.UPI.ordinal();
+            case NetBankingPayment nb -> PaymentType.NETBANKING.ordinal();
+        };
+    }
+
+    // ForkJoinTask is Serializable, but a task is only ever run in this process, never serialized
+    @SuppressWarnings("serial")
+    private static final class Sum extends RecursiveTask<Tally> {
+        private final Payment[] payments;
+        private final long[] amountsMinor;
+        private final int from;
+        private final int to;
+        private final int leaf;
+
+        Sum(Payment[] payments, long[] amountsMinor, int from, int to, int leaf) {
+            this.payments = payments;
+            this.amountsMinor = amountsMinor;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= leaf) {
+                var tally = new Tally();
+                tally.add(payments, amountsMinor, from, to);
+                return tally;
+            }
+            int mid = (from + to) >>> 1;
+            var left = new Sum(payments, amountsMinor, from, mid, leaf);
+            left.fork();
+            var right = new Sum(payments, amountsMinor, mid, to, leaf).compute();
+            return left.join().merge(right);
+        }
+    }
+}
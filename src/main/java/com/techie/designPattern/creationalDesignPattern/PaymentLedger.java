@@ -0,0 +1,318 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.Utf8;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * USE CASE: Keeping hundreds of millions of settled payments queryable in one process
+ * PROBLEM: Each Payment record plus its Strings costs ~100+ bytes of heap, and the GC traces all of them
+ * JDK 17 FEATURE: Sealed interface + pattern switch, direct ByteBuffers
+ *
+ * Payments are stored column by column in direct ByteBuffers, outside the GC heap, in segments
+ * of segmentRows rows: the type (1 byte), the amount in minor units (8 bytes), the first detail
+ * (card number, UPI id, account number) as UTF-8 bytes, and the second detail (IFSC) as a 4-byte
+ * code into a dictionary, since a few thousand IFSC codes repeat across millions of rows.
+ * A row costs about 21 bytes plus its first detail. Scans and aggregations read only the type
+ * and amount columns, with no objects created; payment(row) decodes a Payment record on demand.
+ * Card data is never kept in the clear: the CVV is dropped and all but the last four digits of
+ * the card number are masked, so a card row decodes as e.g. CreditCardPayment("************1111", null).
+ * Like the ArrayList it replaces, a ledger is not thread-safe: append from one thread, and
+ * publish it safely before other threads scan it.
+ */
+
+// Called for every row of a scan, with no Payment created
+@FunctionalInterface
+interface LedgerVisitor {
+    void visit(long row, PaymentType type, long amountMinor);
+}
+
+final class PaymentLedger {
+    static final int DEFAULT_SEGMENT_ROWS = 1 << 20;
+    // Keeps the amount column of one segment, at 8 bytes per row, within a ByteBuffer
+    static final int MAX_SEGMENT_ROWS = 1 << 26;
+
+    private static final PaymentType[] TYPES = PaymentType.values();
+    // Stored as the first detail's length when it is null
+    private static final int NULL_LENGTH = -1;
+    private static final int MAX_BUFFER = Integer.MAX_VALUE - 8;
+    // Dictionary code of a null second detail, and of UPI and card payments, which have none stored
+    private static final int NO_CODE = 0;
+    private static final int CARD_DIGITS_SHOWN = 4;
+    private static final char MASK = '*';
+
+    // Columns are read and written at absolute positions, so no buffer position is ever shared;
+    // amounts and codes are typed views, which scans index like arrays and the JIT vectorizes well
+    private static final class Segment {
+        final ByteBuffer types;
+        final LongBuffer amounts;
+        // Offset and length of each row's first detail within firstBytes
+        final ByteBuffer firstRefs;
+        final IntBuffer secondCodes;
+        ByteBuffer firstBytes;
+        int firstEnd;
+
+        Segment(int rows) {
+            types = ByteBuffer.allocateDirect(rows);
+            amounts = ByteBuffer.allocateDirect(rows * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+            firstRefs = ByteBuffer.allocateDirect(rows * 8).order(ByteOrder.nativeOrder());
+            secondCodes = ByteBuffer.allocateDirect(rows * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+            // Room for 16-byte details to start with; doubled when it runs out
+            firstBytes = ByteBuffer.allocateDirect(rows * 16);
+        }
+
+        long offHeapBytes() {
+            return types.capacity() + amounts.capacity() * 8L + firstRefs.capacity() + secondCodes.capacity() * 4L
+                    + firstBytes.capacity();
+        }
+    }
+
+    private final int segmentRows;
+    private final int segmentShift;
+    private final List<Segment> segments = new ArrayList<>();
+    private long size;
+
+    // Second details by code - 1; the map gives the code for a value
+    private final List<String> dictionary = new ArrayList<>();
+    private final HashMap<String, Integer> codes = new HashMap<>();
+    // Currency of each type, taken from the first payment of that type appended
+    private final CurrencyCode[] currencies = new CurrencyCode[TYPES.length];
+
+    PaymentLedger() {
+        this(DEFAULT_SEGMENT_ROWS);
+    }
+
+    // segmentRows must be a power of two; each segment allocates about 37 bytes per row up front
+    PaymentLedger(int segmentRows) {
+        if (segmentRows <= 0 || segmentRows > MAX_SEGMENT_ROWS || Integer.bitCount(segmentRows) != 1) {
+            throw new IllegalArgumentException("Segment rows must be a power of two up to " + MAX_SEGMENT_ROWS);
+        }
+        this.segmentRows = segmentRows;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentRows);
+    }
+
+    // Returns the row the payment was stored at
+    long append(Payment payment, long amountMinor) {
+        Objects.requireNonNull(payment, "Payment cannot be null");
+        return switch (payment) {
+            case CreditCardPayment cc -> append(PaymentType.CREDIT_CARD, cc.currency(), amountMinor, cc.cardNumber(),
+                    maskedLength(cc.cardNumber()), null);
+            case UPIPayment upi -> append(PaymentType.UPI, upi.currency(), amountMinor, upi.upiId(), 0, null);
+            case NetBankingPayment nb -> append(PaymentType.NETBANKING, nb.currency(), amountMinor, nb.accountNumber(), 0, nb.ifsc());
+        };
+    }
+
+    long size() {
+        return size;
+    }
+
+    PaymentType type(long row) {
+        Objects.checkIndex(row, size);
+        return TYPES[segment(row).types.get(index(row))];
+    }
+
+    long amountMinor(long row) {
+        Objects.checkIndex(row, size);
+        return segment(row).amounts.get(index(row));
+    }
+
+    // Decodes the row into a new Payment record; nothing is cached, so keep it if it's needed again
+    Payment payment(long row) {
+        Objects.checkIndex(row, size);
+        var segment = segment(row);
+        int index = index(row);
+        var type = TYPES[segment.types.get(index)];
+        int code = segment.secondCodes.get(index);
+        return type.kind().create(first(segment, index), code == NO_CODE ? null : dictionary.get(code - 1));
+    }
+
+    // Visits every row in order
+    void forEach(LedgerVisitor visitor) {
+        Objects.requireNonNull(visitor, "Visitor cannot be null");
+        long base = 0;
+        for (Segment segment : segments) {
+            int rows = rowsIn(base);
+            for (int i = 0; i < rows; i++) {
+                visitor.visit(base + i, TYPES[segment.types.get(i)], segment.amounts.get(i));
+            }
+            base += segmentRows;
+        }
+    }
+
+    // Count and total per type, in the same shape PaymentAggregation returns
+    PaymentSummary summarize() {
+        var count = new long[TYPES.length];
+        var totalMinor = new long[TYPES.length];
+        long base = 0;
+        for (Segment segment : segments) {
+            int rows = rowsIn(base);
+            for (int i = 0; i < rows; i++) {
+                int slot = segment.types.get(i);
+                count[slot]++;
+                totalMinor[slot] = Math.addExact(totalMinor[slot], segment.amounts.get(i));
+            }
+            base += segmentRows;
+        }
+        var byType = new ArrayList<PaymentTotals>(TYPES.length);
+        for (int slot = 0; slot < TYPES.length; slot++) {
+            byType.add(new PaymentTotals(TYPES[slot], currencies[slot], count[slot], totalMinor[slot]));
+        }
+        return new PaymentSummary(byType);
+    }
+
+    // Totals for one type and second detail, e.g. all net banking through one IFSC; rows are
+    // matched on the dictionary code, so no detail is decoded or compared as a String
+    PaymentTotals totalsFor(PaymentType type, String secondDetail) {
+        Objects.requireNonNull(type, "Payment type cannot be null");
+        Objects.requireNonNull(secondDetail, "Detail cannot be null");
+        var code = codes.get(secondDetail);
+        long count = 0;
+        long totalMinor = 0;
+        if (code != null) {
+            int wantedCode = code;
+            byte wantedType = (byte) type.ordinal();
+            long base = 0;
+            for (Segment segment : segments) {
+                int rows = rowsIn(base);
+                for (int i = 0; i < rows; i++) {
+                    if (segment.secondCodes.get(i) != wantedCode || segment.types.get(i) != wantedType) {
+                        continue;
+                    }
+                    count++;
+                    totalMinor = Math.addExact(totalMinor, segment.amounts.get(i));
+                }
+                base += segmentRows;
+            }
+        }
+        return new PaymentTotals(type, currencies[type.ordinal()], count, totalMinor);
+    }
+
+    // Distinct second details stored; these are the only per-value objects left on the heap
+    int dictionarySize() {
+        return dictionary.size();
+    }
+
+    long offHeapBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    // The first masked characters of first are stored as MASK
+    private long append(PaymentType type, CurrencyCode currency, long amountMinor, String first, int masked, String second) {
+        if (segments.size() == (int) (size >>> segmentShift)) {
+            segments.add(new Segment(segmentRows));
+        }
+        int index = index(size);
+        var segment = segment(size);
+        // Written first, as it is the only step that can fail; a failed append leaves size as it was
+        writeFirst(segment, index, first, masked);
+        segment.types.put(index, (byte) type.ordinal());
+        segment.amounts.put(index, amountMinor);
+        segment.secondCodes.put(index, encode(second));
+        if (currencies[type.ordinal()] == null) {
+            currencies[type.ordinal()] = currency;
+        }
+        return size++;
+    }
+
+    private void writeFirst(Segment segment, int index, String first, int masked) {
+        int offset = segment.firstEnd;
+        if (first == null) {
+            segment.firstRefs.putInt(index * 8, offset).putInt(index * 8 + 4, NULL_LENGTH);
+            return;
+        }
+        int length = Utf8.length(first);
+        if (masked > 0 && length != first.length()) {
+            // Not a well-formed card number; mask a copy rather than work out its masked UTF-8 length
+            var chars = first.toCharArray();
+            Arrays.fill(chars, 0, masked, MASK);
+            first = new String(chars);
+            length = Utf8.length(first);
+        }
+        ensureRoom(segment, length);
+        var bytes = segment.firstBytes;
+        if (length == first.length()) {
+            // All ASCII, as card and account numbers are: one byte per char, nothing allocated
+            for (int i = 0; i < length; i++) {
+                bytes.put(offset + i, i < masked ? (byte) MASK : (byte) first.charAt(i));
+            }
+        } else {
+            bytes.put(offset, first.getBytes(StandardCharsets.UTF_8));
+        }
+        segment.firstEnd = offset + length;
+        segment.firstRefs.putInt(index * 8, offset).putInt(index * 8 + 4, length);
+    }
+
+    // Card numbers keep their last four digits; one that short is masked entirely
+    private static int maskedLength(String cardNumber) {
+        if (cardNumber == null) {
+            return 0;
+        }
+        int length = cardNumber.length();
+        return length > CARD_DIGITS_SHOWN ? length - CARD_DIGITS_SHOWN : length;
+    }
+
+    private static void ensureRoom(Segment segment, int length) {
+        var bytes = segment.firstBytes;
+        long needed = (long) segment.firstEnd + length;
+        if (needed <= bytes.capacity()) {
+            return;
+        }
+        if (needed > MAX_BUFFER) {
+            throw new IllegalStateException("Details of one segment exceed 2 GB; use smaller segments");
+        }
+        var next = ByteBuffer.allocateDirect((int) Math.min(Math.max(needed, 2L * bytes.capacity()), MAX_BUFFER));
+        next.put(0, bytes, 0, segment.firstEnd);
+        segment.firstBytes = next;
+    }
+
+    private static String first(Segment segment, int index) {
+        int offset = segment.firstRefs.getInt(index * 8);
+        int length = segment.firstRefs.getInt(index * 8 + 4);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        var bytes = new byte[length];
+        segment.firstBytes.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        var code = codes.get(value);
+        if (code == null) {
+            dictionary.add(value);
+            code = dictionary.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private Segment segment(long row) {
+        return segments.get((int) (row >>> segmentShift));
+    }
+
+    private int index(long row) {
+        return (int) row & (segmentRows - 1);
+    }
+
+    // Rows used in the segment starting at base; only the last one can be partly filled
+    private int rowsIn(long base) {
+        return (int) Math.min(segmentRows, size - base);
+    }
+}
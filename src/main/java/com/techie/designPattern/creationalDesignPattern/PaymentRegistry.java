@@ -0,0 +1,183 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * USE CASE: Creating payments by type name on the checkout hot path
+ * PROBLEM: toLowerCase() plus a string switch and a varargs array on every call; adding a type means editing the switch
+ * JDK 17 FEATURE: Enums + records as pre-built creator handles
+ *
+ * A type name is resolved once to a PaymentKind, which holds the constructor call for that
+ * type; callers keep the kind and create payments from it with one or two details, with no
+ * lookup and no varargs array. The built-in types are also PaymentType constants, whose kind
+ * needs no lookup at all. Lookup by name is case-insensitive and locale-independent: names are
+ * hashed and compared char by char with their case folded, and each spelling seen is cached, so
+ * after the first call for a spelling a lookup allocates nothing.
+ * register() adds new type names (aliases, regional variants) without touching a switch.
+ */
+
+// Builds one payment; second is null for kinds that take a single detail
+@FunctionalInterface
+interface PaymentCreator {
+    Payment create(String first, String second);
+}
+
+// A resolved payment type; arity is how many details create(String...) passes on
+record PaymentKind(String name, int arity, PaymentCreator creator) {
+    PaymentKind {
+        Objects.requireNonNull(name, "Payment type cannot be null");
+        Objects.requireNonNull(creator, "Payment creator cannot be null");
+        if (arity < 0 || arity > 2) {
+            throw new IllegalArgumentException("Payment kinds take 0 to 2 details");
+        }
+    }
+
+    Payment create(String first) {
+        return creator.create(first, null);
+    }
+
+    Payment create(String first, String second) {
+        return creator.create(first, second);
+    }
+
+    // Missing details throw ArrayIndexOutOfBoundsException, as indexing them always has
+    Payment create(String... details) {
+        return creator.create(arity > 0 ? details[0] : null, arity > 1 ? details[1] : null);
+    }
+}
+
+enum PaymentType {
+    CREDIT_CARD(new PaymentKind("credit_card", 2, CreditCardPayment::new)),
+    UPI(new PaymentKind("upi", 1, (upiId, unused) -> new UPIPayment(upiId))),
+    NETBANKING(new PaymentKind("netbanking", 2, NetBankingPayment::new));
+
+    private final PaymentKind kind;
+
+    PaymentType(PaymentKind kind) {
+        this.kind = kind;
+    }
+
+    PaymentKind kind() {
+        return kind;
+    }
+}
+
+final class PaymentRegistry {
+    private static final PaymentRegistry STANDARD = new PaymentRegistry();
+
+    private static final int SPELLINGS = 64;
+
+    // An exact spelling already resolved, e.g. "UPI"; immutable, so slots can be shared without locking
+    private record Spelling(String type, PaymentKind kind) {}
+
+    // Open addressing, at most half full; replaced whole on register, so lookups read it without locking
+    private volatile PaymentKind[] table = new PaymentKind[16];
+    private int size;
+    // Direct-mapped by String.hashCode(), which a String caches: a type name seen before costs one
+    // equals() instead of folding its case again. Kinds are never removed, so entries never go stale
+    private final Spelling[] spellings = new Spelling[SPELLINGS];
+
+    PaymentRegistry() {
+        for (PaymentType type : PaymentType.values()) {
+            register(type.kind());
+        }
+    }
+
+    // The registry PaymentFactory.createPayment resolves against
+    static PaymentRegistry standard() {
+        return STANDARD;
+    }
+
+    PaymentKind register(String name, int arity, PaymentCreator creator) {
+        return register(new PaymentKind(name, arity, creator));
+    }
+
+    synchronized PaymentKind register(PaymentKind kind) {
+        var current = table;
+        if (find(current, kind.name()) != null) {
+            throw new IllegalArgumentException("Payment type already registered: " + kind.name());
+        }
+        var next = 2 * (size + 1) > current.length ? new PaymentKind[current.length * 2] : Arrays.copyOf(current, current.length);
+        if (next.length != current.length) {
+            for (PaymentKind existing : current) {
+                if (existing != null) {
+                    insert(next, existing);
+                }
+            }
+        }
+        insert(next, kind);
+        size++;
+        table = next;
+        return kind;
+    }
+
+    PaymentKind resolve(String type) {
+        int h = type.hashCode();
+        int slot = (h ^ (h >>> 16)) & (SPELLINGS - 1);
+        var seen = spellings[slot];
+        if (seen != null && seen.type().equals(type)) {
+            return seen.kind();
+        }
+        var kind = find(table, type);
+        if (kind == null) {
+            throw new IllegalArgumentException("Unknown payment type: " + type);
+        }
+        spellings[slot] = new Spelling(type, kind);
+        return kind;
+    }
+
+    boolean isRegistered(String type) {
+        return find(table, type) != null;
+    }
+
+    private static PaymentKind find(PaymentKind[] table, String type) {
+        int mask = table.length - 1;
+        for (int i = foldedHash(type) & mask; ; i = (i + 1) & mask) {
+            var kind = table[i];
+            if (kind == null) {
+                return null;
+            }
+            if (equalsIgnoreCase(kind.name(), type)) {
+                return kind;
+            }
+        }
+    }
+
+    private static void insert(PaymentKind[] table, PaymentKind kind) {
+        int mask = table.length - 1;
+        int i = foldedHash(kind.name()) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = kind;
+    }
+
+    // Equal-ignoring-case names hash alike; case folds per char as in String.regionMatches(true, ...)
+    private static int foldedHash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + fold(name.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int fold(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean equalsIgnoreCase(String name, String type) {
+        if (name.length() != type.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (fold(name.charAt(i)) != fold(type.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,197 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.Utf8;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+/**
+ * USE CASE: Uploading multi-megabyte JSON documents or files with an HttpRequest
+ * PROBLEM: A String body puts the whole payload on the heap, however large it is
+ * JDK 17 FEATURE: Sealed interface of records + Flow.Publisher
+ *
+ * A request body is text, a ByteBuffer, a region of a file or a Flow.Publisher of buffers.
+ * Only text lives on the heap in full; the others are read in chunks as they are sent, so
+ * memory stays flat whatever the payload size. writeTo() streams any body into a channel and
+ * sends a file region with FileChannel.transferTo, which is zero-copy when the target is a
+ * socket. contentLength() is the size in bytes, or UNKNOWN_LENGTH for a publisher that
+ * doesn't know it up front (sent chunked).
+ */
+sealed interface RequestBody permits RequestBody.Text, RequestBody.Bytes, RequestBody.FileRegion, RequestBody.Streamed {
+    long UNKNOWN_LENGTH = -1;
+    Text EMPTY = new Text("");
+
+    long contentLength();
+
+    // Writes the whole body and returns the bytes written; may be called again for a resend
+    long writeTo(WritableByteChannel target) throws IOException;
+
+    default boolean isEmpty() {
+        return contentLength() == 0;
+    }
+
+    static RequestBody of(String text) {
+        return text.isEmpty() ? EMPTY : new Text(text);
+    }
+
+    static RequestBody of(ByteBuffer buffer) {
+        return new Bytes(buffer);
+    }
+
+    static RequestBody ofFile(Path file) throws IOException {
+        return new FileRegion(file, 0, Files.size(file));
+    }
+
+    static RequestBody ofFile(Path file, long offset, long length) {
+        return new FileRegion(file, offset, length);
+    }
+
+    static RequestBody ofPublisher(Flow.Publisher<ByteBuffer> publisher, long contentLength) {
+        return new Streamed(publisher, contentLength);
+    }
+
+    // Encoded as UTF-8
+    record Text(String text) implements RequestBody {
+        public Text {
+            Objects.requireNonNull(text, "Body cannot be null");
+        }
+
+        @Override
+        public long contentLength() {
+            return Utf8.length(text);
+        }
+
+        // Without scanning the text for its UTF-8 length
+        @Override
+        public boolean isEmpty() {
+            return text.isEmpty();
+        }
+
+        @Override
+        public long writeTo(WritableByteChannel target) throws IOException {
+            return writeFully(target, StandardCharsets.UTF_8.encode(text));
+        }
+    }
+
+    // The bytes between position and limit, shared rather than copied: don't modify them while in use
+    record Bytes(ByteBuffer buffer) implements RequestBody {
+        public Bytes {
+            buffer = Objects.requireNonNull(buffer, "Body cannot be null").asReadOnlyBuffer();
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long writeTo(WritableByteChannel target) throws IOException {
+            return writeFully(target, buffer.duplicate());
+        }
+    }
+
+    // Read from the file each time the body is sent; the file must not shrink meanwhile
+    record FileRegion(Path file, long offset, long length) implements RequestBody {
+        public FileRegion {
+            Objects.requireNonNull(file, "File cannot be null");
+            if (offset < 0 || length < 0) {
+                throw new IllegalArgumentException("Offset and length must not be negative");
+            }
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public long writeTo(WritableByteChannel target) throws IOException {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long written = 0;
+                while (written < length) {
+                    long sent = channel.transferTo(offset + written, length - written, target);
+                    if (sent <= 0 && offset + written >= channel.size()) {
+                        throw new IOException("File shorter than the body region: " + file);
+                    }
+                    written += sent;
+                }
+                return written;
+            }
+        }
+    }
+
+    // Subscribed once per send; a body that may be resent (e.g. on a 307 redirect) needs a
+    // publisher that can be subscribed again
+    record Streamed(Flow.Publisher<ByteBuffer> publisher, long contentLength) implements RequestBody {
+        public Streamed {
+            Objects.requireNonNull(publisher, "Publisher cannot be null");
+            if (contentLength < UNKNOWN_LENGTH) {
+                throw new IllegalArgumentException("Content length must be UNKNOWN_LENGTH or not negative");
+            }
+        }
+
+        // Requests one buffer at a time, so at most one is held however long the stream is
+        @Override
+        public long writeTo(WritableByteChannel target) throws IOException {
+            var done = new CompletableFuture<Long>();
+            publisher.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+                private long written;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    try {
+                        written += writeFully(target, item);
+                        subscription.request(1);
+                    } catch (IOException e) {
+                        subscription.cancel();
+                        done.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(written);
+                }
+            });
+            try {
+                return done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while streaming the body");
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+    }
+
+    private static long writeFully(WritableByteChannel target, ByteBuffer bytes) throws IOException {
+        long written = 0;
+        while (bytes.hasRemaining()) {
+            written += target.write(bytes);
+        }
+        return written;
+    }
+}
@@ -1,6 +1,20 @@
 package com.techie.designPattern.creationalDesignPattern;
 
+import com.techie.designPattern.common.AsyncLogSink;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /*
 
@@ -22,6 +36,8 @@ Why use an enum for a singleton?
 - Java guarantees that each enum value is instantiated exactly once.
 - Enums are thread-safe and handle serialization automatically.
 - This makes them the simplest and most robust way to write a singleton.
+- The enum owns a bounded `ConnectionPool` (see ConnectionPool.java): slots are pre-warmed, the free-list is lock-free,
+  and acquire waits up to a timeout instead of creating connections beyond `maxConnections`.
 
 
 
@@ -30,6 +46,10 @@ Example 2 — ConfigurationManager + record (enum holding a record)
 Why use an enum for a manager and a record for the config?
 - The enum gives you single-instance semantics for a manager object.
 - A `record` is a concise immutable data carrier perfect for configuration objects. Records automatically provide accessors (getters), equals, hashCode, and toString.
+- The initial config comes from the file named by `-Dconfig.file` (properties or flat JSON) when set;
+  `watch(path)` keeps it in sync with the file through a WatchService.
+- Every update is published with a new, monotonically increasing version. Subscribers are notified
+  asynchronously, and `derive(...)` caches values computed from the config until the version changes.
 
 
 
@@ -56,10 +76,15 @@ Notes and tips
 enum DatabaseConnectionPool {
     INSTANCE;
 
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_SECONDS = 30;
+
     private final int maxConnections;
+    private final ConnectionPool pool;
 
     DatabaseConnectionPool() {
         this.maxConnections = 10;
+        // In-memory stand-in until a real driver-backed ConnectionFactory is plugged in
+        this.pool = new ConnectionPool(maxConnections, ConnectionFactory.inMemory("conn-"));
         System.out.println("Database pool initialized");
     }
 
@@ -67,9 +92,36 @@ enum DatabaseConnectionPool {
         return maxConnections;
     }
 
-    // Simple simulated acquire method for demo purposes
-    public String acquireConnection() {
-        return "conn-" + System.nanoTime();
+    // Blocks up to the default timeout; close() the connection (or call releaseConnection) to return it
+    public Connection acquireConnection() {
+        try {
+            return acquireConnection(DEFAULT_ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a connection", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    public Connection acquireConnection(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        return pool.acquire(timeout, unit);
+    }
+
+    public CompletableFuture<Connection> acquireConnectionAsync() {
+        return pool.acquireAsync();
+    }
+
+    public void releaseConnection(Connection connection) {
+        pool.release(connection);
+    }
+
+    public int getAvailableConnections() {
+        return pool.availableConnections();
+    }
+
+    public ConnectionPool.PoolStats getStats() {
+        return pool.stats();
     }
 }
 
@@ -77,23 +129,150 @@ enum DatabaseConnectionPool {
 enum ConfigurationManager {
     INSTANCE;
 
-    public record Config(String apiKey, String dbUrl, int timeout) {}
+    public record Config(String apiKey, String dbUrl, int timeout) {
+        static final Config DEFAULTS = new Config("api-key-123", "jdbc:postgresql://localhost", 30);
+    }
+
+    // Points at a properties or flat JSON file to load at startup, e.g. -Dconfig.file=/etc/app/config.properties
+    static final String CONFIG_FILE_PROPERTY = "config.file";
+
+    // A config together with the version it was published under; versions only ever increase
+    public record Versioned(long version, Config config) {}
+
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
 
     // Use AtomicReference to ensure atomic updates and visibility across threads
-    private final AtomicReference<Config> configRef;
+    private final AtomicReference<Versioned> configRef;
+
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Listeners run here, never on the thread that called updateConfig
+    private final Executor notifier = Executors.newVirtualThreadPerTaskExecutor();
 
     ConfigurationManager() {
         // Load configuration
-        var initial = new Config("api-key-123", "jdbc:postgresql://localhost", 30);
-        this.configRef = new AtomicReference<>(initial);
+        this.configRef = new AtomicReference<>(new Versioned(1, loadInitial()));
+    }
+
+    // Never throws: a failure here would fail the enum's initialization, and every later use of
+    // ConfigurationManager with NoClassDefFoundError. A bad file is logged and the defaults used
+    static Config loadInitial() {
+        var file = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (file == null) {
+            return Config.DEFAULTS;
+        }
+        try {
+            return ConfigFileLoader.load(Path.of(file), Config.DEFAULTS);
+        } catch (RuntimeException e) {
+            AsyncLogSink.console().println("Cannot load " + CONFIG_FILE_PROPERTY + "=" + file + ", using defaults: " + e);
+            return Config.DEFAULTS;
+        }
     }
 
     public Config getConfig() {
+        return configRef.get().config();
+    }
+
+    public long getVersion() {
+        return configRef.get().version();
+    }
+
+    public Versioned getVersioned() {
         return configRef.get();
     }
 
     public void updateConfig(Config newConfig) {
-        configRef.set(newConfig);
+        Objects.requireNonNull(newConfig, "Config cannot be null");
+        Versioned current;
+        do {
+            current = configRef.get();
+        } while (!configRef.compareAndSet(current, new Versioned(current.version() + 1, newConfig)));
+        notifySubscribers();
+    }
+
+    // Loads the file now and republishes it whenever it changes on disk; close() stops watching
+    public ConfigFileLoader.Watcher watch(Path file) {
+        return ConfigFileLoader.watch(file, getConfig(), this::updateConfig);
+    }
+
+    // Publishes next only if the current config is still the exact instance the caller read
+    public boolean updateConfig(Config expected, Config next) {
+        Objects.requireNonNull(next, "Config cannot be null");
+        var current = configRef.get();
+        if (current.config() != expected
+                || !configRef.compareAndSet(current, new Versioned(current.version() + 1, next))) {
+            return false;
+        }
+        notifySubscribers();
+        return true;
+    }
+
+    // The listener receives the current config first, then every later change. A slow listener
+    // is only handed the newest version, so intermediate versions may be skipped but never reordered.
+    public Subscription subscribe(Consumer<? super Versioned> listener) {
+        var subscriber = new Subscriber(Objects.requireNonNull(listener, "Listener cannot be null"));
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return () -> subscribers.remove(subscriber);
+    }
+
+    // Caches fn(config) and recomputes only after a new version is published,
+    // so hot paths can skip re-parsing config on every request
+    public <T> Supplier<T> derive(Function<? super Config, ? extends T> fn) {
+        Objects.requireNonNull(fn, "Derivation cannot be null");
+        var cache = new AtomicReference<Derived<T>>();
+        return () -> {
+            var source = configRef.get();
+            var cached = cache.get();
+            if (cached != null && cached.source() == source) {
+                return cached.value();
+            }
+            T value = fn.apply(source.config());
+            cache.set(new Derived<>(source, value));
+            return value;
+        };
+    }
+
+    private void notifySubscribers() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.signal();
+        }
+    }
+
+    private record Derived<T>(Versioned source, T value) {}
+
+    private final class Subscriber {
+        private final Consumer<? super Versioned> listener;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long delivered;
+
+        Subscriber(Consumer<? super Versioned> listener) {
+            this.listener = listener;
+        }
+
+        void signal() {
+            if (scheduled.compareAndSet(false, true)) {
+                notifier.execute(this::drain);
+            }
+        }
+
+        // At most one drain per subscriber runs at a time, which keeps deliveries in version order
+        private void drain() {
+            do {
+                var latest = configRef.get();
+                if (latest.version() > delivered && subscribers.contains(this)) {
+                    delivered = latest.version();
+                    try {
+                        listener.accept(latest);
+                    } catch (RuntimeException e) {
+                        // A failing listener must not stop later deliveries
+                    }
+                }
+                scheduled.set(false);
+            } while (configRef.get().version() > delivered && scheduled.compareAndSet(false, true));
+        }
     }
 }
 
@@ -103,7 +282,12 @@ public class SingletonDemo {
         // Use the enum-based connection pool
         var pool = DatabaseConnectionPool.INSTANCE;
         System.out.println("Max connections: " + pool.getMaxConnections());
-        System.out.println("Acquired: " + pool.acquireConnection());
+        try (var connection = pool.acquireConnection()) {
+            System.out.println("Acquired: " + connection.id());
+            System.out.println("Available while held: " + pool.getAvailableConnections());
+        }
+        System.out.println("Available after release: " + pool.getAvailableConnections());
+        System.out.println("Pool stats: " + pool.getStats());
 
         var config = ConfigurationManager.INSTANCE.getConfig();
         System.out.println("OLD Config: " + config);
@@ -120,6 +304,7 @@ public class SingletonDemo {
 
         System.out.println("API Key (after): " + updated.apiKey());
         System.out.println("DB url" + updated.dbUrl());
+        System.out.println("Config version: " + ConfigurationManager.INSTANCE.getVersion());
 
     }
 }
@@ -1,11 +1,34 @@
 package com.techie.designPattern.StructuralDesign;
 
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.TimeOrderedIdGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class AdapterPatternTest {
 
+    private static String captureOutput(Runnable action) {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos, true)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
     @Test
     void stripeAdapter_processPayment_returnsStripeIdAndSuccess() {
         PaymentGateway gateway = new StripeAdapter();
@@ -43,5 +66,97 @@ public class AdapterPatternTest {
     void paymentProcessor_withNullGateway_throwsNpe() {
         assertThrows(NullPointerException.class, () -> PaymentProcessor.process(null, 10.0));
     }
-}
 
+    @Test
+    void stripeAdapter_processBatch_returnsOneResultPerRequestInOrder() {
+        PaymentGateway gateway = new StripeAdapter();
+        var requests = List.of(
+                new PaymentGateway.PaymentRequest(1.00, "USD"),
+                new PaymentGateway.PaymentRequest(2.00, "EUR"),
+                new PaymentGateway.PaymentRequest(3.00, "USD"));
+
+        var results = gateway.processBatch(requests);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(PaymentGateway.PaymentResult::success));
+        assertTrue(results.stream().allMatch(r -> r.transactionId().startsWith("stripe_")));
+        assertEquals(3, new HashSet<>(results.stream().map(PaymentGateway.PaymentResult::transactionId).toList()).size(),
+                "every payment in the batch needs its own transaction id");
+    }
+
+    @Test
+    void paypalAdapter_processBatch_fallsBackToPerItemCalls() {
+        PaymentGateway gateway = new PayPalAdapter();
+        var results = gateway.processBatch(List.of(
+                new PaymentGateway.PaymentRequest(5.00, "USD"),
+                new PaymentGateway.PaymentRequest(6.00, "USD")));
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(r -> r.message().equals("PayPal payment COMPLETED")));
+    }
+
+    @Test
+    void processBatch_emptyList_returnsEmptyResults() {
+        assertTrue(new StripeAdapter().processBatch(List.of()).isEmpty());
+        assertTrue(new RazorpayAdapter().processBatch(List.of()).isEmpty());
+    }
+
+    @Test
+    void stripeAdapter_doubleAmount_roundsToNearestCent() {
+        // (int) (0.29 * 100) used to charge 28 cents
+        var out = captureOutput(() -> new StripeAdapter().processPayment(0.29, "USD"));
+
+        assertTrue(out.contains("Stripe: Charging 29 cents"), out);
+    }
+
+    @Test
+    void stripeAdapter_amountBeyondIntCents_throwsArithmeticException() {
+        assertThrows(ArithmeticException.class,
+                () -> new StripeAdapter().processPayment(Integer.MAX_VALUE + 1L, CurrencyCode.USD));
+    }
+
+    @Test
+    void paypalAdapter_sendsCurrencyDecimals() {
+        var out = captureOutput(() -> new PayPalAdapter().processPayment(2_000, CurrencyCode.USD));
+
+        assertTrue(out.contains("PayPal: Processing 20.00 USD"), out);
+        assertEquals("0.05", PayPalAdapter.decimal(5, CurrencyCode.USD).toString());
+    }
+
+    @Test
+    void razorpayAdapter_sendsAmountInPaise() {
+        var out = captureOutput(() -> new RazorpayAdapter().processPayment("rcpt-1", 50_000, CurrencyCode.INR));
+
+        assertTrue(out.contains("amount=50000"), out);
+        assertTrue(out.contains("currency=INR"), out);
+        assertTrue(out.contains("receipt=rcpt-1"), out);
+    }
+
+    @Test
+    void orderParams_readsLikeAMap() {
+        var params = OrderParams.reuse(1_234, CurrencyCode.INR, null);
+
+        assertEquals(1_234L, params.get("amount"));
+        assertEquals("INR", params.get("currency"));
+        assertNull(params.get("receipt"));
+        assertFalse(params.containsKey("receipt"));
+        assertEquals(2, params.size());
+    }
+
+    @Test
+    void paymentRequest_fromDouble_storesMinorUnitsAndInternedCurrency() {
+        var request = new PaymentGateway.PaymentRequest(12.34, "USD");
+
+        assertEquals(1_234, request.amountMinor());
+        assertSame(CurrencyCode.USD, request.currency());
+    }
+
+    @Test
+    void adaptees_useTheInjectedIdGenerator() {
+        var ids = new TimeOrderedIdGenerator(1, () -> 1_700_000_000_000L);
+        var result = new StripeAdapter(new StripeAPI(SimulatedNetwork.NONE, ids)).processPayment(1.00, "USD");
+
+        var id = result.transactionId().substring("stripe_".length());
+        assertEquals(1_700_000_000_000L, TimeOrderedIdGenerator.timestampOf(id));
+    }
+}
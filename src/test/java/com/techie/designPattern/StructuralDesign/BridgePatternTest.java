@@ -1,20 +1,26 @@
 package com.techie.designPattern.StructuralDesign;
 
+import com.techie.designPattern.common.AsyncLogSink;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BridgePatternTest {
 
     private String captureOutput(Runnable action) {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
         PrintStream originalOut = System.out;
         var baos = new ByteArrayOutputStream();
         try (var ps = new PrintStream(baos)) {
             System.setOut(ps);
             action.run();
+            AsyncLogSink.console().flush();
         } finally {
             System.setOut(originalOut);
         }
@@ -55,6 +61,34 @@ public class BridgePatternTest {
         assertTrue(out.contains("SMS to +1111111111: ℹ️ Report ready"), "Should send informational message via SMSSender");
     }
 
+    @Test
+    void sendBulk_splitsIntoProviderSizedCalls() {
+        var recipients = new ArrayList<String>();
+        for (int i = 0; i < 250; i++) {
+            recipients.add("+1" + i);
+        }
+        String out = captureOutput(() -> new SMSSender().sendBulk("Hi", recipients));
+        assertEquals(100, new SMSSender().maxBatchSize());
+        assertEquals(3, out.split("SMS to ", -1).length - 1, "one provider call per 100 recipients");
+        assertTrue(out.contains("SMS to " + String.join(", ", recipients.subList(0, 100)) + ": Hi"));
+        assertTrue(out.contains("SMS to " + String.join(", ", recipients.subList(100, 200)) + ": Hi"));
+        assertTrue(out.contains("SMS to " + String.join(", ", recipients.subList(200, 250)) + ": Hi"));
+    }
+
+    @Test
+    void sendBulk_failedCall_throws() {
+        var failing = new PushSender(new SimulatedNetwork(0, 0, 1.0));
+        assertThrows(IllegalStateException.class, () -> failing.sendBulk("Ping", List.of("a", "b")));
+    }
+
+    @Test
+    void notifyBulk_decoratesOnce_andSendsAsOneBatch() {
+        var urgent = new UrgentNotification(new EmailSender());
+        String out = captureOutput(() -> urgent.notifyBulk("Server is down", List.of("a@example.com", "b@example.com")));
+        assertEquals(1, out.split("\\[URGENT]", -1).length - 1);
+        assertTrue(out.contains("Email to a@example.com, b@example.com: ⚠️ Server is down"));
+    }
+
     @Test
     void mainRuns_andProducesDemoOutput() {
         String out = captureOutput(() -> BridgePattern.main(new String[0]));
@@ -0,0 +1,130 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntPredicate;
+
+/**
+ * Dedup lookups over 2 million distinct (recipient, message, channel) keys: DedupCache against
+ * the obvious ConcurrentHashMap of "recipient|message|channel" to last-sent time. Reports ns and
+ * bytes allocated per lookup single-threaded, lookups per second from 8 threads, and heap retained
+ * once every key has been seen. Allocation is read from com.sun.management.ThreadMXBean.
+ * Run with: java ... DedupCacheBenchmark [distinctKeys]
+ */
+public class DedupCacheBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int CONTENDED_THREADS = 8;
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+    private static final String MESSAGE = "Server is down!";
+
+    public static void main(String[] args) throws Exception {
+        int distinct = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        var recipients = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            recipients[i] = "user-" + i + "@example.com";
+        }
+        long lookups = 5L * distinct;
+
+        // Warm-up round lets the JIT compile each path before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            concurrentMap(report, recipients, lookups);
+            dedupCache(report, recipients, lookups);
+        }
+    }
+
+    private static void concurrentMap(boolean report, String[] recipients, long lookups) throws Exception {
+        long heapBefore = usedHeap();
+        var map = new ConcurrentHashMap<String, Long>();
+        long windowNanos = WINDOW.toNanos();
+        IntPredicate viaMap = i -> {
+            String key = recipients[i] + "|" + MESSAGE + "|" + Channel.EMAIL;
+            long now = System.nanoTime();
+            Long last = map.get(key);
+            if (last != null && now - last < windowNanos) {
+                return false;
+            }
+            map.put(key, now);
+            return true;
+        };
+        measure(report, "ConcurrentHashMap<String, Long>", recipients.length, lookups, viaMap);
+        if (report) {
+            System.out.printf("  retained %,d MB for %,d keys%n", (usedHeap() - heapBefore) >> 20, map.size());
+        }
+        contended(report, "ConcurrentHashMap<String, Long>", recipients.length, lookups, viaMap);
+    }
+
+    private static void dedupCache(boolean report, String[] recipients, long lookups) throws Exception {
+        long heapBefore = usedHeap();
+        var cache = new DedupCache(4 * recipients.length, WINDOW);
+        IntPredicate viaCache = i -> cache.shouldSend(recipients[i], MESSAGE, Channel.EMAIL);
+        measure(report, "DedupCache", recipients.length, lookups, viaCache);
+        if (report) {
+            System.out.printf("  retained %,d MB for %,d slots, %,d evicted early%n",
+                    (usedHeap() - heapBefore) >> 20, cache.capacity(), cache.evictedEarly());
+        }
+        contended(report, "DedupCache", recipients.length, lookups, viaCache);
+    }
+
+    private static void measure(boolean report, String name, int distinct, long lookups, IntPredicate op) {
+        long thread = Thread.currentThread().threadId();
+        long sent = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (long n = 0; n < lookups; n++) {
+            // Stride through the keys so consecutive lookups hit different buckets
+            if (op.test((int) ((n * 7_919) % distinct))) {
+                sent++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        if (report) {
+            System.out.printf("%-32s %8.1f ns/lookup %8.1f bytes/lookup  (%,d sent)%n",
+                    name, (double) elapsed / lookups, (double) bytes / lookups, sent);
+        }
+    }
+
+    private static void contended(boolean report, String name, int distinct, long lookups, IntPredicate op)
+            throws Exception {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        long perThread = lookups / CONTENDED_THREADS;
+        for (int t = 0; t < CONTENDED_THREADS; t++) {
+            long offset = t * 104_729L;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long n = 0; n < perThread; n++) {
+                    op.test((int) (((n + offset) * 7_919) % distinct));
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (report) {
+            System.out.printf("%-32s %,14.0f lookups/s with %d threads%n",
+                    name, perThread * CONTENDED_THREADS / (elapsed / 1e9), CONTENDED_THREADS);
+        }
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,172 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeduplicatingNotificationTest {
+
+    private String captureOutput(Runnable action) {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
+    @Test
+    void notify_repeatWithinWindow_isSuppressed_andSentAgainAfterIt() {
+        var clock = new AtomicLong();
+        var cache = new DedupCache(1024, Duration.ofMinutes(5), clock::get);
+        var alert = new DeduplicatingNotification(new UrgentNotification(new EmailSender()), cache);
+
+        String first = captureOutput(() -> alert.notify("Server is down!", "ops@example.com"));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        String repeat = captureOutput(() -> alert.notify("Server is down!", "ops@example.com"));
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        String afterWindow = captureOutput(() -> alert.notify("Server is down!", "ops@example.com"));
+
+        assertTrue(first.contains("Email to ops@example.com: ⚠️ Server is down!"));
+        assertEquals("", repeat, "repeat inside the window must not be sent");
+        assertTrue(afterWindow.contains("Email to ops@example.com"), "window is measured from the last send");
+        assertEquals(2, cache.passed());
+        assertEquals(1, cache.suppressed());
+    }
+
+    @Test
+    void suppressedRepeats_doNotExtendTheWindow() {
+        var clock = new AtomicLong();
+        var cache = new DedupCache(1024, Duration.ofSeconds(10), clock::get);
+
+        assertTrue(cache.shouldSend("ops", "down", Channel.SMS));
+        for (int i = 0; i < 9; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            assertFalse(cache.shouldSend("ops", "down", Channel.SMS));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(cache.shouldSend("ops", "down", Channel.SMS), "a steady flood still gets one send per window");
+    }
+
+    @Test
+    void key_coversRecipientMessageAndChannel() {
+        var cache = new DedupCache(1024, Duration.ofMinutes(1));
+
+        assertTrue(cache.shouldSend("ops", "down", Channel.EMAIL));
+        assertTrue(cache.shouldSend("dev", "down", Channel.EMAIL));
+        assertTrue(cache.shouldSend("ops", "up", Channel.EMAIL));
+        assertTrue(cache.shouldSend("ops", "down", Channel.PUSH));
+        assertTrue(cache.shouldSend("op", "sdown", Channel.EMAIL), "recipient and message boundary is part of the key");
+        assertFalse(cache.shouldSend("ops", "down", Channel.EMAIL));
+    }
+
+    @Test
+    void notifyBulk_sendsOnlyRecipientsNotSeenInWindow() {
+        var cache = new DedupCache(1024, Duration.ofMinutes(1));
+        var digest = new DeduplicatingNotification(new RegularNotification(new SMSSender()), cache);
+        digest.notify("Report ready", "+2");
+
+        String out = captureOutput(() -> digest.notifyBulk("Report ready", List.of("+1", "+2", "+3")));
+        String repeat = captureOutput(() -> digest.notifyBulk("Report ready", List.of("+1", "+3")));
+
+        assertTrue(out.contains("SMS to +1, +3: ℹ️ Report ready"));
+        assertEquals("", repeat, "nothing left to send, so no provider call");
+        assertEquals(3, cache.suppressed());
+    }
+
+    @Test
+    void memoryStaysBounded_andOverflowIsCounted() {
+        var cache = new DedupCache(1024, Duration.ofHours(1));
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(cache.shouldSend("user-" + i, "Welcome", Channel.EMAIL));
+        }
+
+        assertEquals(1024, cache.capacity());
+        assertTrue(cache.evictedEarly() >= 100_000 - 1024, "evicted " + cache.evictedEarly());
+        assertTrue(cache.shouldSend("user-0", "Welcome", Channel.EMAIL), "the oldest keys were evicted first");
+        assertFalse(cache.shouldSend("user-99999", "Welcome", Channel.EMAIL), "recent keys are still remembered");
+    }
+
+    @Test
+    void concurrentRepeats_letExactlyOneThrough() throws Exception {
+        var cache = new DedupCache(1 << 16, Duration.ofMinutes(1));
+        var passed = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 32; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (cache.shouldSend("ops-" + i, "Server is down!", Channel.PUSH)) {
+                        passed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000, passed.get(), "each key passes once no matter how many threads race on it");
+        assertEquals(31_000, cache.suppressed());
+    }
+
+    @Test
+    void failedSend_doesNotSuppressTheRetry() {
+        var cache = new DedupCache(1024, Duration.ofMinutes(5));
+        var down = new SimulatedNetwork(0, 0, 1.0);
+        var failing = new DeduplicatingNotification(new UrgentNotification(new EmailSender(down)), cache);
+        var working = new DeduplicatingNotification(new UrgentNotification(new EmailSender()), cache);
+        var failingBulk = new DeduplicatingNotification(new RegularNotification(new SMSSender(down)), cache);
+        var workingBulk = new DeduplicatingNotification(new RegularNotification(new SMSSender()), cache);
+
+        assertThrows(IllegalStateException.class, () -> failing.notify("Server is down!", "ops@example.com"));
+        assertThrows(IllegalStateException.class, () -> failingBulk.notifyBulk("Disk full", List.of("+1", "+2")));
+        String retry = captureOutput(() -> working.notify("Server is down!", "ops@example.com"));
+        String bulkRetry = captureOutput(() -> workingBulk.notifyBulk("Disk full", List.of("+1", "+2")));
+        String repeat = captureOutput(() -> working.notify("Server is down!", "ops@example.com"));
+
+        assertTrue(retry.contains("Email to ops@example.com"), "the retry after a failed send goes out");
+        assertTrue(bulkRetry.contains("SMS to +1, +2: ℹ️ Disk full"));
+        assertEquals("", repeat, "once delivered, repeats are suppressed again");
+    }
+
+    @Test
+    void decorator_keepsDelegatePriorityAndSender() {
+        var sender = new PushSender();
+        var dedup = new DeduplicatingNotification(new UrgentNotification(sender), new DedupCache(64, Duration.ofSeconds(1)));
+
+        assertEquals(Priority.URGENT, dedup.priority());
+        assertSame(sender, dedup.sender());
+    }
+
+    @Test
+    void invalidArguments_throw() {
+        assertThrows(IllegalArgumentException.class, () -> new DedupCache(4, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new DedupCache(64, Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> new DeduplicatingNotification(null, new DedupCache(64, Duration.ofSeconds(1))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * The same push text to many recipients from 1,000 concurrent callers: one
+ * Notification.notify per recipient (one provider round trip each) against MessageCoalescer
+ * (one notifyBulk per batch). Reports messages per second and bytes allocated per message,
+ * read from com.sun.management.ThreadMXBean across all threads, since sends run on
+ * virtual threads other than the caller's.
+ * Run with: java ... MessageBatchingBenchmark [messages]
+ */
+public class MessageBatchingBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int CALLERS = 1_000;
+    private static final String MESSAGE = "Flash sale: 20% off everything until midnight";
+
+    private interface Caller {
+        void send(String recipient);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        var push = new PushSender(SimulatedNetwork.latency(2_000, 1_000));
+        var notification = new RegularNotification(push);
+        var recipients = new String[messages];
+        for (int i = 0; i < messages; i++) {
+            recipients[i] = "device-" + i;
+        }
+
+        // Senders print every call; keep the console readable while measuring
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // Warm-up round lets the JIT compile each path before measuring
+            for (int round = 0; round < 2; round++) {
+                var report = round == 1 ? console : null;
+                measure(report, "notify per recipient", recipients, r -> notification.notify(MESSAGE, r));
+                try (var coalescer = new MessageCoalescer(notification, push.maxBatchSize(), 2_000)) {
+                    measure(report, "MessageCoalescer", recipients, r -> coalescer.submit(MESSAGE, r).join());
+                    if (report != null) {
+                        report.printf("  %,d provider calls for %,d messages%n", coalescer.batchesSent(), coalescer.messagesSent());
+                    }
+                }
+            }
+        } finally {
+            AsyncLogSink.console().flush();
+            System.setOut(console);
+        }
+    }
+
+    private static void measure(PrintStream report, String name, String[] recipients, Caller caller) {
+        long bytesBefore = THREADS.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try (var callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new CompletableFuture<?>[CALLERS];
+            for (int c = 0; c < CALLERS; c++) {
+                int first = c;
+                futures[c] = CompletableFuture.runAsync(() -> {
+                    for (int i = first; i < recipients.length; i += CALLERS) {
+                        caller.send(recipients[i]);
+                    }
+                }, callers);
+            }
+            CompletableFuture.allOf(futures).join();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getTotalThreadAllocatedBytes() - bytesBefore;
+        if (report != null) {
+            report.printf("%-22s %,10.0f msgs/s %8.1f bytes/msg%n",
+                    name, recipients.length / (elapsed / 1e9), (double) bytes / recipients.length);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageCoalescerTest {
+
+    private String captureOutput(Runnable action) {
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
+    @Test
+    void submit_fullBatch_isSentAtOnce_withSharedFuture() {
+        try (var coalescer = new MessageCoalescer(new RegularNotification(new PushSender()), 10, 60_000_000)) {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(coalescer.submit("Sale starts now", "device-" + i));
+            }
+
+            // The delay is a minute, so only reaching maxBatchSize can have sent it
+            futures.get(9).orTimeout(5, TimeUnit.SECONDS).join();
+            assertSame(futures.get(0), futures.get(9), "recipients of one batch share its future");
+            assertEquals(1, coalescer.batchesSent());
+            assertEquals(10, coalescer.messagesSent());
+        }
+    }
+
+    @Test
+    void submit_partialBatch_isSentAfterMaxDelay() {
+        try (var coalescer = new MessageCoalescer(new RegularNotification(new EmailSender()), 1_000, 20_000)) {
+            long start = System.nanoTime();
+            var sent = coalescer.submit("Weekly digest", "a@example.com");
+            coalescer.submit("Weekly digest", "b@example.com");
+
+            sent.orTimeout(5, TimeUnit.SECONDS).join();
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20), "sent before the delay was up");
+            assertEquals(1, coalescer.batchesSent());
+            assertEquals(2, coalescer.messagesSent());
+        }
+    }
+
+    @Test
+    void submit_differentMessages_goInSeparateBatches() {
+        var coalescer = new MessageCoalescer(new UrgentNotification(new SMSSender()), 100, 60_000_000);
+        var outage = coalescer.submit("Outage", "+1");
+        var resolved = coalescer.submit("Resolved", "+2");
+        coalescer.submit("Outage", "+3");
+        assertNotSame(outage, resolved);
+
+        String out = captureOutput(coalescer::close);
+        assertTrue(outage.isDone() && resolved.isDone(), "close sends every open batch");
+        assertTrue(out.contains("SMS to +1, +3: ⚠️ Outage"), "each batch reaches its own recipients");
+        assertTrue(out.contains("SMS to +2: ⚠️ Resolved"));
+        assertEquals(2, coalescer.batchesSent());
+        assertEquals(3, coalescer.messagesSent());
+        assertThrows(IllegalStateException.class, () -> coalescer.submit("Late", "+4"));
+    }
+
+    @Test
+    void submit_failedProviderCall_failsTheBatchFuture() {
+        var failing = new PushSender(new SimulatedNetwork(0, 0, 1.0));
+        try (var coalescer = new MessageCoalescer(new RegularNotification(failing), 2, 1_000)) {
+            var sent = coalescer.submit("Ping", "device-1");
+            coalescer.submit("Ping", "device-2");
+
+            var thrown = assertThrows(CompletionException.class, () -> sent.orTimeout(5, TimeUnit.SECONDS).join());
+            assertInstanceOf(IllegalStateException.class, thrown.getCause());
+            assertEquals(0, coalescer.messagesSent());
+        }
+    }
+
+    @Test
+    void constructor_invalidArguments_throw() {
+        var notification = new RegularNotification(new PushSender());
+        assertThrows(IllegalArgumentException.class, () -> new MessageCoalescer(notification, 0, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new MessageCoalescer(notification, 10, -1));
+        assertThrows(NullPointerException.class, () -> new MessageCoalescer(null, 10, 1_000));
+    }
+}
@@ -0,0 +1,126 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTemplateTest {
+
+    private String captureOutput(Runnable action) {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
+    @Test
+    void render_fillsSlotsInVariableOrder_andReusesSlotForRepeatedName() {
+        var template = MessageTemplate.compile("Hi {name}, order {orderId} is ready. Thanks, {name}!");
+
+        assertEquals(List.of("name", "orderId"), template.variables());
+        assertEquals(1, template.slot("orderId"));
+        assertEquals("Hi Asha, order A-7 is ready. Thanks, Asha!",
+                template.render(new StringBuilder(), new String[] {"Asha", "A-7"}));
+    }
+
+    @Test
+    void render_doubledBraces_areLiteral() {
+        var template = MessageTemplate.compile("{{json}} {value} }}");
+
+        assertEquals(List.of("value"), template.variables());
+        assertEquals("{json} 42 }", template.render(new StringBuilder(), new String[] {"42"}));
+    }
+
+    @Test
+    void render_reusesScratch_andAppendsWithRenderTo() {
+        var template = MessageTemplate.compile("#{n}");
+        var scratch = new StringBuilder("left over");
+
+        assertEquals("#1", template.render(scratch, new String[] {"1"}));
+        template.renderTo(scratch, new String[] {"2"});
+        assertEquals("#1#2", scratch.toString());
+    }
+
+    @Test
+    void renderToByteBuffer_matchesStringUtf8() {
+        var template = MessageTemplate.compile("⚠️ {who}: {what} ✓");
+        var values = new String[] {"Zoë", "🚨 Ausfall – prüfen"};
+        var buffer = ByteBuffer.allocate(128);
+
+        template.renderTo(buffer, values);
+
+        var expected = template.render(new StringBuilder(), values).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    @Test
+    void compile_cachesByText_andPrefixIsCompiledOnce() {
+        var template = MessageTemplate.compile("Order {id} shipped");
+
+        assertSame(template, MessageTemplate.compile("Order {id} shipped"));
+        assertSame(template.withPrefix("⚠️ "), template.withPrefix("⚠️ "));
+        assertEquals("{x} Order 9 shipped", template.withPrefix("{x} ").render(new StringBuilder(), new String[] {"9"}));
+    }
+
+    @Test
+    void invalidTemplatesAndValues_throw() {
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Hi {name"));
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Hi {}"));
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Hi name}"));
+
+        var template = MessageTemplate.compile("{a}-{b}");
+        assertThrows(IllegalArgumentException.class, () -> template.render(new StringBuilder(), new String[] {"1"}));
+        assertThrows(IllegalArgumentException.class, () -> template.render(new StringBuilder(), new String[] {"1", null}));
+        assertThrows(IllegalArgumentException.class, () -> template.slot("c"));
+    }
+
+    @Test
+    void notifyEach_sendsOnePersonalizedCopyPerRecipient_withDecoration() {
+        var names = Map.of("ops@example.com", "Ops", "dev@example.com", "Dev");
+        var template = MessageTemplate.compile("{name}, {service} is down");
+        var urgent = new UrgentNotification(new EmailSender());
+
+        String out = captureOutput(() -> urgent.notifyEach(template, List.of("ops@example.com", "dev@example.com"),
+                (recipient, values) -> {
+                    values[0] = names.get(recipient);
+                    values[1] = "billing";
+                }));
+
+        assertEquals(1, out.lines().filter("[URGENT]"::equals).count(), "header once for the whole list");
+        assertTrue(out.contains("Email to ops@example.com: ⚠️ Ops, billing is down"));
+        assertTrue(out.contains("Email to dev@example.com: ⚠️ Dev, billing is down"));
+    }
+
+    @Test
+    void notifyEach_throughDedup_suppressesRecipientsWhoseCopyWasSent() {
+        var template = MessageTemplate.compile("Your code is {code}");
+        var cache = new DedupCache(1024, Duration.ofMinutes(1));
+        var dedup = new DeduplicatingNotification(new RegularNotification(new SMSSender()), cache);
+        MessageTemplate.Binder binder = (recipient, values) -> values[0] = "1234";
+        dedup.notify("Your code is 1234", "+1");
+
+        String out = captureOutput(() -> dedup.notifyEach(template, List.of("+1", "+2"), binder));
+
+        assertFalse(out.contains("SMS to +1:"));
+        assertTrue(out.contains("SMS to +2: ℹ️ Your code is 1234"));
+        assertEquals(1, cache.suppressed());
+    }
+}
@@ -0,0 +1,61 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.Money;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Bytes allocated per call by the adapters' amount conversions: the former double-based
+ * conversions next to the minor-unit ones. Allocation is read from the per-thread counter
+ * of com.sun.management.ThreadMXBean, so run it on a HotSpot JVM.
+ * Run with: java ... MoneyAllocationBenchmark [iterations]
+ */
+public class MoneyAllocationBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        double[] amounts = new double[1024];
+        long[] minors = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = 1 + i * 1.37;
+            minors[i] = Money.toMinor(amounts[i], CurrencyCode.USD);
+        }
+        int mask = amounts.length - 1;
+
+        // Warm-up round lets the JIT compile (and escape-analyse) each path before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            measure(report, "stripe  (int) (amount * 100)", iterations, i -> (int) (amounts[i & mask] * 100));
+            measure(report, "stripe  Money.toMinor", iterations,
+                    i -> Math.toIntExact(Money.toMinor(amounts[i & mask], CurrencyCode.of("USD"))));
+            measure(report, "paypal  String.valueOf(amount)", iterations, i -> String.valueOf(amounts[i & mask]).length());
+            measure(report, "paypal  Money.appendDecimal", iterations,
+                    i -> PayPalAdapter.decimal(minors[i & mask], CurrencyCode.USD).length());
+            measure(report, "rzp     Map.of(amount, currency, receipt)", iterations,
+                    i -> Map.of("amount", amounts[i & mask], "currency", "INR", "receipt", "rcpt").size());
+            measure(report, "rzp     OrderParams.reuse", iterations,
+                    i -> OrderParams.reuse(minors[i & mask], CurrencyCode.INR, "rcpt").containsKey("receipt") ? 1 : 0);
+        }
+    }
+
+    private static void measure(boolean report, String name, int iterations, IntToLongFunction op) {
+        long thread = Thread.currentThread().threadId();
+        long sink = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += op.applyAsLong(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        if (report) {
+            System.out.printf("%-42s %8.2f bytes/op %8.2f ns/op  (sink %d)%n",
+                    name, (double) bytes / iterations, (double) elapsed / iterations, sink & 1);
+        }
+    }
+}
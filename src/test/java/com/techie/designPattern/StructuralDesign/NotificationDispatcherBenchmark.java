@@ -0,0 +1,92 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.StructuralDesign.NotificationDispatcher.ChannelSettings;
+import com.techie.designPattern.StructuralDesign.NotificationDispatcher.Recipient;
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.RateLimiter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast to a million recipients across email, SMS and push, each sender a local stand-in
+ * with simulated provider latency. The serial loop (one notify per recipient, as in
+ * BridgePattern.main) is timed over a sample and extrapolated; the dispatcher runs the full
+ * list, once unthrottled and once with per-channel rate limits.
+ * Run with: java ... NotificationDispatcherBenchmark [recipients]
+ */
+public class NotificationDispatcherBenchmark {
+    private static final int SERIAL_SAMPLE = 2_000;
+    private static final int CONCURRENCY = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        var recipients = recipients(count);
+        var email = new EmailSender(SimulatedNetwork.latency(2_000, 1_000));
+        var sms = new SMSSender(SimulatedNetwork.latency(5_000, 2_000));
+        var push = new PushSender(new SimulatedNetwork(500, 500, 0.001));
+
+        // Senders print every message; keep the console readable while measuring
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long start = System.nanoTime();
+            var senders = Map.of(Channel.EMAIL, email, Channel.SMS, sms, Channel.PUSH, push);
+            for (var recipient : recipients.subList(0, SERIAL_SAMPLE)) {
+                new UrgentNotification(senders.get(recipient.channel())).notify("Server is down", recipient.address());
+            }
+            double perRecipient = (System.nanoTime() - start) / 1e9 / SERIAL_SAMPLE;
+            console.printf("serial loop        %,10.0f recipients/s  (%,d would take ~%.0f s)%n",
+                    1 / perRecipient, count, perRecipient * count);
+
+            var unlimited = Map.of(
+                    Channel.EMAIL, ChannelSettings.unlimited(email, CONCURRENCY),
+                    Channel.SMS, ChannelSettings.unlimited(sms, CONCURRENCY),
+                    Channel.PUSH, ChannelSettings.unlimited(push, CONCURRENCY));
+            // First run warms up the JIT and is not reported
+            run(null, "warm-up", unlimited, recipients.subList(0, count / 10));
+            run(console, "dispatcher", unlimited, recipients);
+
+            var limited = Map.of(
+                    Channel.EMAIL, new ChannelSettings(email, RateLimiter.perSecond(50_000, 1_000), CONCURRENCY),
+                    Channel.SMS, new ChannelSettings(sms, RateLimiter.perSecond(20_000, 100), CONCURRENCY),
+                    Channel.PUSH, ChannelSettings.unlimited(push, CONCURRENCY));
+            run(console, "rate-limited", limited, recipients);
+        } finally {
+            AsyncLogSink.console().flush();
+            System.setOut(console);
+        }
+    }
+
+    private static void run(PrintStream console, String name, Map<Channel, ChannelSettings> channels,
+                            List<Recipient> recipients) throws InterruptedException {
+        try (var dispatcher = new NotificationDispatcher(channels)) {
+            var report = dispatcher.broadcast(UrgentNotification::new, "Server is down", recipients);
+            if (console == null) {
+                return;
+            }
+            console.printf("%-18s %,10.0f recipients/s  delivered=%,d failed=%,d in %.2f s%n", name,
+                    recipients.size() / (report.elapsed().toNanos() / 1e9),
+                    report.delivered(), report.failed(), report.elapsed().toNanos() / 1e9);
+            for (var channel : report.byChannel().values()) {
+                console.printf("  %-6s %,10.0f /s  delivered=%,d failed=%,d%n", channel.channel(),
+                        (channel.delivered() + channel.failed()) / (channel.elapsed().toNanos() / 1e9),
+                        channel.delivered(), channel.failed());
+            }
+        }
+    }
+
+    // Half email, 30% push, 20% SMS
+    private static List<Recipient> recipients(int count) {
+        var recipients = new ArrayList<Recipient>(count);
+        for (int i = 0; i < count; i++) {
+            int bucket = i % 10;
+            var channel = bucket < 5 ? Channel.EMAIL : bucket < 8 ? Channel.PUSH : Channel.SMS;
+            recipients.add(new Recipient(channel, "user" + i));
+        }
+        return recipients;
+    }
+}
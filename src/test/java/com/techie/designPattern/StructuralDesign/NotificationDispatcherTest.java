@@ -0,0 +1,110 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.StructuralDesign.NotificationDispatcher.ChannelSettings;
+import com.techie.designPattern.StructuralDesign.NotificationDispatcher.Recipient;
+import com.techie.designPattern.common.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationDispatcherTest {
+
+    private static List<Recipient> recipients(Channel channel, int count) {
+        var list = new ArrayList<Recipient>();
+        for (int i = 0; i < count; i++) {
+            list.add(new Recipient(channel, channel.name().toLowerCase() + "-" + i));
+        }
+        return list;
+    }
+
+    @Test
+    void broadcast_deliversToEveryRecipient_andAggregatesPerChannel() throws Exception {
+        var channels = Map.of(
+                Channel.EMAIL, ChannelSettings.unlimited(new EmailSender(), 8),
+                Channel.SMS, ChannelSettings.unlimited(new SMSSender(), 8),
+                Channel.PUSH, ChannelSettings.unlimited(new PushSender(), 8));
+        var all = new ArrayList<Recipient>();
+        all.addAll(recipients(Channel.EMAIL, 30));
+        all.addAll(recipients(Channel.SMS, 20));
+        all.addAll(recipients(Channel.PUSH, 10));
+
+        try (var dispatcher = new NotificationDispatcher(channels)) {
+            var report = dispatcher.broadcast(UrgentNotification::new, "Server is down", all);
+
+            assertEquals(60, report.delivered());
+            assertEquals(0, report.failed());
+            assertEquals(30, report.byChannel().get(Channel.EMAIL).delivered());
+            assertEquals(20, report.byChannel().get(Channel.SMS).delivered());
+            assertEquals(10, report.byChannel().get(Channel.PUSH).delivered());
+            assertTrue(report.failureSamples().isEmpty());
+        }
+    }
+
+    @Test
+    void broadcast_runsRecipientsInParallelUpToChannelConcurrency() throws Exception {
+        var slowEmail = new EmailSender(SimulatedNetwork.latency(50_000, 0));
+        try (var dispatcher = new NotificationDispatcher(Map.of(Channel.EMAIL, ChannelSettings.unlimited(slowEmail, 50)))) {
+            var report = dispatcher.broadcast(RegularNotification::new, "Report ready", recipients(Channel.EMAIL, 100));
+
+            assertEquals(100, report.delivered());
+            // Serially this takes 5 s; 50 at a time it is two rounds of 50 ms
+            assertTrue(report.elapsed().compareTo(Duration.ofSeconds(2)) < 0, "took " + report.elapsed());
+        }
+    }
+
+    @Test
+    void broadcast_respectsChannelRateLimit_withoutSlowingOtherChannels() throws Exception {
+        var channels = Map.of(
+                Channel.SMS, new ChannelSettings(new SMSSender(), RateLimiter.perSecond(100, 1), 16),
+                Channel.PUSH, ChannelSettings.unlimited(new PushSender(), 16));
+        var all = new ArrayList<Recipient>();
+        all.addAll(recipients(Channel.SMS, 30));
+        all.addAll(recipients(Channel.PUSH, 30));
+
+        try (var dispatcher = new NotificationDispatcher(channels)) {
+            var report = dispatcher.broadcast(RegularNotification::new, "Hi", all);
+
+            assertEquals(60, report.delivered());
+            // 30 SMS at 100/s need at least 29 intervals of 10 ms
+            assertTrue(report.byChannel().get(Channel.SMS).elapsed().toMillis() >= 280,
+                    "SMS finished too fast: " + report.byChannel().get(Channel.SMS).elapsed());
+            assertTrue(report.byChannel().get(Channel.PUSH).elapsed().toMillis() < 280,
+                    "push should not wait for SMS: " + report.byChannel().get(Channel.PUSH).elapsed());
+        }
+    }
+
+    @Test
+    void broadcast_countsFailures_andUnconfiguredChannels() throws Exception {
+        var failingPush = new PushSender(new SimulatedNetwork(0, 0, 1.0));
+        var channels = Map.of(
+                Channel.EMAIL, ChannelSettings.unlimited(new EmailSender(), 4),
+                Channel.PUSH, ChannelSettings.unlimited(failingPush, 4));
+        var all = new ArrayList<Recipient>();
+        all.addAll(recipients(Channel.EMAIL, 5));
+        all.addAll(recipients(Channel.PUSH, 150));
+        all.addAll(recipients(Channel.SMS, 3));
+
+        try (var dispatcher = new NotificationDispatcher(channels)) {
+            var report = dispatcher.broadcast(UrgentNotification::new, "Alert", all);
+
+            assertEquals(5, report.delivered());
+            assertEquals(153, report.failed());
+            assertEquals(150, report.byChannel().get(Channel.PUSH).failed());
+            assertEquals(3, report.byChannel().get(Channel.SMS).failed());
+            assertEquals(100, report.failureSamples().size(), "failure samples are capped");
+            assertTrue(report.failureSamples().stream().anyMatch(f -> f.reason().equals("No sender configured for SMS")));
+        }
+    }
+
+    @Test
+    void constructor_andSettings_rejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new NotificationDispatcher(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> ChannelSettings.unlimited(new EmailSender(), 0));
+        assertThrows(NullPointerException.class, () -> new Recipient(null, "x"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationOutboxTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String FIRST_SEGMENT = "outbox-00000000000000000000.log";
+
+    @TempDir
+    Path dir;
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private String captureOutput(Action action) throws Exception {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
+    private static long segmentFiles(Path dir) throws Exception {
+        try (var files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    @Test
+    void submit_isDurable_thenDeliveredThroughTheMatchingTarget() throws Exception {
+        var urgentEmail = new UrgentNotification(new EmailSender());
+        var regularSms = new RegularNotification(new SMSSender());
+        try (var outbox = new NotificationOutbox(dir, List.of(urgentEmail, regularSms))) {
+            String out = captureOutput(() -> {
+                outbox.submit(urgentEmail, "Server is down!", "ops@example.com");
+                long last = outbox.enqueue(regularSms, "Daily report is ready.", "+1234567890");
+                assertTrue(outbox.awaitDelivered(last, TIMEOUT));
+            });
+
+            assertTrue(out.contains("Email to ops@example.com: ⚠️ Server is down!"));
+            assertTrue(out.contains("SMS to +1234567890: ℹ️ Daily report is ready."));
+            assertTrue(out.indexOf("Email to") < out.indexOf("SMS to"), "delivered in append order");
+            assertEquals(2, outbox.delivered());
+            assertEquals(0, outbox.replayed());
+            assertTrue(outbox.flushes() >= 1);
+        }
+    }
+
+    @Test
+    void crashRecovery_resendsEveryUndeliveredRecord_andIgnoresTornTail() throws Exception {
+        // The "crashed" process: records made durable, none delivered
+        long end;
+        try (var log = new OutboxLog(dir, 1 << 20, 1_000)) {
+            for (int i = 0; i < 1_000; i++) {
+                log.append(Priority.URGENT, Channel.PUSH, "device-" + i, "Server is down!");
+            }
+            end = log.append(Priority.URGENT, Channel.PUSH, "device-last", "Server is down!");
+            log.awaitDurable(end);
+        }
+        // ...and a record it was halfway through writing: a length with a body that never made it
+        try (var segment = FileChannel.open(dir.resolve(FIRST_SEGMENT), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.allocate(12).putInt(40).putInt(0xDEAD).putInt(0x0102_0304).flip(), end);
+        }
+
+        var urgentPush = new UrgentNotification(new PushSender());
+        // Opened inside the capture: replay starts as soon as the outbox exists
+        String out = captureOutput(() -> {
+            try (var outbox = new NotificationOutbox(dir, List.of(urgentPush), 1 << 20, 1_000)) {
+                assertTrue(outbox.awaitDelivered(end, TIMEOUT));
+                assertEquals(1_001, outbox.replayed());
+
+                // Appending resumes where the torn record started
+                long next = outbox.enqueue(urgentPush, "Recovered", "device-new");
+                assertTrue(outbox.awaitDelivered(next, TIMEOUT));
+                assertEquals(1_002, outbox.delivered());
+                assertEquals(0, outbox.dropped());
+            }
+        });
+
+        assertTrue(out.contains("Push notification to device-0: ⚠️ Server is down!"));
+        assertTrue(out.contains("Push notification to device-last: ⚠️ Server is down!"));
+        assertTrue(out.contains("Push notification to device-new: ⚠️ Recovered"));
+    }
+
+    @Test
+    void reopen_doesNotResendDeliveredRecords() throws Exception {
+        var regularEmail = new RegularNotification(new EmailSender());
+        try (var outbox = new NotificationOutbox(dir, List.of(regularEmail))) {
+            long last = 0;
+            for (int i = 0; i < 10; i++) {
+                last = outbox.enqueue(regularEmail, "Weekly digest", "user-" + i + "@example.com");
+            }
+            outbox.awaitDurable(last);
+            assertTrue(outbox.awaitDelivered(last, TIMEOUT));
+        }
+
+        try (var outbox = new NotificationOutbox(dir, List.of(regularEmail))) {
+            String out = captureOutput(() -> TimeUnit.MILLISECONDS.sleep(100));
+
+            assertEquals("", out);
+            assertEquals(0, outbox.replayed());
+        }
+    }
+
+    @Test
+    void failingTarget_isRetried_thenDropped_withoutBlockingLaterRecords() throws Exception {
+        var broken = new UrgentNotification(new SMSSender(new SimulatedNetwork(0, 0, 1.0)));
+        var working = new RegularNotification(new PushSender());
+        try (var outbox = new NotificationOutbox(dir, List.of(broken, working))) {
+            outbox.submit(broken, "Server is down!", "+1");
+            long last = outbox.enqueue(working, "Still here", "device-1");
+
+            assertTrue(outbox.awaitDelivered(last, TIMEOUT));
+            assertEquals(3, outbox.failedAttempts());
+            assertEquals(1, outbox.dropped());
+            assertEquals(1, outbox.delivered());
+        }
+    }
+
+    @Test
+    void segmentsRoll_andDeliveredOnesAreDeleted() throws Exception {
+        var urgentSms = new UrgentNotification(new SMSSender());
+        try (var outbox = new NotificationOutbox(dir, List.of(urgentSms), 4096, 1_000)) {
+            long last = 0;
+            for (int i = 0; i < 500; i++) {
+                last = outbox.enqueue(urgentSms, "Disk usage above 90% on node " + i, "+1555000" + i);
+            }
+            long delivered = last;
+            captureOutput(() -> assertTrue(outbox.awaitDelivered(delivered, TIMEOUT)));
+            assertEquals(500, outbox.delivered());
+
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (segmentFiles(dir) > 1 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            assertEquals(1, segmentFiles(dir), "segments behind the forced cursor are deleted");
+        }
+    }
+
+    @Test
+    void reader_roundTripsUnicodeAndLongFields() throws Exception {
+        String recipient = "x".repeat(300) + "@example.com";
+        String message = "Zahlung fehlgeschlagen – bitte prüfen 🚨";
+        try (var log = new OutboxLog(dir, 1 << 16, 1_000)) {
+            long end = log.append(Priority.REGULAR, Channel.EMAIL, recipient, message);
+            log.awaitDurable(end);
+
+            var reader = log.reader();
+            assertEquals(new OutboxLog.Entry(Priority.REGULAR, Channel.EMAIL, recipient, message), reader.next());
+            assertEquals(end, reader.position());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void invalidArguments_throw() {
+        var urgentEmail = new UrgentNotification(new EmailSender());
+        assertThrows(IllegalArgumentException.class,
+                () -> new NotificationOutbox(dir, List.of(urgentEmail, new UrgentNotification(new EmailSender()))));
+        assertThrows(IllegalArgumentException.class, () -> new OutboxLog(dir, 1024, 1_000));
+
+        try (var outbox = new NotificationOutbox(dir, List.of(urgentEmail), 4096, 1_000)) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> outbox.enqueue(new RegularNotification(new EmailSender()), "Hi", "a@example.com"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> outbox.enqueue(urgentEmail, "x".repeat(5_000), "a@example.com"));
+        }
+    }
+}
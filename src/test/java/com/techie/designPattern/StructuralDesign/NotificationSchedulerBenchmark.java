@@ -0,0 +1,114 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.StructuralDesign.NotificationScheduler.DequeuePolicy;
+import com.techie.designPattern.StructuralDesign.NotificationScheduler.LaneSettings;
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Urgent queueing delay while a deep regular backlog drains. Regular pushes are queued first,
+ * then urgent alerts trickle in; a single FIFO queue (one shared queue in front of the same
+ * workers) is compared with the scheduler's STRICT and WEIGHTED lanes.
+ * Run with: java ... NotificationSchedulerBenchmark [regularMessages]
+ */
+public class NotificationSchedulerBenchmark {
+    private static final int WORKERS = 500;
+    private static final int URGENT = 200;
+    private static final long URGENT_SPACING_MILLIS = 10;
+
+    private record Task(Notification notification, String recipient, long enqueuedNanos) {}
+
+    // Stops a FIFO worker; queued after everything else
+    private static final Task STOP = new Task(null, null, 0);
+
+    public static void main(String[] args) throws Exception {
+        int regular = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        var push = new PushSender(SimulatedNetwork.latency(1_000, 1_000));
+
+        // Senders print every message; keep the console readable while measuring
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // First run warms up the JIT and is not reported
+            scheduled(null, DequeuePolicy.WEIGHTED, push, regular / 10);
+            fifo(console, push, regular);
+            scheduled(console, DequeuePolicy.STRICT, push, regular);
+            scheduled(console, DequeuePolicy.WEIGHTED, push, regular);
+        } finally {
+            AsyncLogSink.console().flush();
+            System.setOut(console);
+        }
+    }
+
+    private static void fifo(PrintStream console, MessageSender sender, int regular) throws Exception {
+        BlockingQueue<Task> queue = new ArrayBlockingQueue<>(regular + URGENT + WORKERS);
+        var urgentWait = new LatencyHistogram();
+        var regularWait = new LatencyHistogram();
+        var workers = new ArrayList<Thread>();
+        long start = System.nanoTime();
+        for (int w = 0; w < WORKERS; w++) {
+            workers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    Task task;
+                    while ((task = queue.take()) != STOP) {
+                        var wait = task.notification().priority() == Priority.URGENT ? urgentWait : regularWait;
+                        wait.record(System.nanoTime() - task.enqueuedNanos());
+                        task.notification().notify("Message", task.recipient());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int i = 0; i < regular; i++) {
+            queue.put(new Task(new RegularNotification(sender), "device-" + i, System.nanoTime()));
+        }
+        for (int i = 0; i < URGENT; i++) {
+            queue.put(new Task(new UrgentNotification(sender), "oncall-" + i, System.nanoTime()));
+            Thread.sleep(URGENT_SPACING_MILLIS);
+        }
+        for (int w = 0; w < WORKERS; w++) {
+            queue.put(STOP);
+        }
+        for (var worker : workers) {
+            worker.join();
+        }
+        report(console, "FIFO", regular, System.nanoTime() - start, urgentWait.snapshot(), regularWait.snapshot());
+    }
+
+    private static void scheduled(PrintStream console, DequeuePolicy policy, MessageSender sender, int regular)
+            throws Exception {
+        var lanes = Map.of(
+                Priority.URGENT, new LaneSettings(10_000, 8),
+                Priority.REGULAR, new LaneSettings(regular, 1));
+        long start = System.nanoTime();
+        var scheduler = new NotificationScheduler(lanes, policy, WORKERS);
+        try (scheduler) {
+            for (int i = 0; i < regular; i++) {
+                scheduler.submit(new RegularNotification(sender), "Message", "device-" + i);
+            }
+            for (int i = 0; i < URGENT; i++) {
+                scheduler.submit(new UrgentNotification(sender), "Message", "oncall-" + i);
+                Thread.sleep(URGENT_SPACING_MILLIS);
+            }
+        }
+        if (console != null) {
+            report(console, policy.name(), regular, System.nanoTime() - start,
+                    scheduler.stats(Priority.URGENT).queueing(), scheduler.stats(Priority.REGULAR).queueing());
+        }
+    }
+
+    private static void report(PrintStream console, String name, int regular, long elapsed,
+                               LatencyHistogram.Snapshot urgent, LatencyHistogram.Snapshot regularWait) {
+        console.printf("%-9s %,9.0f msgs/s  urgent wait p50=%8.2fms p99=%8.2fms max=%8.2fms  regular wait p99=%8.2fms%n",
+                name, (regular + URGENT) / (elapsed / 1e9),
+                urgent.p50() / 1e6, urgent.p99() / 1e6, urgent.max() / 1e6, regularWait.p99() / 1e6);
+    }
+}
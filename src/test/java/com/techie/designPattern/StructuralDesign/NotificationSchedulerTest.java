@@ -0,0 +1,163 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.StructuralDesign.NotificationScheduler.DequeuePolicy;
+import com.techie.designPattern.StructuralDesign.NotificationScheduler.LaneSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationSchedulerTest {
+
+    private static PriorityLanes<String> lanes(DequeuePolicy policy, int capacity, int urgentWeight, int regularWeight) {
+        return new PriorityLanes<>(Map.of(
+                Priority.URGENT, new LaneSettings(capacity, urgentWeight),
+                Priority.REGULAR, new LaneSettings(capacity, regularWeight)), policy);
+    }
+
+    private static List<String> drain(PriorityLanes<String> lanes) {
+        var order = new ArrayList<String>();
+        String next;
+        while ((next = lanes.poll()) != null) {
+            order.add(next);
+        }
+        return order;
+    }
+
+    @Test
+    void notification_priorityFollowsAbstraction() {
+        assertEquals(Priority.URGENT, new UrgentNotification(new EmailSender()).priority());
+        assertEquals(Priority.REGULAR, new RegularNotification(new EmailSender()).priority());
+    }
+
+    @Test
+    void strictLanes_serveUrgentBeforeAnyQueuedRegular() {
+        var lanes = lanes(DequeuePolicy.STRICT, 100, 1, 1);
+        for (int i = 0; i < 5; i++) {
+            lanes.offer(Priority.REGULAR, "r" + i);
+        }
+        lanes.offer(Priority.URGENT, "u0");
+        lanes.offer(Priority.URGENT, "u1");
+
+        assertEquals(List.of("u0", "u1", "r0", "r1", "r2", "r3", "r4"), drain(lanes));
+    }
+
+    @Test
+    void weightedLanes_interleaveByWeight_andKeepFifoWithinLane() {
+        var lanes = lanes(DequeuePolicy.WEIGHTED, 100, 3, 1);
+        for (int i = 0; i < 4; i++) {
+            lanes.offer(Priority.REGULAR, "r" + i);
+        }
+        for (int i = 0; i < 7; i++) {
+            lanes.offer(Priority.URGENT, "u" + i);
+        }
+
+        assertEquals(List.of("u0", "u1", "u2", "r0", "u3", "u4", "u5", "r1", "u6", "r2", "r3"), drain(lanes));
+    }
+
+    @Test
+    void lanes_areBoundedPerPriority() {
+        var lanes = lanes(DequeuePolicy.STRICT, 2, 1, 1);
+
+        assertTrue(lanes.offer(Priority.REGULAR, "r0"));
+        assertTrue(lanes.offer(Priority.REGULAR, "r1"));
+        assertFalse(lanes.offer(Priority.REGULAR, "r2"), "regular lane is full");
+        assertTrue(lanes.offer(Priority.URGENT, "u0"), "a full regular lane must not block urgent traffic");
+        assertEquals(2, lanes.size(Priority.REGULAR));
+    }
+
+    @Test
+    void put_waitsForSpace_andCloseReleasesWaiters() throws Exception {
+        var lanes = lanes(DequeuePolicy.STRICT, 1, 1, 1);
+        lanes.offer(Priority.REGULAR, "r0");
+        var producer = Thread.ofVirtual().start(() -> {
+            try {
+                lanes.put(Priority.REGULAR, "r1");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.join(100);
+        assertTrue(producer.isAlive(), "put should wait while the lane is full");
+
+        assertEquals("r0", lanes.poll());
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertEquals(List.of("r1"), drain(lanes));
+
+        lanes.close();
+        assertNull(lanes.take(), "take returns null once closed and empty");
+        assertThrows(IllegalStateException.class, () -> lanes.offer(Priority.URGENT, "late"));
+    }
+
+    @Test
+    void scheduler_deliversEverything_andReportsPerPriority() {
+        var sender = new PushSender();
+        try (var scheduler = new NotificationScheduler(Map.of(
+                Priority.URGENT, new LaneSettings(100, 4),
+                Priority.REGULAR, new LaneSettings(100, 1)), DequeuePolicy.WEIGHTED, 4)) {
+            for (int i = 0; i < 50; i++) {
+                assertTrue(scheduler.trySubmit(new RegularNotification(sender), "Digest", "device-" + i));
+            }
+            for (int i = 0; i < 10; i++) {
+                assertTrue(scheduler.trySubmit(new UrgentNotification(sender), "Alert", "device-" + i));
+            }
+            scheduler.close();
+
+            var urgent = scheduler.stats(Priority.URGENT);
+            var regular = scheduler.stats(Priority.REGULAR);
+            assertEquals(10, urgent.delivered());
+            assertEquals(50, regular.delivered());
+            assertEquals(0, urgent.queued() + regular.queued());
+            assertEquals(10, urgent.queueing().count());
+            assertEquals(50, regular.delivery().count());
+        }
+    }
+
+    @Test
+    void scheduler_urgentWaitStaysLow_behindDeepRegularBacklog() throws Exception {
+        var sender = new PushSender(SimulatedNetwork.latency(1_000, 0));
+        try (var scheduler = NotificationScheduler.withDefaults(8)) {
+            // About 2.5 s of regular work for 8 workers at 1 ms each
+            for (int i = 0; i < 20_000; i++) {
+                scheduler.submit(new RegularNotification(sender), "Newsletter", "device-" + i);
+            }
+            for (int i = 0; i < 20; i++) {
+                scheduler.submit(new UrgentNotification(sender), "Pager", "oncall-" + i);
+                Thread.sleep(5);
+            }
+            while (scheduler.stats(Priority.URGENT).delivered() < 20) {
+                Thread.sleep(5);
+            }
+            var urgent = scheduler.stats(Priority.URGENT);
+            assertTrue(urgent.queueing().p99() < TimeUnit.MILLISECONDS.toNanos(200),
+                    "urgent p99 wait was " + urgent.queueing().p99() / 1_000_000 + " ms");
+            assertTrue(scheduler.stats(Priority.REGULAR).queued() > 0, "regular backlog should still be waiting");
+        }
+    }
+
+    @Test
+    void scheduler_failedSends_areCounted() {
+        var failing = new SMSSender(new SimulatedNetwork(0, 0, 1.0));
+        try (var scheduler = NotificationScheduler.withDefaults(2)) {
+            for (int i = 0; i < 5; i++) {
+                scheduler.trySubmit(new UrgentNotification(failing), "Alert", "+100" + i);
+            }
+            scheduler.close();
+            assertEquals(5, scheduler.stats(Priority.URGENT).failed());
+            assertEquals(0, scheduler.stats(Priority.URGENT).delivered());
+        }
+    }
+
+    @Test
+    void invalidSettings_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new LaneSettings(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LaneSettings(1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PriorityLanes<String>(Map.of(Priority.URGENT, new LaneSettings(1, 1)), DequeuePolicy.STRICT));
+        assertThrows(IllegalArgumentException.class, () -> NotificationScheduler.withDefaults(0));
+    }
+}
@@ -0,0 +1,107 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * Appends to NotificationOutbox on local disk: enqueue (mapped write, fsync left to the
+ * background group commit) from 1 and 8 platform threads, and submit (returns only once
+ * durable) from 1,000 virtual threads, which share each fsync. Reports appends per second
+ * and, for submit, appends per fsync. Delivery runs concurrently with output discarded.
+ * Run with: java ... OutboxBenchmark [appends] [directory]
+ */
+public class OutboxBenchmark {
+    private static final int CALLERS = 1_000;
+    private static final String MESSAGE = "Server is down!";
+
+    private interface Caller {
+        void append(int i) throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int appends = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        var parent = args.length > 1 ? Path.of(args[1]) : Path.of(System.getProperty("java.io.tmpdir"));
+        var recipients = new String[appends];
+        for (int i = 0; i < appends; i++) {
+            recipients[i] = "ops-" + i + "@example.com";
+        }
+        var urgentEmail = new UrgentNotification(new EmailSender());
+
+        // Senders print every delivery; keep the console readable while measuring
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // Warm-up round lets the JIT compile each path before measuring
+            for (int round = 0; round < 2; round++) {
+                var report = round == 1 ? console : null;
+                for (int threads : new int[] {1, 8}) {
+                    var dir = Files.createTempDirectory(parent, "outbox-bench");
+                    try (var outbox = new NotificationOutbox(dir, List.of(urgentEmail))) {
+                        measure(report, "enqueue, " + threads + " thread(s)", appends, threads, false,
+                                i -> outbox.enqueue(urgentEmail, MESSAGE, recipients[i]));
+                    } finally {
+                        delete(dir);
+                    }
+                }
+                var dir = Files.createTempDirectory(parent, "outbox-bench");
+                try (var outbox = new NotificationOutbox(dir, List.of(urgentEmail))) {
+                    long flushesBefore = outbox.flushes();
+                    int durable = appends / 10;
+                    measure(report, "submit, " + CALLERS + " callers", durable, CALLERS, true,
+                            i -> outbox.submit(urgentEmail, MESSAGE, recipients[i]));
+                    if (report != null) {
+                        report.printf("  %,.1f appends per fsync%n", (double) durable / (outbox.flushes() - flushesBefore));
+                    }
+                } finally {
+                    delete(dir);
+                }
+            }
+        } finally {
+            AsyncLogSink.console().flush();
+            System.setOut(console);
+        }
+    }
+
+    private static void measure(PrintStream report, String name, int appends, int threads, boolean virtual,
+                                Caller caller) {
+        long start = System.nanoTime();
+        try (var callers = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        for (int i = first; i < appends; i += threads) {
+                            caller.append(i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, callers));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (report != null) {
+            report.printf("%-24s %,12.0f appends/s%n", name, appends / (elapsed / 1e9));
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (var files = Files.walk(dir)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.techie.designPattern.StructuralDesign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentBatcherTest {
+
+    private static final PaymentGateway.PaymentRequest TEN_USD = new PaymentGateway.PaymentRequest(10.00, "USD");
+
+    @Test
+    void submit_flushesFullBatchesWithoutWaitingForTheDelay() throws Exception {
+        try (var batcher = new PaymentBatcher(new StripeAdapter(), 5, TimeUnit.SECONDS.toMicros(30), 100)) {
+            var futures = new ArrayList<CompletableFuture<PaymentGateway.PaymentResult>>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(batcher.submit(TEN_USD));
+            }
+
+            for (var future : futures) {
+                assertTrue(future.get(5, TimeUnit.SECONDS).success());
+            }
+            assertEquals(10, batcher.paymentsFlushed());
+            assertEquals(2, batcher.batchesFlushed(), "10 payments with batch size 5 should take two flushes");
+        }
+    }
+
+    @Test
+    void submit_partialBatch_isFlushedAfterMaxDelay() throws Exception {
+        try (var batcher = new PaymentBatcher(new PayPalAdapter(), 100, 2_000, 100)) {
+            var result = batcher.submit(TEN_USD).get(5, TimeUnit.SECONDS);
+
+            assertTrue(result.transactionId().startsWith("pp_"));
+            assertEquals(1, batcher.batchesFlushed());
+        }
+    }
+
+    @Test
+    void close_flushesQueuedPayments_andRejectsNewOnes() throws Exception {
+        var batcher = new PaymentBatcher(new RazorpayAdapter(), 1_000, TimeUnit.SECONDS.toMicros(30), 100);
+        var pending = batcher.submit(new PaymentGateway.PaymentRequest(500.0, "INR"));
+
+        batcher.close();
+
+        assertTrue(pending.isDone(), "close should flush what was already submitted");
+        assertTrue(pending.get().transactionId().startsWith("rzp_"));
+        assertThrows(IllegalStateException.class, () -> batcher.submit(TEN_USD));
+    }
+
+    @Test
+    void concurrentSubmitters_allPaymentsComplete() throws Exception {
+        int submitters = 16;
+        int perSubmitter = 200;
+        try (var batcher = new PaymentBatcher(new StripeAdapter(), 64, 500, 256)) {
+            var futures = new ConcurrentLinkedQueue<CompletableFuture<PaymentGateway.PaymentResult>>();
+            var threads = new ArrayList<Thread>();
+            for (int t = 0; t < submitters; t++) {
+                threads.add(Thread.ofVirtual().start(() -> {
+                    for (int i = 0; i < perSubmitter; i++) {
+                        futures.add(batcher.submit(TEN_USD));
+                    }
+                }));
+            }
+            for (var thread : threads) {
+                thread.join();
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertEquals(submitters * perSubmitter, batcher.paymentsFlushed());
+            assertTrue(batcher.batchesFlushed() < submitters * perSubmitter, "payments should have been coalesced");
+        }
+    }
+
+    @Test
+    void submitsRacingWithClose_allComplete() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            var batcher = new PaymentBatcher(new StripeAdapter(), 16, 200, 64);
+            var futures = new ConcurrentLinkedQueue<CompletableFuture<PaymentGateway.PaymentResult>>();
+            var threads = new ArrayList<Thread>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        while (true) {
+                            futures.add(batcher.submit(TEN_USD));
+                        }
+                    } catch (IllegalStateException closed) {
+                        // Expected once close() has begun
+                    }
+                }));
+            }
+            Thread.sleep(2);
+
+            batcher.close();
+            for (var thread : threads) {
+                thread.join();
+            }
+
+            for (var future : futures) {
+                // Either flushed or failed as closed, but never left pending
+                assertTrue(future.handle((result, e) -> true).get(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void constructor_invalidArguments_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentBatcher(new StripeAdapter(), 0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentBatcher(new StripeAdapter(), 10, -1, 10));
+        assertThrows(NullPointerException.class, () -> new PaymentBatcher(null, 10, 10, 10));
+    }
+}
@@ -0,0 +1,70 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end benchmark for PaymentRouter against simulated adaptees with configurable latency.
+ * Run with: java ... PaymentRouterBenchmark [payments]
+ */
+public class PaymentRouterBenchmark {
+    private static final int CLIENTS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        // Adaptees print every charge; keep the console readable while measuring
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            // First round warms up the JIT and is not reported
+            run(payments, false);
+            for (boolean hedging : new boolean[]{false, true}) {
+                console.println(run(payments, hedging));
+            }
+        } finally {
+            AsyncLogSink.console().flush();
+            System.setOut(console);
+        }
+    }
+
+    private static String run(int payments, boolean hedging) throws Exception {
+        var gateways = List.of(
+                // Fast on average but with a long tail: the case hedging is for
+                new StripeAdapter(new StripeAPI(SimulatedNetwork.latency(1_000, 20_000))),
+                new PayPalAdapter(new PayPalAPI(SimulatedNetwork.latency(8_000, 2_000))),
+                new RazorpayAdapter(new RazorpayAPI(new SimulatedNetwork(5_000, 5_000, 0.05))));
+        var latency = new LatencyHistogram();
+
+        try (var router = new PaymentRouter(gateways, hedging);
+             var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            // Closed loop: a fixed number of clients, each waiting for its payment before sending the next
+            var futures = new CompletableFuture<?>[CLIENTS];
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                futures[c] = CompletableFuture.runAsync(() -> {
+                    for (int i = client; i < payments; i += CLIENTS) {
+                        long begin = System.nanoTime();
+                        router.route("bench-" + hedging + "-" + i, new PaymentGateway.PaymentRequest(10.00, "USD")).join();
+                        latency.record(System.nanoTime() - begin);
+                    }
+                }, clients);
+            }
+            CompletableFuture.allOf(futures).join();
+            long elapsed = System.nanoTime() - start;
+
+            var snapshot = latency.snapshot();
+            return String.format("hedging=%-5s %,10.0f payments/s  p50=%6.2fms p99=%6.2fms max=%6.2fms  hedges sent=%d won=%d%n  %s",
+                    hedging, payments / (elapsed / 1e9),
+                    snapshot.p50() / 1e6, snapshot.p99() / 1e6, snapshot.max() / 1e6,
+                    router.hedgesSent(), router.hedgesWon(), router.stats());
+        }
+    }
+}
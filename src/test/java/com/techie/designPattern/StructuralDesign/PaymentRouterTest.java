@@ -0,0 +1,198 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.AsyncLogSink;
+import com.techie.designPattern.common.CurrencyCode;
+import com.techie.designPattern.common.IdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentRouterTest {
+
+    private static final PaymentGateway.PaymentRequest TEN_USD = new PaymentGateway.PaymentRequest(10.00, "USD");
+
+    private static long count(String text, String needle) {
+        return text.lines().filter(line -> line.contains(needle)).count();
+    }
+
+    private String captureOutput(ThrowingRunnable action) throws Exception {
+        // Flushed before and after, so the capture holds exactly this action's log lines
+        AsyncLogSink.console().flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos, true)) {
+            System.setOut(ps);
+            action.run();
+            AsyncLogSink.console().flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+        return baos.toString();
+    }
+
+    interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    void route_prefersTheFastestGateway() throws Exception {
+        var gateways = List.of(
+                new PayPalAdapter(new PayPalAPI(SimulatedNetwork.latency(15_000, 0))),
+                new StripeAdapter(new StripeAPI(SimulatedNetwork.latency(500, 0))));
+
+        try (var router = new PaymentRouter(gateways, false)) {
+            for (int i = 0; i < 30; i++) {
+                assertTrue(router.route("fast-" + i, TEN_USD).get(5, TimeUnit.SECONDS).success());
+            }
+            var stats = router.stats();
+            var paypal = stats.get(0);
+            var stripe = stats.get(1);
+            assertTrue(stripe.calls() > paypal.calls(), "fast gateway should take most traffic: " + stats);
+            assertTrue(stripe.ewmaMicros() < paypal.ewmaMicros());
+        }
+    }
+
+    @Test
+    void route_sameIdempotencyKey_returnsTheOriginalOutcome() throws Exception {
+        try (var router = new PaymentRouter(List.of(new StripeAdapter()), false)) {
+            var first = router.route("order-42", TEN_USD);
+            var retry = router.route("order-42", TEN_USD);
+
+            assertSame(first, retry);
+            assertEquals(first.get(5, TimeUnit.SECONDS).transactionId(), retry.get().transactionId());
+        }
+    }
+
+    @Test
+    void idempotencyWindow_forgetsKeysAWindowAfterTheyComplete() {
+        var clock = new AtomicLong();
+        var window = new IdempotencyWindow<String>(Duration.ofMinutes(10), clock::get);
+        var first = new CompletableFuture<String>();
+        var pending = new CompletableFuture<String>();
+
+        assertNull(window.claim("order-1", first));
+        assertNull(window.claim("order-2", pending));
+        first.complete("tx-1");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(9));
+        assertSame(first, window.claim("order-1", new CompletableFuture<>()), "still inside the window");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        var reused = new CompletableFuture<String>();
+
+        assertNull(window.claim("order-1", reused), "a window after completing, the key is free again");
+        assertSame(pending, window.claim("order-2", new CompletableFuture<>()), "in-flight keys are never dropped");
+        assertEquals(2, window.size());
+    }
+
+    @Test
+    void route_decliningGateway_failsOverAndIsEjected() throws Exception {
+        // A tripped breaker declines without calling Razorpay, so nothing can have been charged there
+        var razorpay = new ResilientGateway(new RazorpayAdapter(new RazorpayAPI(new SimulatedNetwork(0, 0, 1.0))),
+                new ResilientGateway.Settings(1, 1, 0.5, 1.0, Duration.ofMinutes(1), Duration.ofMinutes(1), 1, 8));
+        assertThrows(IllegalStateException.class, () -> razorpay.processPayment(1_000, CurrencyCode.USD));
+        var gateways = List.of(
+                razorpay,
+                // Slower than a failing call even on a cold JVM, so Razorpay stays first choice until ejected
+                new StripeAdapter(new StripeAPI(SimulatedNetwork.latency(20_000, 0))));
+
+        try (var router = new PaymentRouter(gateways, false)) {
+            for (int i = 0; i < 5; i++) {
+                var result = router.route("failover-" + i, TEN_USD).get(5, TimeUnit.SECONDS);
+                assertTrue(result.success());
+                assertTrue(result.transactionId().startsWith("stripe_"), "should fail over to Stripe");
+            }
+            var declining = router.stats().get(0);
+            assertTrue(declining.failures() >= 1);
+            assertFalse(declining.healthy(), "repeated declines should eject the gateway: " + declining);
+        }
+    }
+
+    @Test
+    void route_allGatewaysFailing_completesWithFailedResult() throws Exception {
+        var gateways = List.of(new StripeAdapter(new StripeAPI(new SimulatedNetwork(0, 0, 1.0))));
+
+        try (var router = new PaymentRouter(gateways, false)) {
+            var result = router.route("doomed", TEN_USD).get(5, TimeUnit.SECONDS);
+            assertFalse(result.success());
+            assertTrue(result.message().startsWith("Outcome unknown"), result.message());
+            assertEquals(1 + PaymentRouter.MAX_UNKNOWN_RETRIES, router.stats().get(0).calls());
+        }
+    }
+
+    @Test
+    void route_gatewayThrowingAfterCharging_isRetriedThere_neverFailedOver() throws Exception {
+        var charges = new AtomicLong();
+        // The charge goes through, then the response is lost on the first call
+        IdGenerator lostFirstResponse = new IdGenerator() {
+            @Override
+            public int length() {
+                return 4;
+            }
+
+            @Override
+            public int next(byte[] out, int offset) {
+                if (charges.getAndIncrement() == 0) {
+                    throw new IllegalStateException("Connection reset after charging");
+                }
+                out[offset] = out[offset + 1] = out[offset + 2] = out[offset + 3] = '1';
+                return 4;
+            }
+
+            @Override
+            public int next(char[] out, int offset) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        var gateways = List.of(
+                new StripeAdapter(new StripeAPI(SimulatedNetwork.NONE, lostFirstResponse)),
+                new PayPalAdapter(new PayPalAPI()));
+
+        var out = captureOutput(() -> {
+            try (var router = new PaymentRouter(gateways, false)) {
+                var result = router.route("order-7", TEN_USD).get(5, TimeUnit.SECONDS);
+                assertTrue(result.success());
+                assertTrue(result.transactionId().startsWith("stripe_"), "retried on Stripe with the same key");
+            }
+        });
+
+        assertEquals(0, count(out, "PayPal: Processing"), "another gateway must never be charged for an unknown outcome");
+    }
+
+    @Test
+    void hedging_sendsDuplicates_butSettlesEachPaymentOnce() throws Exception {
+        int payments = 200;
+        // Mostly fast, occasionally very slow: p95 hedges should fire
+        var stripe = new StripeAdapter(new StripeAPI(SimulatedNetwork.latency(200, 10_000)));
+
+        var out = captureOutput(() -> {
+            try (var router = new PaymentRouter(List.of(stripe), true)) {
+                var futures = new ArrayList<CompletableFuture<PaymentGateway.PaymentResult>>();
+                for (int i = 0; i < payments; i++) {
+                    futures.add(router.route("hedge-" + i, TEN_USD));
+                    if (i < 40) {
+                        futures.get(i).get(5, TimeUnit.SECONDS); // warm up the latency histogram
+                    }
+                }
+                for (var future : futures) {
+                    assertTrue(future.get(10, TimeUnit.SECONDS).success());
+                }
+                assertTrue(router.hedgesSent() > 0, "slow tail should trigger hedges");
+            }
+        });
+
+        assertEquals(payments, count(out, "Stripe: Charging"), "hedged payments must settle exactly once");
+    }
+
+    @Test
+    void constructor_noGateways_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRouter(List.of(), true));
+    }
+}
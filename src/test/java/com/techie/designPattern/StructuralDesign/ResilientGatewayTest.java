@@ -0,0 +1,157 @@
+package com.techie.designPattern.StructuralDesign;
+
+import com.techie.designPattern.common.CurrencyCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResilientGatewayTest {
+
+    private static ResilientGateway.Settings settings(Duration slowCall, Duration open, int maxConcurrent) {
+        return new ResilientGateway.Settings(10, 5, 0.5, 0.5, slowCall, open, 2, maxConcurrent);
+    }
+
+    private static ResilientGateway failing(Duration open) {
+        var gateway = new StripeAdapter(new StripeAPI(new SimulatedNetwork(0, 0, 1.0)));
+        return new ResilientGateway(gateway, settings(Duration.ofSeconds(5), open, 10));
+    }
+
+    private static void callIgnoringFailure(PaymentGateway gateway) {
+        try {
+            gateway.processPayment(1.00, "USD");
+        } catch (IllegalStateException expected) {
+            // simulated failure
+        }
+    }
+
+    @Test
+    void healthyGateway_staysClosed_andDelegates() {
+        var gateway = new ResilientGateway(new StripeAdapter());
+        var result = gateway.processPayment(12.34, "USD");
+
+        assertTrue(result.success());
+        assertTrue(result.transactionId().startsWith("stripe_"));
+        assertEquals(CircuitBreaker.State.CLOSED, gateway.metrics().state());
+        assertEquals(0, gateway.metrics().inFlight());
+    }
+
+    @Test
+    void highErrorRate_opensCircuit_andRejectsWithoutCallingDelegate() {
+        var gateway = failing(Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            callIgnoringFailure(gateway);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, gateway.metrics().state());
+        assertEquals(1, gateway.metrics().opened());
+
+        var rejected = gateway.processPayment(1.00, "USD");
+        var rejectedAgain = gateway.processPayment(2.00, "USD");
+        assertFalse(rejected.success());
+        assertTrue(rejected.message().startsWith("Circuit open"));
+        assertSame(rejected, rejectedAgain, "rejections should reuse one pre-built result");
+        assertEquals(2, gateway.metrics().breakerRejections());
+    }
+
+    @Test
+    void slowCalls_openCircuit() {
+        var slow = new PayPalAdapter(new PayPalAPI(SimulatedNetwork.latency(3_000, 0)));
+        var gateway = new ResilientGateway(slow, settings(Duration.ofMillis(1), Duration.ofMinutes(1), 10));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(gateway.processPayment(1.00, "USD").success());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, gateway.metrics().state());
+    }
+
+    @Test
+    void openCircuit_halfOpensAfterWait_andClosesOnSuccessfulTrials() throws Exception {
+        var breaker = new CircuitBreaker(settings(Duration.ofSeconds(5), Duration.ofMillis(20), 10));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(0, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire(), "first call after the wait is a trial");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only the configured number of trial calls are let through");
+        breaker.record(0, true);
+        breaker.record(0, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(1, breaker.opened.get());
+        assertEquals(1, breaker.halfOpened.get());
+        assertEquals(1, breaker.closed.get());
+        assertTrue(breaker.tryAcquire(), "a closed breaker starts from an empty window");
+    }
+
+    @Test
+    void failedTrial_reopensCircuit() throws Exception {
+        var gateway = failing(Duration.ofMillis(20));
+        for (int i = 0; i < 5; i++) {
+            callIgnoringFailure(gateway);
+        }
+        Thread.sleep(30);
+
+        callIgnoringFailure(gateway);
+
+        var metrics = gateway.metrics();
+        assertEquals(CircuitBreaker.State.OPEN, metrics.state());
+        assertEquals(2, metrics.opened());
+        assertEquals(1, metrics.halfOpened());
+    }
+
+    @Test
+    void bulkhead_rejectsCallsBeyondConcurrencyLimit() throws Exception {
+        var slow = new PayPalAdapter(new PayPalAPI(SimulatedNetwork.latency(200_000, 0)));
+        var gateway = new ResilientGateway(slow, settings(Duration.ofSeconds(5), Duration.ofMinutes(1), 1));
+        var started = new CountDownLatch(1);
+        var holder = Thread.ofVirtual().start(() -> {
+            started.countDown();
+            gateway.processPayment(1.00, "USD");
+        });
+        started.await();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gateway.metrics().inFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        var rejected = gateway.processPayment(2.00, "USD");
+
+        assertFalse(rejected.success());
+        assertTrue(rejected.message().startsWith("Too many concurrent calls"));
+        assertEquals(1, gateway.metrics().bulkheadRejections());
+        holder.join();
+        assertEquals(0, gateway.metrics().inFlight());
+    }
+
+    @Test
+    void processBatch_whenOpen_rejectsEveryItem() {
+        var gateway = failing(Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            callIgnoringFailure(gateway);
+        }
+
+        var results = gateway.processBatch(List.of(
+                new PaymentGateway.PaymentRequest(1.00, "USD"),
+                new PaymentGateway.PaymentRequest(2.00, "USD")));
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().noneMatch(PaymentGateway.PaymentResult::success));
+    }
+
+    @Test
+    void paymentProcessor_acceptsWrappedGateways() {
+        assertDoesNotThrow(() -> PaymentProcessor.process(new ResilientGateway(new RazorpayAdapter()), 100.0));
+        assertSame(CurrencyCode.INR, PaymentProcessor.currencyOf(new ResilientGateway(new RazorpayAdapter())));
+    }
+}
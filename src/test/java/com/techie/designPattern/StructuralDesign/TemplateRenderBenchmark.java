@@ -0,0 +1,79 @@
+package com.techie.designPattern.StructuralDesign;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * A million personalized copies of one shipping notice: string concatenation and
+ * String.format (how messages were built before) against MessageTemplate rendered into a
+ * reused StringBuilder (output String only) and into a reused ByteBuffer (no allocation).
+ * Reports ns and bytes allocated per message from com.sun.management.ThreadMXBean.
+ * Concatenation stays the fastest way to build a String; for text outside Latin-1 (the emoji
+ * here) StringBuilder.toString also tries a Latin-1 copy first, so it allocates somewhat more
+ * than the output. Rendering into a ByteBuffer for the wire allocates nothing at all.
+ * Run with: java ... TemplateRenderBenchmark [messages]
+ */
+public class TemplateRenderBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String SOURCE = "⚠️ Hi {name}, order {orderId} ships on {date}. Track it at {url}";
+
+    public static void main(String[] args) {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        var names = new String[1024];
+        var orders = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Customer " + i;
+            orders[i] = "A-" + (100_000 + i);
+        }
+        int mask = names.length - 1;
+        var template = MessageTemplate.compile(SOURCE);
+        int name = template.slot("name");
+        int order = template.slot("orderId");
+        var values = new String[template.variables().size()];
+        values[template.slot("date")] = "2026-10-20";
+        values[template.slot("url")] = "https://example.com/t";
+        var scratch = new StringBuilder(256);
+        var bytes = ByteBuffer.allocate(256);
+
+        // Warm-up round lets the JIT compile each path before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            measure(report, "concatenation", messages,
+                    i -> ("⚠️ " + "Hi " + names[i & mask] + ", order " + orders[i & mask] + " ships on "
+                            + "2026-10-20" + ". Track it at " + "https://example.com/t").length());
+            measure(report, "String.format", messages,
+                    i -> String.format("⚠️ Hi %s, order %s ships on %s. Track it at %s",
+                            names[i & mask], orders[i & mask], "2026-10-20", "https://example.com/t").length());
+            measure(report, "MessageTemplate -> String", messages, i -> {
+                values[name] = names[i & mask];
+                values[order] = orders[i & mask];
+                return template.render(scratch, values).length();
+            });
+            measure(report, "MessageTemplate -> ByteBuffer", messages, i -> {
+                values[name] = names[i & mask];
+                values[order] = orders[i & mask];
+                bytes.clear();
+                template.renderTo(bytes, values);
+                return bytes.position();
+            });
+        }
+    }
+
+    private static void measure(boolean report, String label, int messages, IntToLongFunction op) {
+        long thread = Thread.currentThread().threadId();
+        long sink = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            sink += op.applyAsLong(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        if (report) {
+            System.out.printf("%-30s %8.1f ns/msg %8.1f bytes/msg  (sink %d)%n",
+                    label, (double) elapsed / messages, (double) allocated / messages, sink & 1);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.techie.designPattern.common;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Multi-threaded logging throughput: a PrintStream over a buffered file (what System.out is when
+ * redirected to a file) against AsyncLogSink on a FileChannel. Reports how fast the producing
+ * threads get their lines accepted and the end-to-end rate once everything is on disk.
+ * Run with: java ... AsyncLogBenchmark [linesPerThread]
+ */
+public class AsyncLogBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws Exception {
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        var dir = Files.createTempDirectory("async-log-bench");
+
+        // First pass warms up the JIT and is not reported
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            for (int threads : THREAD_COUNTS) {
+                var syncFile = dir.resolve("sync-" + threads + ".log");
+                try (var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(syncFile.toFile()), 8192))) {
+                    long[] nanos = run(threads, perThread, out::println);
+                    out.flush();
+                    print(report, "PrintStream.println", threads, perThread, nanos[0], System.nanoTime() - nanos[1]);
+                }
+
+                var asyncFile = dir.resolve("async-" + threads + ".log");
+                try (var sink = AsyncLogSink.open(asyncFile, 1 << 16, AsyncLogSink.OverflowPolicy.BLOCK)) {
+                    long[] nanos = run(threads, perThread, sink::println);
+                    sink.flush();
+                    print(report, "AsyncLogSink.println", threads, perThread, nanos[0], System.nanoTime() - nanos[1]);
+                }
+                Files.delete(syncFile);
+                Files.delete(asyncFile);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    // Returns {time until every producer returned, start timestamp}
+    private static long[] run(int threads, int perThread, Consumer<String> log) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            var prefix = "Stripe: Charging thread-" + t + " ";
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    log.accept(prefix + i + " cents");
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        return new long[]{System.nanoTime() - begin, begin};
+    }
+
+    private static void print(boolean report, String name, int threads, int perThread, long producerNanos, long totalNanos) {
+        if (report) {
+            double lines = (double) threads * perThread;
+            System.out.printf("%-22s threads=%-3d accepted %,12.0f lines/s   written %,12.0f lines/s%n",
+                    name, threads, lines / (producerNanos / 1e9), lines / (totalNanos / 1e9));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLogSinkTest {
+
+    @TempDir
+    Path dir;
+
+    // Holds every write until released, so the ring can be filled deterministically
+    private static final class GatedChannel implements WritableByteChannel {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch firstWrite = new CountDownLatch(1);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean open = true;
+
+        @Override
+        public int write(ByteBuffer src) {
+            firstWrite.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int n = src.remaining();
+            var chunk = new byte[n];
+            src.get(chunk);
+            bytes.writeBytes(chunk);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    @Test
+    void fileSink_writesEveryLineFromEveryThread_inPerThreadOrder() throws Exception {
+        var file = dir.resolve("app.log");
+        int threads = 16;
+        int perThread = 5_000;
+        try (var sink = AsyncLogSink.open(file, 1 << 10, AsyncLogSink.OverflowPolicy.BLOCK);
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        sink.println("t" + thread + " " + i);
+                    }
+                });
+            }
+            executor.close();
+            sink.flush();
+            assertEquals((long) threads * perThread, sink.written());
+            assertEquals(0, sink.dropped());
+        }
+
+        var lines = Files.readAllLines(file);
+        assertEquals(threads * perThread, lines.size());
+        var next = new int[threads];
+        for (var line : lines) {
+            var parts = line.split(" ");
+            int thread = Integer.parseInt(parts[0].substring(1));
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]), "lines of one thread stay in order");
+        }
+    }
+
+    @Test
+    void dropPolicy_dropsWhenRingIsFull_withoutBlockingTheCaller() throws Exception {
+        var channel = new GatedChannel();
+        try (var sink = AsyncLogSink.open(channel, 4, AsyncLogSink.OverflowPolicy.DROP)) {
+            assertTrue(sink.println("first"));
+            assertTrue(channel.firstWrite.await(5, TimeUnit.SECONDS), "writer should be stuck in the first write");
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (sink.println("line " + i)) {
+                    accepted++;
+                }
+            }
+
+            assertEquals(4, accepted, "only the ring's capacity fits while the writer is stuck");
+            assertEquals(6, sink.dropped());
+            channel.gate.countDown();
+            sink.flush();
+        }
+        var text = channel.bytes.toString();
+        assertTrue(text.startsWith("first" + System.lineSeparator() + "line 0"), text);
+        assertFalse(text.contains("line 4"));
+    }
+
+    @Test
+    void blockPolicy_waitsForRoom_andLosesNothing() throws Exception {
+        var channel = new GatedChannel();
+        var finished = new AtomicBoolean();
+        try (var sink = AsyncLogSink.open(channel, 4, AsyncLogSink.OverflowPolicy.BLOCK)) {
+            sink.println("first");
+            assertTrue(channel.firstWrite.await(5, TimeUnit.SECONDS));
+            var producer = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 10; i++) {
+                    sink.println("line " + i);
+                }
+                finished.set(true);
+            });
+            Thread.sleep(100);
+            assertFalse(finished.get(), "producer should be waiting for room in the ring");
+
+            channel.gate.countDown();
+            producer.join(5_000);
+            assertTrue(finished.get());
+            sink.flush();
+            assertEquals(0, sink.dropped());
+            assertEquals(11, sink.written());
+        }
+        assertEquals(11, channel.bytes.toString().lines().count());
+    }
+
+    @Test
+    void console_followsSystemSetOut() {
+        var console = AsyncLogSink.console();
+        console.flush();
+        PrintStream originalOut = System.out;
+        var baos = new ByteArrayOutputStream();
+        try (var ps = new PrintStream(baos, true)) {
+            System.setOut(ps);
+            console.println("redirected ⚠️ line");
+            console.flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals("redirected ⚠️ line" + System.lineSeparator(), baos.toString());
+    }
+
+    @Test
+    void longLine_largerThanBatchBuffer_isWrittenWhole() throws Exception {
+        var file = dir.resolve("long.log");
+        var line = "x".repeat(200_000);
+        try (var sink = AsyncLogSink.open(file, 8, AsyncLogSink.OverflowPolicy.BLOCK)) {
+            sink.println(line);
+        }
+
+        assertEquals(List.of(line), Files.readAllLines(file));
+    }
+
+    @Test
+    void closedSink_rejectsLines_andInvalidCapacityIsRefused() throws Exception {
+        var sink = AsyncLogSink.open(dir.resolve("closed.log"), 8, AsyncLogSink.OverflowPolicy.BLOCK);
+        sink.close();
+
+        assertFalse(sink.println("too late"));
+        assertEquals(1, sink.dropped());
+        assertThrows(IllegalArgumentException.class,
+                () -> AsyncLogSink.open(dir.resolve("bad.log"), 3, AsyncLogSink.OverflowPolicy.DROP));
+        assertThrows(NullPointerException.class, () -> {
+            try (var other = AsyncLogSink.open(dir.resolve("npe.log"), 8, AsyncLogSink.OverflowPolicy.DROP)) {
+                other.println(null);
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CurrencyCodeTest {
+
+    @Test
+    void of_returnsInternedInstance() {
+        assertSame(CurrencyCode.USD, CurrencyCode.of("USD"));
+        assertSame(CurrencyCode.of("CHF"), CurrencyCode.of(new String("CHF")));
+    }
+
+    @Test
+    void minorDigits_comeFromIso4217() {
+        assertEquals(2, CurrencyCode.USD.minorDigits());
+        assertEquals(100, CurrencyCode.INR.minorPerMajor());
+        assertEquals(0, CurrencyCode.JPY.minorDigits());
+        assertEquals(1, CurrencyCode.JPY.minorPerMajor());
+        assertEquals(3, CurrencyCode.of("KWD").minorDigits());
+    }
+
+    @Test
+    void of_unknownCode_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCode.of("XYZ1"));
+        assertThrows(NullPointerException.class, () -> CurrencyCode.of(null));
+    }
+}
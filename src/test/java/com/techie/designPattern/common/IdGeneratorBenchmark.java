@@ -0,0 +1,86 @@
+package com.techie.designPattern.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Transaction id generation: "prefix" + UUID.randomUUID() (the previous approach) against
+ * TimeOrderedIdGenerator, single-threaded (ns and bytes per id) and with 32 threads
+ * generating at once (ids per second). Allocation is read from com.sun.management.ThreadMXBean.
+ * Run with: java ... IdGeneratorBenchmark [idsPerThread]
+ */
+public class IdGeneratorBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int CONTENDED_THREADS = 32;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        var timeOrdered = IdGenerator.timeOrdered();
+        var buffer = new byte[32];
+
+        // Warm-up round lets the JIT compile each path before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            measure(report, "\"stripe_\" + UUID.randomUUID()", iterations, i -> ("stripe_" + UUID.randomUUID()).length());
+            measure(report, "timeOrdered().next(\"stripe_\")", iterations, i -> timeOrdered.next("stripe_").length());
+            measure(report, "timeOrdered().next(byte[], 0)", iterations, i -> timeOrdered.next(buffer, 0) + buffer[25]);
+        }
+        System.out.printf("%n%d threads:%n", CONTENDED_THREADS);
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            contended(report, "\"stripe_\" + UUID.randomUUID()", iterations, i -> ("stripe_" + UUID.randomUUID()).length());
+            contended(report, "timeOrdered().next(\"stripe_\")", iterations, i -> timeOrdered.next("stripe_").length());
+        }
+    }
+
+    private static void measure(boolean report, String name, int iterations, IntToLongFunction op) {
+        long thread = Thread.currentThread().threadId();
+        long sink = 0;
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += op.applyAsLong(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        if (report) {
+            System.out.printf("%-34s %8.1f ns/id %8.1f bytes/id  (sink %d)%n",
+                    name, (double) elapsed / iterations, (double) bytes / iterations, sink & 1);
+        }
+    }
+
+    private static void contended(boolean report, String name, int perThread, IntToLongFunction op) throws Exception {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < CONTENDED_THREADS; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long sink = 0;
+                for (int i = 0; i < perThread; i++) {
+                    sink += op.applyAsLong(i);
+                }
+                if (sink == 42) {
+                    System.out.print("");
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (report) {
+            System.out.printf("%-34s %,14.0f ids/s%n", name, (double) perThread * CONTENDED_THREADS / (elapsed / 1e9));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdGeneratorTest {
+
+    @Test
+    void randomUuid_writesRfc4122Ids() {
+        var ids = IdGenerator.randomUuid();
+        var bytes = new byte[36];
+        var chars = new char[36];
+
+        assertEquals(36, ids.next(bytes, 0));
+        assertEquals(36, ids.next(chars, 0));
+
+        assertDoesNotThrow(() -> UUID.fromString(new String(bytes, StandardCharsets.US_ASCII)));
+        assertDoesNotThrow(() -> UUID.fromString(new String(chars)));
+        assertTrue(ids.next("pp_").startsWith("pp_"));
+    }
+
+    @Test
+    void defaultNextWithPrefix_buildsOneAsciiString() {
+        IdGenerator fixed = new IdGenerator() {
+            @Override
+            public int length() {
+                return 3;
+            }
+
+            @Override
+            public int next(byte[] out, int offset) {
+                out[offset] = 'a';
+                out[offset + 1] = 'b';
+                out[offset + 2] = 'c';
+                return 3;
+            }
+
+            @Override
+            public int next(char[] out, int offset) {
+                "abc".getChars(0, 3, out, offset);
+                return 3;
+            }
+        };
+
+        assertEquals("rzp_abc", fixed.next("rzp_"));
+        assertEquals("abc", fixed.next(""));
+    }
+}
@@ -0,0 +1,76 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogram_returnsEmptySnapshot() {
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, new LatencyHistogram().snapshot());
+    }
+
+    @Test
+    void smallValues_areRecordedExactly() {
+        var histogram = new LatencyHistogram();
+        for (int v = 0; v < 8; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(8, histogram.count());
+        assertEquals(3, histogram.percentile(0.5));
+        assertEquals(7, histogram.snapshot().max());
+    }
+
+    @Test
+    void percentiles_stayWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1_000);
+        }
+
+        var snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.count());
+        assertWithin(50_000_000L, snapshot.p50());
+        assertWithin(90_000_000L, snapshot.p90());
+        assertWithin(99_000_000L, snapshot.p99());
+        assertEquals(100_000_000L, snapshot.max());
+        assertEquals(50_000_500L, snapshot.mean());
+    }
+
+    @Test
+    void bucketBoundaries_areContiguous() {
+        for (long v = 0; v < 100_000; v++) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            assertTrue(v <= LatencyHistogram.upperBoundOf(bucket), "value above its bucket bound: " + v);
+            if (bucket > 0) {
+                assertTrue(v > LatencyHistogram.upperBoundOf(bucket - 1), "value below its bucket: " + v);
+            }
+        }
+        assertTrue(LatencyHistogram.bucketOf(Long.MAX_VALUE) >= 0);
+    }
+
+    @Test
+    void negativeValues_areClampedToZero() {
+        var histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.snapshot().max());
+    }
+
+    @Test
+    void reset_clearsAllCounts() {
+        var histogram = new LatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8,
+                () -> "expected ~" + expected + " (within 12.5%) but was " + actual);
+    }
+}
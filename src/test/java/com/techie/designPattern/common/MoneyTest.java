@@ -0,0 +1,62 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void toMinor_roundsToNearestMinorUnit() {
+        // (int) (0.29 * 100) truncates to 28
+        assertEquals(29, Money.toMinor(0.29, CurrencyCode.USD));
+        assertEquals(1_050, Money.toMinor(10.50, CurrencyCode.USD));
+        assertEquals(-1_999, Money.toMinor(-19.99, CurrencyCode.USD));
+        assertEquals(500, Money.toMinor(499.6, CurrencyCode.JPY));
+    }
+
+    @Test
+    void toMinor_nonFiniteOrHugeAmount_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.NaN, CurrencyCode.USD));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(Double.POSITIVE_INFINITY, CurrencyCode.USD));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinor(1e16, CurrencyCode.USD));
+    }
+
+    @Test
+    void format_writesCurrencyDecimals() {
+        assertEquals("10.50", Money.format(1_050, CurrencyCode.USD));
+        assertEquals("0.07", Money.format(7, CurrencyCode.INR));
+        assertEquals("-0.07", Money.format(-7, CurrencyCode.USD));
+        assertEquals("-12.05", Money.format(-1_205, CurrencyCode.EUR));
+        assertEquals("500", Money.format(500, CurrencyCode.JPY));
+        assertEquals("1.005", Money.format(1_005, CurrencyCode.of("BHD")));
+    }
+
+    @Test
+    void appendDecimal_reusesCallerBuffer() {
+        var buffer = new StringBuilder("amount=");
+
+        assertSame(buffer, Money.appendDecimal(buffer, 123_456, CurrencyCode.USD));
+        assertEquals("amount=1234.56", buffer.toString());
+    }
+
+    @Test
+    void parse_roundTripsFormat() {
+        assertEquals(1_050, Money.parse("10.5", CurrencyCode.USD));
+        assertEquals(1_050, Money.parse("10.50", CurrencyCode.USD));
+        assertEquals(-7, Money.parse("-0.07", CurrencyCode.USD));
+        assertEquals(1_200, Money.parse("12", CurrencyCode.USD));
+        assertEquals(500, Money.parse("500", CurrencyCode.JPY));
+        for (long minor : new long[]{0, 1, 99, 100, -1, 123_456_789}) {
+            assertEquals(minor, Money.parse(Money.format(minor, CurrencyCode.USD), CurrencyCode.USD));
+        }
+    }
+
+    @Test
+    void parse_invalidText_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("", CurrencyCode.USD));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1.234", CurrencyCode.USD));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1,00", CurrencyCode.USD));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("5.5", CurrencyCode.JPY));
+    }
+}
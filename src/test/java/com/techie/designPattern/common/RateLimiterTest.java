@@ -0,0 +1,56 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    @Test
+    void tryAcquire_allowsBurst_thenRefuses() {
+        var limiter = RateLimiter.perSecond(1, 3);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(), "burst of 3 is used up and the next permit is a second away");
+    }
+
+    @Test
+    void acquire_pacesCallersToTheRate() throws Exception {
+        var limiter = RateLimiter.perSecond(200, 1);
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                executor.submit(() -> {
+                    limiter.acquire();
+                    return null;
+                });
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 50 permits at 200/s: the last one is due after 49 intervals of 5 ms
+        assertTrue(elapsedMillis >= 240, "finished too fast: " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis < 2_000, "finished too slowly: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void unlimited_neverWaits() throws Exception {
+        var limiter = RateLimiter.unlimited();
+        for (int i = 0; i < 1_000_000; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.acquire();
+    }
+
+    @Test
+    void perSecond_invalidArguments_throwIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(10, 0));
+    }
+}
@@ -0,0 +1,163 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private static final long COUNTER_MASK = (1L << 40) - 1;
+
+    private static long nodeOf(long high, long low) {
+        return (high & 0xFFFF) << 24 | low >>> 40;
+    }
+
+    @Test
+    void next_writesSameFormatIntoByteAndCharBuffers() {
+        var ids = new TimeOrderedIdGenerator(7);
+        var bytes = new byte[30];
+        var chars = new char[30];
+
+        assertEquals(26, ids.next(bytes, 4));
+        assertEquals(26, ids.next(chars, 0));
+
+        var fromBytes = new String(bytes, 4, 26, StandardCharsets.US_ASCII);
+        var fromChars = new String(chars, 0, 26);
+        assertTrue(fromBytes.matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"), fromBytes);
+        assertTrue(fromBytes.compareTo(fromChars) < 0, "ids from one thread increase");
+    }
+
+    @Test
+    void next_encodesTimeNodeAndCounter() {
+        var ids = new TimeOrderedIdGenerator(0x12_3456_789AL, () -> 1_700_000_000_000L);
+        var first = ids.next("");
+        var second = ids.next("");
+
+        assertEquals(1_700_000_000_000L, TimeOrderedIdGenerator.timestampOf(first));
+        long high = TimeOrderedIdGenerator.decodeHigh(second);
+        long low = TimeOrderedIdGenerator.decodeLow(second);
+        assertEquals(0x12_3456_789AL, nodeOf(high, low));
+        assertEquals(1, low & COUNTER_MASK);
+    }
+
+    @Test
+    void next_staysIncreasing_whenClockStepsBackwards() {
+        var now = new AtomicLong(5_000);
+        var ids = new TimeOrderedIdGenerator(1, now::get);
+        var first = ids.next("");
+        now.set(4_000);
+        var second = ids.next("");
+        now.set(6_000);
+        var third = ids.next("");
+
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        assertEquals(5_000, TimeOrderedIdGenerator.timestampOf(second));
+        assertEquals(6_000, TimeOrderedIdGenerator.timestampOf(third));
+    }
+
+    @Test
+    void ids_sortByCreationTime() {
+        var now = new AtomicLong(1_000);
+        var ids = new TimeOrderedIdGenerator(99, now::get);
+        var generated = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            now.addAndGet(i % 3);
+            generated.add(ids.next(""));
+        }
+
+        var sorted = new ArrayList<>(generated);
+        sorted.sort(null);
+        assertEquals(generated, sorted);
+    }
+
+    @Test
+    void tenMillionIds_across32Threads_areUnique() throws Exception {
+        int threads = 32;
+        int perThread = 10_000_000 / threads;
+        var ids = new TimeOrderedIdGenerator(0);
+        long[] high = new long[threads * perThread];
+        long[] low = new long[threads * perThread];
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            workers.add(Thread.ofPlatform().start(() -> {
+                var buffer = new char[TimeOrderedIdGenerator.LENGTH];
+                var text = CharBuffer.wrap(buffer);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.next(buffer, 0);
+                    high[base + i] = TimeOrderedIdGenerator.decodeHigh(text);
+                    low[base + i] = TimeOrderedIdGenerator.decodeLow(text);
+                }
+            }));
+        }
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+
+        // Each field is range-checked so it can be packed losslessly into one sortable long
+        long firstMillis = Arrays.stream(high).map(h -> h >>> 16).min().orElseThrow();
+        long[] packed = new long[high.length];
+        for (int i = 0; i < high.length; i++) {
+            long millis = (high[i] >>> 16) - firstMillis;
+            long node = nodeOf(high[i], low[i]);
+            long counter = low[i] & COUNTER_MASK;
+            assertTrue(millis < 1L << 20 && node < 1L << 12 && counter < 1L << 32, "test packing out of range");
+            packed[i] = millis << 44 | node << 32 | counter;
+        }
+        Arrays.sort(packed);
+        for (int i = 1; i < packed.length; i++) {
+            assertNotEquals(packed[i - 1], packed[i], "duplicate id");
+        }
+    }
+
+    @Test
+    void virtualThreads_eachGetTheirOwnNode() throws Exception {
+        var ids = new TimeOrderedIdGenerator(42);
+        var seen = ConcurrentHashMap.<String>newKeySet();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 10_000; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        seen.add(ids.next("tx_"));
+                    }
+                });
+            }
+        }
+
+        assertEquals(100_000, seen.size());
+    }
+
+    @Test
+    void decode_rejectsMalformedIds() {
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.timestampOf("short"));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.timestampOf("0123456789ABCDEFGHJKMNPQRU"));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedIdGenerator.timestampOf("Z0000000000000000000000000"));
+    }
+
+    @Test
+    void sharedGenerator_prefixesIds() {
+        List<String> generated = List.of(IdGenerator.timeOrdered().next("stripe_"), IdGenerator.timeOrdered().next("stripe_"));
+
+        assertTrue(generated.stream().allMatch(id -> id.startsWith("stripe_") && id.length() == 7 + 26));
+        assertEquals(2, new HashSet<>(generated).size());
+    }
+}
@@ -0,0 +1,23 @@
+package com.techie.designPattern.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8Test {
+
+    @Test
+    void length_matchesEncodedBytes() {
+        // One, two, three and four bytes per character, then unpaired surrogates at both ends
+        for (String text : new String[] {"", "ascii", "café", "₹500", "ok 👍", "\uD83D", "x\uDC4Dy", "a\uD83D"}) {
+            assertEquals(text.getBytes(StandardCharsets.UTF_8).length, Utf8.length(text), text);
+        }
+    }
+
+    @Test
+    void length_nullText_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> Utf8.length(null));
+    }
+}
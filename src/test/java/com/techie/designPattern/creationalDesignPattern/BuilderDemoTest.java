@@ -2,6 +2,9 @@ package com.techie.designPattern.creationalDesignPattern;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BuilderDemoTest {
@@ -101,4 +104,69 @@ public class BuilderDemoTest {
                 () -> HttpRequest.builder().url("https://x").timeout(-5).build());
         assertEquals("Timeout must be positive", ex.getMessage());
     }
+
+    // --- Reusable builder: nothing may leak from one use into the next ---
+    @Test
+    void reusableBuilder_startsFromDefaults_afterAFullyConfiguredUse() {
+        HttpRequest.reusableBuilder()
+                .url("https://first.test")
+                .method("POST")
+                .headers(HttpHeaders.of("Accept", "application/json"))
+                .header("Authorization", "Bearer secret")
+                .body("{\"a\":1}")
+                .timeout(5)
+                .followRedirects(false)
+                .build();
+
+        HttpRequest second = HttpRequest.reusableBuilder().url("https://second.test").build();
+
+        assertEquals(HttpRequest.builder().url("https://second.test").build(), second);
+        assertTrue(second.headers().isEmpty(), "no header of the previous use may survive");
+    }
+
+    @Test
+    void reusableBuilder_doesNotLeakUrl() {
+        HttpRequest.reusableBuilder().url("https://first.test").build();
+
+        NullPointerException ex = assertThrows(NullPointerException.class,
+                () -> HttpRequest.reusableBuilder().build());
+        assertEquals("URL cannot be null", ex.getMessage());
+    }
+
+    @Test
+    void reusableBuilder_reuseDoesNotChangeRequestsBuiltEarlier() {
+        HttpRequest first = HttpRequest.reusableBuilder()
+                .url("https://x").header("X-Id", "1").header("X-Only-First", "yes").build();
+
+        HttpRequest second = HttpRequest.reusableBuilder()
+                .url("https://x").header("X-Id", "2").removeHeader("X-Only-First").build();
+
+        assertEquals(Map.of("X-Id", "1", "X-Only-First", "yes"), first.headers());
+        assertEquals(Map.of("X-Id", "2"), second.headers());
+    }
+
+    @Test
+    void reusableBuilder_afterManyHeaders_stillBuildsCleanRequests() {
+        var builder = HttpRequest.reusableBuilder().url("https://x");
+        for (int i = 0; i < 100; i++) {
+            builder.header("X-H" + i, "v" + i);
+        }
+        assertEquals(100, builder.build().headers().size());
+
+        HttpRequest next = HttpRequest.reusableBuilder().url("https://x").header("X-H1", "again").build();
+
+        assertEquals(Map.of("X-H1", "again"), next.headers());
+    }
+
+    @Test
+    void reusableBuilder_isOnePerThread() throws InterruptedException {
+        var mine = HttpRequest.reusableBuilder();
+        var other = new AtomicReference<HttpRequest.Builder>();
+        var thread = new Thread(() -> other.set(HttpRequest.reusableBuilder()));
+        thread.start();
+        thread.join();
+
+        assertSame(mine, HttpRequest.reusableBuilder());
+        assertNotSame(mine, other.get());
+    }
 }
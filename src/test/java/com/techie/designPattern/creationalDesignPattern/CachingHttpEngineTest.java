@@ -0,0 +1,231 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingHttpEngineTest {
+
+    // Stand-in engine: counts calls and answers with the URL and Accept header it was sent
+    private static final class CountingEngine implements HttpEngine {
+        final AtomicInteger calls = new AtomicInteger();
+        Map<String, String> responseHeaders = Map.of();
+        String body = "";
+
+        @Override
+        public CompletableFuture<HttpResponse> send(HttpRequest request, Duration timeout) {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(new HttpResponse(200, request.url(), responseHeaders,
+                    body + request.url() + " " + request.headers().get("Accept")));
+        }
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.builder().url(url).header("Accept", "application/json").build();
+    }
+
+    @Test
+    void repeatedGet_isServedFromCache_untilTtlExpires() {
+        var clock = new AtomicLong();
+        var origin = new CountingEngine();
+        var cache = new CachingHttpEngine(origin, List.of("Accept"), Duration.ofSeconds(10), 1 << 20,
+                Integer.MAX_VALUE, clock::get);
+
+        var first = cache.send(get("https://api/rates")).join();
+        var second = cache.send(get("https://api/rates")).join();
+        clock.set(Duration.ofSeconds(10).toNanos());
+        cache.send(get("https://api/rates")).join();
+
+        assertSame(first, second);
+        assertEquals(2, origin.calls.get());
+        var stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(first.body().length(), stats.bytesServed());
+    }
+
+    @Test
+    void key_variesOnSelectedHeadersOnly() {
+        var origin = new CountingEngine();
+        var cache = new CachingHttpEngine(origin, List.of("Accept"), Duration.ofMinutes(1), 1 << 20);
+        var json = HttpRequest.builder().url("https://api/rates").header("Accept", "application/json");
+
+        cache.send(json.header("X-Request-Id", "1").build()).join();
+        cache.send(json.header("X-Request-Id", "2").build()).join();
+        var xml = cache.send(HttpRequest.builder().url("https://api/rates").header("Accept", "text/xml").build()).join();
+
+        assertEquals(2, origin.calls.get(), "a request id must not split the cache, Accept must");
+        assertEquals("https://api/rates text/xml", xml.body());
+    }
+
+    @Test
+    void nonGetRequestsAndUncacheableResponses_goToTheOrigin() {
+        var origin = new CountingEngine();
+        var cache = new CachingHttpEngine(origin, List.of(), Duration.ofMinutes(1), 1 << 20);
+        var post = HttpRequest.builder().url("https://api/orders").method("POST").body("{}").build();
+
+        cache.send(post).join();
+        cache.send(post).join();
+        origin.responseHeaders = Map.of("cache-control", "No-Store");
+        cache.send(get("https://api/me")).join();
+        cache.send(get("https://api/me")).join();
+
+        assertEquals(4, origin.calls.get());
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void credentialedRequests_bypassTheCache_unlessTheCredentialIsKeyed() {
+        var origin = new CountingEngine();
+        var cache = new CachingHttpEngine(origin, List.of("Accept"), Duration.ofMinutes(1), 1 << 20);
+        var alice = HttpRequest.builder().url("https://api/me").header("Accept", "application/json")
+                .header("authorization", "Bearer alice").build();
+        var bob = HttpRequest.builder().url("https://api/me").header("Accept", "application/json")
+                .header("Cookie", "session=bob").build();
+
+        cache.send(alice).join();
+        cache.send(bob).join();
+        cache.send(get("https://api/me")).join();
+
+        assertEquals(3, origin.calls.get(), "neither credentialed response may be stored or served");
+        assertEquals(1, cache.stats().entries());
+
+        var keyed = new CachingHttpEngine(origin, List.of("Authorization"), Duration.ofMinutes(1), 1 << 20);
+        keyed.send(alice).join();
+        keyed.send(alice).join();
+        assertEquals(4, origin.calls.get(), "keyed on Authorization, alice's response is hers to reuse");
+    }
+
+    @Test
+    void keyedCredential_inAnyCase_keepsUsersApart() {
+        var cache = new CachingHttpEngine((request, timeout) -> CompletableFuture.completedFuture(
+                new HttpResponse(200, request.url(), Map.of(), "secret for " + request.headers().get("authorization"))),
+                List.of("Authorization"), Duration.ofMinutes(1), 1 << 20);
+        var alice = HttpRequest.builder().url("https://api/me").header("authorization", "Bearer alice").build();
+        var bob = HttpRequest.builder().url("https://api/me").header("authorization", "Bearer bob").build();
+        var bobAgain = HttpRequest.builder().url("https://api/me").header("AUTHORIZATION", "Bearer bob").build();
+
+        assertEquals("secret for Bearer alice", cache.send(alice).join().body());
+        assertEquals("secret for Bearer bob", cache.send(bob).join().body());
+        assertEquals("secret for Bearer bob", cache.send(bobAgain).join().body(), "same credential, other spelling");
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void responseVaryingOnUnkeyedHeaders_isNotCached() {
+        var origin = new CountingEngine();
+        var cache = new CachingHttpEngine(origin, List.of("Accept"), Duration.ofMinutes(1), 1 << 20);
+
+        origin.responseHeaders = Map.of("vary", "accept, Accept-Language");
+        cache.send(get("https://api/a")).join();
+        cache.send(get("https://api/a")).join();
+        origin.responseHeaders = Map.of("vary", "*");
+        cache.send(get("https://api/b")).join();
+        cache.send(get("https://api/b")).join();
+        origin.responseHeaders = Map.of("vary", "Accept");
+        cache.send(get("https://api/c")).join();
+        cache.send(get("https://api/c")).join();
+
+        assertEquals(5, origin.calls.get(), "only a Vary the key covers is cacheable");
+        assertEquals(1, cache.stats().entries());
+    }
+
+    @Test
+    void concurrentMisses_shareOneFetch() {
+        var pending = new CompletableFuture<HttpResponse>();
+        var calls = new AtomicInteger();
+        var cache = new CachingHttpEngine((request, timeout) -> {
+            calls.incrementAndGet();
+            return pending;
+        }, List.of(), Duration.ofMinutes(1), 1 << 20);
+
+        var waiting = new ArrayList<CompletableFuture<HttpResponse>>();
+        for (int i = 0; i < 10; i++) {
+            waiting.add(cache.send(get("https://api/flags")));
+        }
+        waiting.get(3).cancel(false);
+        pending.complete(new HttpResponse(200, "https://api/flags", Map.of(), "on"));
+
+        assertEquals(1, calls.get());
+        assertEquals(9, cache.stats().collapsed());
+        for (int i = 0; i < waiting.size(); i++) {
+            if (i != 3) {
+                assertEquals("on", waiting.get(i).join().body(), "one caller cancelling must not affect the others");
+            }
+        }
+        assertEquals("on", cache.send(get("https://api/flags")).join().body());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void failedFetch_reachesEveryWaiter_andIsNotCached() {
+        var pending = new CompletableFuture<HttpResponse>();
+        var calls = new AtomicInteger();
+        var cache = new CachingHttpEngine((request, timeout) -> {
+            calls.incrementAndGet();
+            return calls.get() == 1 ? pending
+                    : CompletableFuture.completedFuture(new HttpResponse(200, request.url(), Map.of(), "ok"));
+        }, List.of(), Duration.ofMinutes(1), 1 << 20);
+
+        var first = cache.send(get("https://api/flags"));
+        var second = cache.send(get("https://api/flags"));
+        pending.completeExceptionally(new IOException("connection reset"));
+
+        assertInstanceOf(IOException.class, assertThrows(CompletionException.class, first::join).getCause());
+        assertInstanceOf(IOException.class, assertThrows(CompletionException.class, second::join).getCause());
+        assertEquals("ok", cache.send(get("https://api/flags")).join().body());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void overByteBudget_evictsLeastRecentlyUsed() {
+        var origin = new CountingEngine();
+        origin.body = "x".repeat(1_000);
+        long perEntry = 1_000 + "https://api/a application/json".length() + CachingHttpEngine.ENTRY_OVERHEAD;
+        var cache = new CachingHttpEngine(origin, List.of(), Duration.ofMinutes(1), 2 * perEntry);
+
+        cache.send(get("https://api/a")).join();
+        cache.send(get("https://api/b")).join();
+        cache.send(get("https://api/a")).join();
+        cache.send(get("https://api/c")).join();
+        cache.send(get("https://api/a")).join();
+        cache.send(get("https://api/b")).join();
+
+        assertEquals(4, origin.calls.get(), "b was least recently used when c arrived");
+        var stats = cache.stats();
+        assertEquals(2, stats.evictions());
+        assertEquals(2, stats.entries());
+        assertTrue(stats.heapBytes() <= 2 * perEntry);
+    }
+
+    @Test
+    void largeBodies_areKeptOffHeap_andDecodedOnHit() {
+        var origin = new CountingEngine();
+        origin.body = "Grüße 🚀 ".repeat(200);
+        var cache = new CachingHttpEngine(origin, List.of(), Duration.ofMinutes(1), 1 << 20, 1_024);
+
+        var fetched = cache.send(get("https://api/large")).join();
+        var hit = cache.send(get("https://api/large")).join();
+        origin.body = "";
+        cache.send(get("https://api/small")).join();
+
+        assertEquals(fetched, hit);
+        assertNotSame(fetched, hit);
+        var stats = cache.stats();
+        assertEquals(fetched.body().getBytes(StandardCharsets.UTF_8).length + CachingHttpEngine.ENTRY_OVERHEAD,
+                stats.offHeapBytes());
+        assertTrue(stats.heapBytes() > 0, "the small body stays on the heap");
+        assertEquals(2, origin.calls.get());
+    }
+}
@@ -0,0 +1,208 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigFileLoaderTest {
+
+    private static final ConfigurationManager.Config DEFAULTS = ConfigurationManager.Config.DEFAULTS;
+
+    @TempDir
+    Path dir;
+
+    private static ConfigurationManager.Config parse(String text) {
+        return ConfigFileLoader.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), DEFAULTS);
+    }
+
+    @Test
+    void parseProperties_readsAllKeys_andSkipsComments() {
+        var config = parse("""
+                # service config
+                ! legacy comment
+                apiKey = key-from-file
+                dbUrl=jdbc:postgresql://db:5432/app\r
+                timeout: 45
+                unknown=ignored
+                """);
+
+        assertEquals(new ConfigurationManager.Config("key-from-file", "jdbc:postgresql://db:5432/app", 45), config);
+    }
+
+    @Test
+    void parseJson_readsFlatObject_withEscapes() {
+        var config = parse("""
+                {
+                  "apiKey": "k\\"ey\\u0021",
+                  "dbUrl" : "jdbc:h2:mem:test",
+                  "timeout": 12,
+                  "extra": true
+                }
+                """);
+
+        assertEquals(new ConfigurationManager.Config("k\"ey!", "jdbc:h2:mem:test", 12), config);
+    }
+
+    @Test
+    void parse_missingKeys_keepDefaults() {
+        var config = parse("timeout=5\n");
+
+        assertEquals(DEFAULTS.apiKey(), config.apiKey());
+        assertEquals(DEFAULTS.dbUrl(), config.dbUrl());
+        assertEquals(5, config.timeout());
+    }
+
+    @Test
+    void parse_invalidTimeout_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> parse("timeout=soon\n"));
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"timeout\": -1}"));
+    }
+
+    @Test
+    void parse_malformedJson_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"apiKey\": \"unterminated"));
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"apiKey\" \"missing colon\"}"));
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"apiKey\": {\"nested\": 1}}"));
+    }
+
+    @Test
+    void load_readsFile() throws Exception {
+        var file = dir.resolve("app.properties");
+        Files.writeString(file, "apiKey=fromfile\ndbUrl=jdbc:fromfile\ntimeout=7\n");
+
+        assertEquals(new ConfigurationManager.Config("fromfile", "jdbc:fromfile", 7), ConfigFileLoader.load(file, DEFAULTS));
+    }
+
+    @Test
+    void loadInitial_badConfigFile_fallsBackToDefaults() {
+        var saved = System.getProperty(ConfigurationManager.CONFIG_FILE_PROPERTY);
+        System.setProperty(ConfigurationManager.CONFIG_FILE_PROPERTY, dir.resolve("missing.properties").toString());
+        try {
+            assertEquals(DEFAULTS, ConfigurationManager.loadInitial(), "must not throw from the enum's initialization");
+        } finally {
+            if (saved == null) {
+                System.clearProperty(ConfigurationManager.CONFIG_FILE_PROPERTY);
+            } else {
+                System.setProperty(ConfigurationManager.CONFIG_FILE_PROPERTY, saved);
+            }
+        }
+    }
+
+    @Test
+    void load_shortRead_failsInsteadOfParsingAPrefix() throws Exception {
+        var file = dir.resolve("rewriting.properties");
+        Files.writeString(file, "timeout=3");
+        var reader = new ConfigFileLoader.Reader();
+
+        // The size was taken while the file still read timeout=30; the writer truncated it since
+        try (var channel = new SizedChannel(Files.newByteChannel(file), "timeout=30".length())) {
+            assertThrows(IOException.class, () -> reader.load(channel, DEFAULTS));
+        }
+        Files.writeString(file, "timeout=30\napiKey=" + "k".repeat(10_000) + "\n");
+        var config = reader.load(file, DEFAULTS);
+        assertEquals(30, config.timeout(), "the same reader recovers, growing its buffer");
+        assertEquals(10_000, config.apiKey().length());
+    }
+
+    // Reports a fixed size, as a file looks when it changes between size() and read()
+    private record SizedChannel(SeekableByteChannel delegate, long size) implements SeekableByteChannel {
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    @Test
+    void load_emptyFile_returnsDefaults() throws Exception {
+        var file = Files.createFile(dir.resolve("empty.properties"));
+
+        assertEquals(DEFAULTS, ConfigFileLoader.load(file, DEFAULTS));
+    }
+
+    @Test
+    void watch_publishesInitialAndChangedConfig_andSkipsInvalidFiles() throws Exception {
+        var file = dir.resolve("watched.properties");
+        Files.writeString(file, "apiKey=v1\n");
+        var published = new LinkedBlockingQueue<ConfigurationManager.Config>();
+
+        try (var watcher = ConfigFileLoader.watch(file, DEFAULTS, published::add)) {
+            assertEquals("v1", published.poll(5, TimeUnit.SECONDS).apiKey(), "initial load should be published");
+
+            Files.writeString(file, "timeout=oops\n");
+            Files.writeString(file, "apiKey=v2\n");
+            var next = published.poll(10, TimeUnit.SECONDS);
+            assertNotNull(next, "modification should be picked up");
+            assertEquals("v2", next.apiKey());
+
+            // Atomic replace, as editors and deploy tools do
+            var tmp = dir.resolve("watched.properties.tmp");
+            Files.writeString(tmp, "apiKey=v3\n");
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            var replaced = published.poll(10, TimeUnit.SECONDS);
+            assertNotNull(replaced, "atomic replace should be picked up");
+            assertEquals("v3", replaced.apiKey());
+            assertTrue(watcher.reloads() >= 2);
+        }
+    }
+
+    @Test
+    void configurationManagerWatch_updatesSingleton() throws Exception {
+        var manager = ConfigurationManager.INSTANCE;
+        var file = dir.resolve("singleton.json");
+        Files.writeString(file, "{\"apiKey\": \"watched-singleton\"}");
+
+        try (var ignored = manager.watch(file)) {
+            assertEquals("watched-singleton", manager.getConfig().apiKey());
+            long version = manager.getVersion();
+
+            Files.writeString(file, "{\"apiKey\": \"watched-singleton-2\"}");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (manager.getVersion() == version && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("watched-singleton-2", manager.getConfig().apiKey());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    @Test
+    void constructor_preWarmsEverySlot() {
+        List<Integer> created = new ArrayList<>();
+        var pool = new ConnectionPool(4, slot -> {
+            created.add(slot);
+            return new InMemoryConnection("test-" + slot);
+        });
+
+        assertEquals(4, created.size(), "all slots should be created up front");
+        assertEquals(4, pool.maxConnections());
+        assertEquals(4, pool.availableConnections());
+    }
+
+    @Test
+    void acquireAndRelease_reusesTheSameConnections() throws Exception {
+        var pool = new ConnectionPool(2, ConnectionFactory.inMemory("db-"));
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < 10; i++) {
+            try (var connection = pool.acquire(1, TimeUnit.SECONDS)) {
+                seen.add(connection.id());
+            }
+        }
+
+        assertTrue(seen.size() <= 2, "only pooled connections should ever be handed out: " + seen);
+        assertEquals(2, pool.availableConnections());
+    }
+
+    @Test
+    void acquire_beyondMaxConnections_timesOut() throws Exception {
+        var pool = new ConnectionPool(2, ConnectionFactory.inMemory("db-"));
+        pool.acquire(1, TimeUnit.SECONDS);
+        pool.acquire(1, TimeUnit.SECONDS);
+
+        assertEquals(0, pool.availableConnections());
+        assertThrows(TimeoutException.class, () -> pool.acquire(20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void release_twice_throwsIllegalStateException() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var connection = pool.acquire(1, TimeUnit.SECONDS);
+        pool.release(connection);
+
+        assertThrows(IllegalStateException.class, () -> pool.release(connection));
+    }
+
+    @Test
+    void release_foreignConnection_throwsIllegalArgumentException() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("a-"));
+        var other = new ConnectionPool(1, ConnectionFactory.inMemory("b-"));
+        var foreign = other.acquire(1, TimeUnit.SECONDS);
+
+        assertThrows(IllegalArgumentException.class, () -> pool.release(foreign));
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new InMemoryConnection("raw")));
+    }
+
+    @Test
+    void close_closesPhysicalConnections_andRejectsAcquire() {
+        List<InMemoryConnection> physical = new ArrayList<>();
+        var pool = new ConnectionPool(3, slot -> {
+            var connection = new InMemoryConnection("c" + slot);
+            physical.add(connection);
+            return connection;
+        });
+
+        pool.close();
+
+        assertTrue(physical.stream().allMatch(InMemoryConnection::isClosed));
+        assertThrows(IllegalStateException.class, () -> pool.acquire(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void constructor_nonPositiveSize_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(0, ConnectionFactory.inMemory("x")));
+    }
+
+    @Test
+    void contendedAcquire_neverExceedsMaxConnections() throws Exception {
+        int maxConnections = 8;
+        int threads = 64;
+        int iterations = 2_000;
+        var pool = new ConnectionPool(maxConnections, ConnectionFactory.inMemory("db-"));
+        var inUse = new AtomicInteger();
+        var peak = new AtomicInteger();
+        var failure = new AtomicReference<Throwable>();
+        var done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < iterations; i++) {
+                        try (var ignored = pool.acquire(5, TimeUnit.SECONDS)) {
+                            peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            inUse.decrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS), "contended workers should finish");
+        assertNull(failure.get(), () -> "worker failed: " + failure.get());
+        assertTrue(peak.get() <= maxConnections, "peak concurrent leases exceeded the limit: " + peak.get());
+        assertEquals(maxConnections, pool.availableConnections());
+    }
+
+    @Test
+    void singletonPool_handsOutPooledConnections() {
+        var pool = DatabaseConnectionPool.INSTANCE;
+        int before = pool.getAvailableConnections();
+
+        try (var connection = pool.acquireConnection()) {
+            assertTrue(connection.id().startsWith("conn-"));
+            assertEquals(before - 1, pool.getAvailableConnections());
+        }
+
+        assertEquals(before, pool.getAvailableConnections());
+    }
+
+    @Test
+    void acquireAsync_completesImmediately_whenConnectionIsFree() {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var future = pool.acquireAsync();
+
+        assertTrue(future.isDone(), "free connection should be handed out without waiting");
+        assertEquals("db-0", future.join().id());
+    }
+
+    @Test
+    void acquireAsync_handsOffToWaitersInFifoOrder() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var held = pool.acquire(1, TimeUnit.SECONDS);
+        List<CompletableFuture<Connection>> waiters = List.of(pool.acquireAsync(), pool.acquireAsync(), pool.acquireAsync());
+        assertEquals(3, pool.waitingCallers());
+
+        pool.release(held);
+        assertTrue(waiters.get(0).isDone(), "first waiter should receive the released connection");
+        assertFalse(waiters.get(1).isDone());
+
+        pool.release(waiters.get(0).join());
+        assertTrue(waiters.get(1).isDone(), "second waiter should be next");
+        assertFalse(waiters.get(2).isDone());
+
+        pool.release(waiters.get(1).join());
+        pool.release(waiters.get(2).join());
+        assertEquals(1, pool.availableConnections());
+    }
+
+    @Test
+    void acquireAsync_cancelledWaiter_isSkippedOnHandOff() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var held = pool.acquire(1, TimeUnit.SECONDS);
+        var abandoned = pool.acquireAsync().orTimeout(1, TimeUnit.MILLISECONDS);
+        var patient = pool.acquireAsync();
+        assertThrows(Exception.class, abandoned::join);
+
+        pool.release(held);
+
+        assertTrue(patient.isDone(), "live waiter should get the connection the timed-out one gave up");
+    }
+
+    @Test
+    void waitingCallers_dropsAsWaitersAreCancelledTimedOutOrServed() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var held = pool.acquire(1, TimeUnit.SECONDS);
+        var cancelled = pool.acquireAsync();
+        // Long enough never to fire here; the timeout is delivered below, after the count is checked
+        var timedOut = pool.acquireAsync().orTimeout(1, TimeUnit.MINUTES);
+        var served = pool.acquireAsync();
+        assertEquals(3, pool.waitingCallers());
+
+        cancelled.cancel(false);
+        assertEquals(2, pool.waitingCallers());
+        timedOut.completeExceptionally(new TimeoutException());
+        assertEquals(1, pool.waitingCallers());
+        pool.release(held);
+
+        assertTrue(served.isDone());
+        assertEquals(0, pool.waitingCallers());
+    }
+
+    @Test
+    void close_failsPendingWaiters() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        pool.acquire(1, TimeUnit.SECONDS);
+        var waiter = pool.acquireAsync();
+
+        pool.close();
+
+        var ex = assertThrows(Exception.class, waiter::join);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+    }
+
+    @Test
+    void virtualThreadStress_100kThreadsThrough10Slots_neverPinsCarrier() throws Exception {
+        int maxConnections = 10;
+        int tasks = 100_000;
+        var pool = new ConnectionPool(maxConnections, ConnectionFactory.inMemory("vt-"));
+        var inUse = new AtomicInteger();
+        var peak = new AtomicInteger();
+        var completed = new AtomicInteger();
+        var failure = new AtomicReference<Throwable>();
+        var dump = Files.createTempFile("pool-pinning", ".jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < tasks; i++) {
+                    executor.submit(() -> {
+                        try (var ignored = pool.acquire(30, TimeUnit.SECONDS)) {
+                            peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            inUse.decrementAndGet();
+                            completed.incrementAndGet();
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    });
+                }
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        long pinned = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .count();
+        Files.deleteIfExists(dump);
+
+        assertNull(failure.get(), () -> "virtual thread failed: " + failure.get());
+        assertEquals(tasks, completed.get());
+        assertTrue(peak.get() <= maxConnections, "peak concurrent leases exceeded the limit: " + peak.get());
+        assertEquals(0, pinned, "acquire/release must not pin carrier threads");
+        assertEquals(maxConnections, pool.availableConnections());
+    }
+
+    @Test
+    void stats_reportActiveIdleAndWaitingCounts() throws Exception {
+        var pool = new ConnectionPool(2, ConnectionFactory.inMemory("db-"));
+        var first = pool.acquire(1, TimeUnit.SECONDS);
+        pool.acquire(1, TimeUnit.SECONDS);
+        var waiter = pool.acquireAsync();
+
+        var stats = pool.stats();
+        assertEquals(2, stats.maxConnections());
+        assertEquals(2, stats.active());
+        assertEquals(0, stats.idle());
+        assertEquals(1, stats.waiting());
+
+        pool.release(first);
+        assertTrue(waiter.isDone());
+        assertEquals(0, pool.stats().waiting());
+    }
+
+    @Test
+    void stats_recordAcquireWaitAndHoldTimes() throws Exception {
+        var pool = new ConnectionPool(1, ConnectionFactory.inMemory("db-"));
+        var held = pool.acquire(1, TimeUnit.SECONDS);
+        var waiter = pool.acquireAsync();
+        Thread.sleep(20);
+        pool.release(held);
+        pool.release(waiter.join());
+
+        var stats = pool.stats();
+        assertEquals(2, stats.acquireWait().count());
+        assertTrue(stats.acquireWait().max() >= TimeUnit.MILLISECONDS.toNanos(20),
+                "queued acquire should record its wait: " + stats.acquireWait());
+        assertEquals(2, stats.holdTime().count());
+        assertTrue(stats.holdTime().max() >= TimeUnit.MILLISECONDS.toNanos(20),
+                "hold time should cover the sleep: " + stats.holdTime());
+    }
+
+    @Test
+    void stats_flagConnectionsHeldPastLeakThreshold() throws Exception {
+        var clock = new AtomicLong();
+        var pool = new ConnectionPool(2, ConnectionFactory.inMemory("db-"), Duration.ofMillis(10), clock::get);
+        var leaky = pool.acquire(1, TimeUnit.SECONDS);
+        clock.set(TimeUnit.MILLISECONDS.toNanos(30));
+        var fresh = pool.acquire(1, TimeUnit.SECONDS);
+
+        assertEquals(1, pool.stats().leaked());
+        assertEquals(List.of(leaky.id()), pool.suspectedLeaks());
+
+        pool.release(leaky);
+        pool.release(fresh);
+        assertEquals(0, pool.stats().leaked());
+        assertTrue(pool.suspectedLeaks().isEmpty());
+    }
+}
@@ -2,6 +2,8 @@ package com.techie.designPattern.creationalDesignPattern;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FactoryPatternTest {
@@ -37,5 +39,25 @@ public class FactoryPatternTest {
         // credit_card expects two details (cardNumber, cvv) - providing none should raise exception
         assertThrows(ArrayIndexOutOfBoundsException.class, () -> PaymentFactory.createPayment("credit_card"));
     }
-}
 
+    @Test
+    void process_doubleAmount_isRoundedIntoPaymentCurrency() {
+        Payment upi = PaymentFactory.createPayment("upi", "user@bank");
+
+        assertTrue(upi.process(250.50));
+        assertTrue(upi.process(25_050L));
+        assertEquals("INR", upi.currency().code());
+    }
+
+    @Test
+    void getTransactionId_isUniqueWithinTheSameMillisecond() {
+        Payment cc = PaymentFactory.createPayment("credit_card", "4111111111111111", "123");
+        var ids = new HashSet<String>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(cc.getTransactionId());
+        }
+
+        assertEquals(1_000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.startsWith("CC-")));
+    }
+}
@@ -0,0 +1,92 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techie.designPattern.common.LatencyHistogram;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for JdkHttpEngine behind a LimitingHttpEngine, against a local
+ * com.sun.net.httpserver stand-in that answers after a short simulated service time.
+ * A closed loop of virtual-thread clients, far more than the in-flight limit, each sends its
+ * next request when the last one completes. Reports requests/s, end-to-end latency
+ * percentiles and the share of it spent queued for a slot.
+ * Run with: java ... HttpEngineLoadBenchmark [requests] [maxInFlight]
+ */
+public class HttpEngineLoadBenchmark {
+    private static final int CLIENTS = 256;
+    private static final long SERVICE_MILLIS = 2;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        var payload = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/orders", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(SERVICE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        var url = "http://127.0.0.1:" + server.getAddress().getPort() + "/orders";
+
+        try (var engine = new JdkHttpEngine()) {
+            // First round warms up the JIT and the connection pool and is not reported
+            run(engine, url, Math.min(requests, 2_000), maxInFlight);
+            System.out.println(run(engine, url, requests, maxInFlight));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String run(JdkHttpEngine engine, String url, int requests, int maxInFlight) {
+        var limited = new LimitingHttpEngine(engine, maxInFlight);
+        var base = HttpHeaders.of("Accept", "application/json", "User-Agent", "orders-client/2.3");
+        var latency = new LatencyHistogram();
+        var failures = new AtomicInteger();
+
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            var futures = new CompletableFuture<?>[CLIENTS];
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                futures[c] = CompletableFuture.runAsync(() -> {
+                    for (int i = client; i < requests; i += CLIENTS) {
+                        var request = HttpRequest.reusableBuilder().url(url).headers(base)
+                                .header("X-Request-Id", Integer.toString(i)).timeout(10).build();
+                        long begin = System.nanoTime();
+                        var response = limited.send(request).exceptionally(e -> null).join();
+                        latency.record(System.nanoTime() - begin);
+                        if (response == null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }, clients);
+            }
+            CompletableFuture.allOf(futures).join();
+            long elapsed = System.nanoTime() - start;
+
+            var snapshot = latency.snapshot();
+            var queued = limited.queueWait();
+            return String.format("maxInFlight=%d clients=%d %,10.0f requests/s  p50=%6.2fms p90=%6.2fms p99=%6.2fms max=%6.2fms"
+                            + "  queued p50=%6.2fms p99=%6.2fms  failures=%d",
+                    maxInFlight, CLIENTS, requests / (elapsed / 1e9),
+                    snapshot.p50() / 1e6, snapshot.p90() / 1e6, snapshot.p99() / 1e6, snapshot.max() / 1e6,
+                    queued.p50() / 1e6, queued.p99() / 1e6, failures.get());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpEngineTest {
+    private HttpServer server;
+    private String baseUrl;
+    private JdkHttpEngine engine;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Echoes "METHOD body" and the X-Test header back
+        server.createContext("/echo", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            var test = exchange.getRequestHeaders().getFirst("X-Test");
+            if (test != null) {
+                exchange.getResponseHeaders().add("X-Echo", test);
+            }
+            var auth = exchange.getRequestHeaders().getFirst("Authorization");
+            respond(exchange, 200, exchange.getRequestMethod() + " " + body + (auth != null ? " auth" : ""));
+        });
+        // Counts the request body's bytes without keeping them
+        server.createContext("/count", exchange -> {
+            long count = 0;
+            try (var in = exchange.getRequestBody()) {
+                var chunk = new byte[64 * 1024];
+                for (int n; (n = in.read(chunk)) >= 0; ) {
+                    count += n;
+                }
+            }
+            respond(exchange, 200, Long.toString(count));
+        });
+        server.createContext("/redirect", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Location", "/echo");
+            respond(exchange, 302, "");
+        });
+        server.createContext("/loop", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/loop");
+            respond(exchange, 307, "");
+        });
+        // Sleeps for the ms given in the query, tracking how many calls overlap
+        server.createContext("/slow", exchange -> {
+            slowCalls.incrementAndGet();
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(Long.parseLong(exchange.getRequestURI().getQuery()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            respond(exchange, 200, "slept");
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        engine = new JdkHttpEngine();
+    }
+
+    @AfterEach
+    void stopServer() {
+        engine.close();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.builder().url(baseUrl + path).timeout(5);
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        var e = assertThrows(CompletionException.class, future::join);
+        return e.getCause();
+    }
+
+    @Test
+    void send_roundTripsMethodHeadersAndBody() {
+        var response = engine.send(request("/echo").method("POST").header("X-Test", "42").body("hello").build()).join();
+
+        assertEquals(200, response.statusCode());
+        assertEquals("POST hello", response.body());
+        assertEquals("42", response.headers().get("x-echo"));
+    }
+
+    @Test
+    void send_streamsFileBufferAndPublisherBodies() throws IOException {
+        var file = Files.createTempFile("upload", ".bin");
+        try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // Sparse, so the test stays fast; the engine reads it in chunks either way
+            raf.setLength(32L << 20);
+        }
+        try {
+            var fromFile = engine.send(request("/count").method("PUT").body(file, 1024, 16L << 20).build()).join();
+            var fromBuffer = engine.send(request("/count").method("PUT").body(ByteBuffer.allocateDirect(1 << 20)).build()).join();
+            var chunked = engine.send(request("/count").method("PUT")
+                    .body(BodyPublishers.ofString("x".repeat(5000)), RequestBody.UNKNOWN_LENGTH).build()).join();
+
+            assertEquals(Long.toString(16L << 20), fromFile.body());
+            assertEquals(Long.toString(1 << 20), fromBuffer.body());
+            assertEquals("5000", chunked.body());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void send_followsRedirects_onlyWhenAsked() {
+        var followed = engine.send(request("/redirect").method("POST").body("form").build()).join();
+        var notFollowed = engine.send(request("/redirect").followRedirects(false).build()).join();
+
+        assertEquals(200, followed.statusCode());
+        assertEquals("GET ", followed.body(), "a POST redirected by 302 continues as a GET without body");
+        assertTrue(followed.url().endsWith("/echo"));
+        assertEquals(302, notFollowed.statusCode());
+        assertEquals("/echo", notFollowed.headers().get("location"));
+    }
+
+    @Test
+    void send_redirectLoop_failsAfterMaxRedirects() {
+        var cause = failure(engine.send(request("/loop").build()));
+
+        assertInstanceOf(IOException.class, cause);
+        assertTrue(cause.getMessage().contains("redirects"));
+    }
+
+    @Test
+    void send_slowerThanTimeout_failsWithHttpTimeout() {
+        var cause = failure(engine.send(request("/slow?3000").timeout(1).build()));
+
+        assertInstanceOf(HttpTimeoutException.class, cause);
+    }
+
+    @Test
+    void send_reusesOneConnection_forSequentialRequests() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, engine.send(request("/echo").build()).join().statusCode());
+        }
+
+        assertEquals(1, clientPorts.size(), "requests should share a pooled connection");
+    }
+
+    @Test
+    void limiter_capsRequestsInFlight_andRunsThemAll() {
+        var limited = new LimitingHttpEngine(engine, 4);
+        var calls = new ArrayList<CompletableFuture<HttpResponse>>();
+
+        for (int i = 0; i < 24; i++) {
+            calls.add(limited.send(request("/slow?50").build()));
+        }
+        calls.forEach(call -> assertEquals("slept", call.join().body()));
+
+        assertTrue(maxActive.get() <= 4, "max overlapping calls was " + maxActive.get());
+        assertEquals(24, slowCalls.get());
+        assertEquals(0, limited.inFlight());
+        assertEquals(24, limited.queueWait().count());
+    }
+
+    @Test
+    void limiter_queuedRequest_timesOutWithoutBeingSent() {
+        var limited = new LimitingHttpEngine(engine, 1);
+        var occupying = limited.send(request("/slow?2500").timeout(0).build());
+
+        var queued = limited.send(request("/echo").timeout(1).build());
+
+        assertInstanceOf(TimeoutException.class, failure(queued));
+        assertEquals(1, limited.timedOutWaiting());
+        assertEquals("slept", occupying.join().body());
+        assertTrue(clientPorts.isEmpty(), "the timed out request must never reach the server");
+        assertEquals(200, limited.send(request("/echo").build()).join().statusCode(), "slot is free again");
+    }
+
+    @Test
+    void limiter_manyQueuedCallers_onADelegateFailingAtOnce_allComplete() {
+        var first = new CompletableFuture<HttpResponse>();
+        var calls = new AtomicInteger();
+        // The first call stays in flight; every later one fails before send() returns
+        var limited = new LimitingHttpEngine((request, timeout) -> calls.getAndIncrement() == 0
+                ? first
+                : CompletableFuture.failedFuture(new IOException("refused")), 1);
+        var occupying = limited.send(request("/echo").timeout(0).build());
+        var queued = new ArrayList<CompletableFuture<HttpResponse>>();
+        for (int i = 0; i < 3_000; i++) {
+            queued.add(limited.send(request("/echo").timeout(0).build()));
+        }
+
+        first.completeExceptionally(new IOException("reset"));
+
+        assertTrue(queued.stream().allMatch(CompletableFuture::isDone), "every queued caller is started and fails");
+        assertInstanceOf(IOException.class, failure(occupying));
+        queued.forEach(call -> assertInstanceOf(IOException.class, failure(call)));
+        assertEquals(3_001, calls.get());
+        assertEquals(0, limited.inFlight());
+        assertEquals(0, limited.waiting());
+    }
+
+    @Test
+    void limiter_waiting_dropsAsQueuedCallersGiveUpOrStart() {
+        var first = new CompletableFuture<HttpResponse>();
+        var limited = new LimitingHttpEngine((request, timeout) -> first, 1);
+        limited.send(request("/echo").timeout(0).build());
+        var cancelled = limited.send(request("/echo").timeout(0).build());
+        var timedOut = limited.send(request("/echo").timeout(1).build());
+        var started = limited.send(request("/echo").timeout(0).build());
+        assertEquals(3, limited.waiting());
+
+        cancelled.cancel(false);
+        assertEquals(2, limited.waiting());
+        assertInstanceOf(TimeoutException.class, failure(timedOut));
+        assertEquals(1, limited.waiting());
+        first.complete(new HttpResponse(200, "/echo", Map.of(), "ok"));
+
+        assertEquals("ok", started.join().body());
+        assertEquals(0, limited.waiting());
+    }
+
+    @Test
+    void limiter_delegateThrowing_releasesItsSlot() {
+        var limited = new LimitingHttpEngine((request, timeout) -> {
+            throw new IllegalStateException("boom");
+        }, 1);
+
+        assertInstanceOf(IllegalStateException.class, failure(limited.send(request("/echo").build())));
+        assertInstanceOf(IllegalStateException.class, failure(limited.send(request("/echo").build())));
+        assertEquals(0, limited.inFlight());
+    }
+}
@@ -0,0 +1,114 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpHeadersTest {
+
+    @Test
+    void builtRequests_shareTheBase_andAddOnlyTheirDelta() {
+        var base = HttpHeaders.of("Accept", "application/json", "User-Agent", "client/1.0");
+        var builder = HttpRequest.builder().url("https://api.example.com").headers(base);
+
+        var first = builder.header("X-Request-Id", "1").build();
+        var second = builder.header("X-Request-Id", "2").build();
+
+        assertEquals("1", first.headers().get("X-Request-Id"));
+        assertEquals("2", second.headers().get("X-Request-Id"));
+        assertEquals("application/json", second.headers().get("Accept"));
+        assertEquals(3, second.headers().size());
+        assertEquals(2, base.size(), "base must not see the delta");
+        assertSame(base, HttpRequest.builder().url("https://x").headers(base).build().headers(),
+                "no delta means the base itself");
+    }
+
+    @Test
+    void delta_overridesAndRemovesBaseHeaders() {
+        var base = HttpHeaders.of("Accept", "application/json", "User-Agent", "client/1.0");
+
+        var req = HttpRequest.builder().url("https://x").headers(base)
+                .header("Accept", "text/plain")
+                .removeHeader("User-Agent")
+                .removeHeader("X-Never-Set")
+                .build();
+
+        assertEquals(Map.of("Accept", "text/plain"), req.headers());
+        assertFalse(req.headers().containsKey("User-Agent"));
+        assertEquals(1, req.headers().size());
+    }
+
+    @Test
+    void toBuilderAndCopy_deriveVariantsWithoutTouchingTheOriginal() {
+        var original = HttpRequest.builder().url("https://x").method("POST")
+                .header("Accept", "application/json").header("X-Trace", "t1").build();
+
+        var variant = original.toBuilder().header("X-Trace", "t2").build();
+        var builder = HttpRequest.builder().url("https://y").header("A", "1");
+        var copy = builder.copy().header("A", "2").header("B", "3");
+
+        assertEquals("t1", original.headers().get("X-Trace"));
+        assertEquals("t2", variant.headers().get("X-Trace"));
+        assertEquals("POST", variant.method());
+        assertEquals(Map.of("A", "1"), builder.build().headers());
+        assertEquals(Map.of("A", "2", "B", "3"), copy.build().headers());
+    }
+
+    @Test
+    void longVariantChains_areFlattened() {
+        var req = HttpRequest.builder().url("https://x").header("Accept", "application/json").build();
+        for (int i = 0; i < 20; i++) {
+            req = req.toBuilder().header("X-Step", Integer.toString(i)).build();
+        }
+
+        var headers = (HttpHeaders) req.headers();
+        assertTrue(headers.depth() < 4, "depth was " + headers.depth());
+        assertEquals(Map.of("Accept", "application/json", "X-Step", "19"), headers);
+    }
+
+    @Test
+    void headers_equalAndHashLikeAnyMap_andAreImmutable() {
+        var plain = new HashMap<String, String>();
+        plain.put("Accept", "application/json");
+        plain.put("X-Id", "7");
+
+        var req = HttpRequest.builder().url("https://x").header("Accept", "application/json").header("X-Id", "7").build();
+        var fromMap = new HttpRequest("https://x", "GET", plain, "", 30, true);
+        plain.put("X-Id", "8");
+
+        assertEquals(Map.of("Accept", "application/json", "X-Id", "7"), req.headers());
+        assertEquals(req.headers().hashCode(), fromMap.headers().hashCode());
+        assertEquals(req, fromMap, "constructor copies the map it is given");
+        assertThrows(UnsupportedOperationException.class, () -> req.headers().put("X-Id", "9"));
+    }
+
+    @Test
+    void names_areInterned_andNullsRejected() {
+        var name = new String("X-Interned-Test".toCharArray());
+
+        assertSame(HttpHeaders.name("X-Interned-Test"), HttpHeaders.name(name));
+        assertThrows(NullPointerException.class, () -> HttpRequest.builder().header(null, "v"));
+        assertThrows(NullPointerException.class, () -> HttpRequest.builder().header("X", null));
+        assertThrows(IllegalArgumentException.class, () -> HttpHeaders.of("Accept"));
+    }
+
+    @Test
+    void builder_namesPastTheInternCap_stillReplaceEachOther() {
+        // Fill the intern table, so later names are kept as the caller's own String
+        for (int i = 0; i < 1_100; i++) {
+            HttpHeaders.name("X-Filler-" + i);
+        }
+
+        var request = HttpRequest.builder().url("https://api.example.com")
+                .header(new String("X-Late"), "one")
+                .header(new String("X-Late"), "two")
+                .build();
+
+        assertEquals(1, request.headers().size());
+        assertEquals("two", request.headers().get("X-Late"));
+        assertEquals(Map.of("X-Late", "two"), request.headers());
+    }
+}
@@ -0,0 +1,65 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Aggregates ten million mixed card, UPI and net banking payments on ForkJoinPools of 1, 2, 4 ...
+ * up to all available cores, and reports time, payments/s and speedup over one worker. The
+ * payment objects are shared across the array (1,024 distinct ones), so the input fits in memory
+ * at larger sizes; each pool gets a warm-up round before it is measured. Speedup tops out where
+ * memory bandwidth does, as each payment is only a type switch and two additions.
+ * Run with: java ... PaymentAggregationBenchmark [payments]
+ */
+public class PaymentAggregationBenchmark {
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        var distinct = new Payment[1024];
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = switch (i % 3) {
+                case 0 -> new CreditCardPayment("4111111111" + i, "123");
+                case 1 -> new UPIPayment("user" + i + "@bank");
+                default -> new NetBankingPayment("1234" + i, "IFSC0001");
+            };
+        }
+        var payments = new Payment[size];
+        var amounts = new long[size];
+        for (int i = 0; i < size; i++) {
+            // Mostly not in type order, so leaves see every type
+            payments[i] = distinct[(i * 31) & (distinct.length - 1)];
+            amounts[i] = 100 + i % 10_000;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        var parallelisms = new ArrayList<Integer>();
+        for (int p = 1; p < cores; p *= 2) {
+            parallelisms.add(p);
+        }
+        parallelisms.add(cores);
+
+        double single = 0;
+        PaymentSummary summary = null;
+        for (int parallelism : parallelisms) {
+            var pool = new ForkJoinPool(parallelism);
+            try {
+                var aggregation = new PaymentAggregation(pool);
+                // Warm-up round lets the JIT compile the leaf loop before measuring
+                aggregation.aggregate(payments, amounts);
+                long start = System.nanoTime();
+                summary = aggregation.aggregate(payments, amounts);
+                double ms = (System.nanoTime() - start) / 1e6;
+                if (parallelism == 1) {
+                    single = ms;
+                }
+                System.out.printf("%3d workers %9.1f ms %,15.0f payments/s %6.2fx%n",
+                        parallelism, ms, size / (ms / 1e3), single / ms);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        for (PaymentTotals totals : summary.byType()) {
+            System.out.printf("%-12s %,12d payments %,20d minor %s%n",
+                    totals.type(), totals.count(), totals.totalMinor(), totals.currency());
+        }
+    }
+}
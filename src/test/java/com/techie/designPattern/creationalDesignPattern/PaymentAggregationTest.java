@@ -0,0 +1,81 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.CurrencyCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentAggregationTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void aggregate_totalsPerType_matchASequentialSum() {
+        int size = 100_000;
+        var payments = new Payment[size];
+        var amounts = new long[size];
+        long[] expectedCount = new long[3];
+        long[] expectedTotal = new long[3];
+        for (int i = 0; i < size; i++) {
+            int type = (i * 7) % 3;
+            payments[i] = switch (type) {
+                case 0 -> new CreditCardPayment("4111111111111111", "123");
+                case 1 -> new UPIPayment("user@bank");
+                default -> new NetBankingPayment("12345678", "IFSC0001");
+            };
+            amounts[i] = 1 + i % 5_000;
+            expectedCount[type]++;
+            expectedTotal[type] += amounts[i];
+        }
+
+        // Small leaves, so the range really is split across the workers
+        var summary = new PaymentAggregation(pool, 1_000).aggregate(payments, amounts);
+
+        var types = PaymentType.values();
+        for (int type = 0; type < 3; type++) {
+            assertEquals(expectedCount[type], summary.of(types[type]).count());
+            assertEquals(expectedTotal[type], summary.of(types[type]).totalMinor());
+        }
+        assertEquals(size, summary.count());
+        assertEquals(CurrencyCode.USD, summary.of(PaymentType.CREDIT_CARD).currency());
+        assertEquals(CurrencyCode.INR, summary.of(PaymentType.UPI).currency());
+    }
+
+    @Test
+    void aggregate_sumsAmountsAsGiven_withoutJudgingThem() {
+        var upi = new UPIPayment("user@bank");
+        var summary = new PaymentAggregation(pool).aggregate(new Payment[] {upi, upi, upi}, new long[] {2_500, 0, -100});
+
+        var totals = summary.of(PaymentType.UPI);
+        assertEquals(3, totals.count());
+        assertEquals(2_400, totals.totalMinor());
+        assertEquals(0, summary.of(PaymentType.CREDIT_CARD).count());
+        assertNull(summary.of(PaymentType.CREDIT_CARD).currency(), "no card payments, so no currency");
+    }
+
+    @Test
+    void aggregate_emptyInput_givesZeroTotals() {
+        var summary = PaymentFactory.aggregate(new Payment[0], new long[0]);
+
+        assertEquals(3, summary.byType().size());
+        assertEquals(0, summary.count());
+    }
+
+    @Test
+    void aggregate_invalidInput_throws() {
+        var aggregation = new PaymentAggregation(pool, 2);
+        var cc = new CreditCardPayment("4111111111111111", "123");
+
+        assertThrows(IllegalArgumentException.class, () -> aggregation.aggregate(new Payment[] {cc}, new long[2]));
+        assertThrows(NullPointerException.class, () -> aggregation.aggregate(new Payment[] {cc, cc, null, cc}, new long[] {1, 1, 1, 1}));
+        assertThrows(ArithmeticException.class,
+                () -> aggregation.aggregate(new Payment[] {cc, cc, cc, cc}, new long[] {Long.MAX_VALUE, 1, Long.MAX_VALUE, 1}));
+    }
+}
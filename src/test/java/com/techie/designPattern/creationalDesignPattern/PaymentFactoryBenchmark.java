@@ -0,0 +1,83 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntFunction;
+
+/**
+ * Ten million payments created by type name, in mixed case, across the three built-in types:
+ * the previous factory (toLowerCase, string switch, varargs array) against createPayment on the
+ * registry, a PaymentKind resolved once per type, and the PaymentType enum. Reports ns and bytes
+ * allocated per payment from com.sun.management.ThreadMXBean; every path allocates the payment
+ * itself (24 bytes), the rest is dispatch overhead.
+ * Run with: java ... PaymentFactoryBenchmark [payments]
+ */
+public class PaymentFactoryBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String[] TYPES = {"credit_card", "UPI", "NetBanking"};
+    private static final String[][] DETAILS = {{"4111111111111111", "123"}, {"user@bank"}, {"12345678", "IFSC0001"}};
+    private static final PaymentType[] ENUM_TYPES = {PaymentType.CREDIT_CARD, PaymentType.UPI, PaymentType.NETBANKING};
+
+    // Keeps created payments reachable so the JIT cannot drop the allocations being measured
+    private static final Payment[] SINK = new Payment[1024];
+
+    public static void main(String[] args) {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        var registry = PaymentRegistry.standard();
+        var kinds = new PaymentKind[TYPES.length];
+        for (int t = 0; t < TYPES.length; t++) {
+            kinds[t] = registry.resolve(TYPES[t]);
+        }
+
+        // Warm-up round lets the JIT compile each path before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            measure(report, "toLowerCase + switch (before)", payments, i -> {
+                int t = i % 3;
+                return switchFactory(TYPES[t], DETAILS[t][0], t == 1 ? null : DETAILS[t][1]);
+            });
+            measure(report, "createPayment via registry", payments, i -> {
+                int t = i % 3;
+                return t == 1 ? PaymentFactory.createPayment(TYPES[t], DETAILS[t][0])
+                        : PaymentFactory.createPayment(TYPES[t], DETAILS[t][0], DETAILS[t][1]);
+            });
+            measure(report, "resolved PaymentKind", payments, i -> {
+                int t = i % 3;
+                return kinds[t].create(DETAILS[t][0], t == 1 ? null : DETAILS[t][1]);
+            });
+            measure(report, "PaymentType enum", payments, i -> {
+                int t = i % 3;
+                return ENUM_TYPES[t].kind().create(DETAILS[t][0], t == 1 ? null : DETAILS[t][1]);
+            });
+        }
+    }
+
+    // The factory as it was, kept as the baseline; the call site builds the varargs array
+    private static Payment switchFactory(String type, String first, String second) {
+        return second == null ? switchCreate(type, first) : switchCreate(type, first, second);
+    }
+
+    private static Payment switchCreate(String type, String... details) {
+        return switch (type.toLowerCase()) {
+            case "credit_card" -> new CreditCardPayment(details[0], details[1]);
+            case "upi" -> new UPIPayment(details[0]);
+            case "netbanking" -> new NetBankingPayment(details[0], details[1]);
+            default -> throw new IllegalArgumentException("Unknown payment type");
+        };
+    }
+
+    private static void measure(boolean report, String label, int payments, IntFunction<Payment> op) {
+        long thread = Thread.currentThread().threadId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < payments; i++) {
+            SINK[i & (SINK.length - 1)] = op.apply(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        if (report) {
+            System.out.printf("%-32s %,12.0f payments/s %7.1f ns/payment %7.1f bytes/payment%n",
+                    label, payments / (elapsed / 1e9), (double) elapsed / payments, (double) allocated / payments);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+
+/**
+ * Five million payments, each with a unique card number, UPI id or account number and one of
+ * 2,000 IFSC codes, kept as a list of Payment records with a long[] of amounts and in a
+ * PaymentLedger. Reports heap used after a full GC for each (plus the ledger's off-heap bytes),
+ * the time to total the amounts per type, and the time to materialize every row of the ledger.
+ * Heap numbers come from MemoryMXBean and are approximate; run with a heap big enough for both.
+ * Run with: java -Xmx4g ... PaymentLedgerBenchmark [payments]
+ */
+public class PaymentLedgerBenchmark {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        long heapBefore = usedHeap();
+        var records = new ArrayList<Payment>(size);
+        var amounts = new long[size];
+        for (int i = 0; i < size; i++) {
+            records.add(payment(i));
+            amounts[i] = 100 + i % 10_000;
+        }
+        long recordHeap = usedHeap() - heapBefore;
+
+        heapBefore = usedHeap();
+        var ledger = new PaymentLedger();
+        for (int i = 0; i < size; i++) {
+            ledger.append(payment(i), 100 + i % 10_000);
+        }
+        long ledgerHeap = usedHeap() - heapBefore;
+
+        System.out.printf("%-22s %,14d heap bytes %7.1f bytes/payment%n", "Payment records", recordHeap,
+                (double) recordHeap / size);
+        System.out.printf("%-22s %,14d heap bytes %,14d off-heap %7.1f bytes/payment (%,d dictionary entries)%n",
+                "PaymentLedger", ledgerHeap, ledger.offHeapBytes(), (double) (ledgerHeap + ledger.offHeapBytes()) / size,
+                ledger.dictionarySize());
+
+        // Warm-up round lets the JIT compile each scan before measuring
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            long start = System.nanoTime();
+            long[] totals = new long[3];
+            for (int i = 0; i < size; i++) {
+                int slot = switch (records.get(i)) {
+                    case CreditCardPayment cc -> 0;
+                    case UPIPayment upi -> 1;
+                    case NetBankingPayment nb -> 2;
+                };
+                totals[slot] += amounts[i];
+            }
+            report(report, "totals over records", start, size, totals[0]);
+
+            start = System.nanoTime();
+            var summary = ledger.summarize();
+            report(report, "ledger summarize", start, size, summary.of(PaymentType.CREDIT_CARD).totalMinor());
+
+            start = System.nanoTime();
+            var ifsc = ledger.totalsFor(PaymentType.NETBANKING, "IFSC0000042");
+            report(report, "ledger totalsFor IFSC", start, size, ifsc.totalMinor());
+
+            start = System.nanoTime();
+            long names = 0;
+            for (long row = 0; row < ledger.size(); row++) {
+                names += ledger.payment(row).getClass().getSimpleName().length();
+            }
+            report(report, "ledger materialize", start, size, names);
+        }
+    }
+
+    private static Payment payment(int i) {
+        return switch (i % 3) {
+            case 0 -> new CreditCardPayment(Long.toString(4_000_000_000_000_000L + i), Integer.toString(100 + i % 900));
+            case 1 -> new UPIPayment("user" + i + "@bank");
+            default -> new NetBankingPayment(Long.toString(10_000_000_000L + i), String.format("IFSC%07d", i % 2_000));
+        };
+    }
+
+    private static void report(boolean report, String label, long start, int size, long sink) {
+        double ms = (System.nanoTime() - start) / 1e6;
+        if (report) {
+            System.out.printf("%-22s %9.1f ms %7.2f ns/payment  (sink %d)%n", label, ms, ms * 1e6 / size, sink & 1);
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
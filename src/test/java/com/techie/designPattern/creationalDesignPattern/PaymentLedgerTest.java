@@ -0,0 +1,118 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import com.techie.designPattern.common.CurrencyCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentLedgerTest {
+
+    @Test
+    void payment_materializesWhatWasAppended_acrossSegments() {
+        // Four rows per segment, so ten payments span three segments
+        var ledger = new PaymentLedger(4);
+        var expected = new ArrayList<Payment>();
+        for (int i = 0; i < 10; i++) {
+            Payment payment = switch (i % 3) {
+                case 0 -> new CreditCardPayment("411111111111" + i, "12" + i);
+                case 1 -> new UPIPayment("user" + i + "@bank");
+                default -> new NetBankingPayment("1234567" + i, "IFSC000" + (i % 2));
+            };
+            assertEquals(i, ledger.append(payment, 100 + i));
+            expected.add(payment instanceof CreditCardPayment ? new CreditCardPayment("*********111" + i, null) : payment);
+        }
+
+        assertEquals(10, ledger.size());
+        for (int row = 0; row < 10; row++) {
+            assertEquals(expected.get(row), ledger.payment(row));
+            assertEquals(100 + row, ledger.amountMinor(row));
+        }
+        assertEquals(PaymentType.UPI, ledger.type(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> ledger.payment(10));
+    }
+
+    @Test
+    void append_keepsNonAsciiAndNullDetails() {
+        var ledger = new PaymentLedger(4);
+        ledger.append(new UPIPayment("ödeme@bänk"), 500);
+        ledger.append(new NetBankingPayment(null, null), 700);
+
+        assertEquals(new UPIPayment("ödeme@bänk"), ledger.payment(0));
+        assertEquals(new NetBankingPayment(null, null), ledger.payment(1));
+    }
+
+    @Test
+    void append_dropsTheCvv_andMasksAllButTheLastFourCardDigits() {
+        var ledger = new PaymentLedger(4);
+        ledger.append(new CreditCardPayment("4111111111111111", "123"), 1_000);
+        ledger.append(new CreditCardPayment("123", "456"), 1_000);
+        ledger.append(new CreditCardPayment("４１１１１１１１", "789"), 1_000);
+
+        assertEquals(new CreditCardPayment("************1111", null), ledger.payment(0));
+        assertEquals(new CreditCardPayment("***", null), ledger.payment(1));
+        assertEquals(new CreditCardPayment("****１１１１", null), ledger.payment(2));
+        assertEquals(0, ledger.dictionarySize(), "no CVV is kept, not even as a dictionary entry");
+        assertEquals(0, ledger.totalsFor(PaymentType.CREDIT_CARD, "123").count());
+    }
+
+    @Test
+    void append_encodesRepeatedSecondDetailsOnce() {
+        var ledger = new PaymentLedger(1024);
+        for (int i = 0; i < 10_000; i++) {
+            ledger.append(new NetBankingPayment("acct" + i, "IFSC000" + (i % 5)), 1_000);
+        }
+
+        assertEquals(5, ledger.dictionarySize());
+        assertEquals(new NetBankingPayment("acct9999", "IFSC0004"), ledger.payment(9_999));
+    }
+
+    @Test
+    void summarize_andTotalsFor_aggregateWithoutMaterializing() {
+        var ledger = new PaymentLedger(8);
+        ledger.append(new CreditCardPayment("4111111111111111", "123"), 1_000);
+        ledger.append(new NetBankingPayment("1", "IFSC0001"), 2_000);
+        ledger.append(new NetBankingPayment("2", "IFSC0002"), 3_000);
+        ledger.append(new NetBankingPayment("3", "IFSC0001"), 4_000);
+        ledger.append(new NetBankingPayment("4", "IFSC0001"), 0);
+        ledger.append(new UPIPayment("user@bank"), 500);
+
+        var summary = ledger.summarize();
+        var ifsc = ledger.totalsFor(PaymentType.NETBANKING, "IFSC0001");
+
+        assertEquals(4, summary.of(PaymentType.NETBANKING).count());
+        assertEquals(9_000, summary.of(PaymentType.NETBANKING).totalMinor());
+        assertEquals(6, summary.count());
+        assertEquals(CurrencyCode.USD, summary.of(PaymentType.CREDIT_CARD).currency());
+        assertEquals(3, ifsc.count());
+        assertEquals(6_000, ifsc.totalMinor());
+        assertEquals(0, ledger.totalsFor(PaymentType.NETBANKING, "IFSC9999").count());
+    }
+
+    @Test
+    void forEach_visitsRowsInOrder() {
+        var ledger = new PaymentLedger(2);
+        for (int i = 0; i < 5; i++) {
+            ledger.append(new UPIPayment("user@bank"), i * 10);
+        }
+        var rows = new ArrayList<Long>();
+        long[] total = new long[1];
+
+        ledger.forEach((row, type, amountMinor) -> {
+            rows.add(row);
+            total[0] += amountMinor;
+        });
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), rows);
+        assertEquals(100, total[0]);
+    }
+
+    @Test
+    void constructor_rejectsSegmentRowsThatAreNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentLedger(0));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentLedger(1000));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentLedger(PaymentLedger.MAX_SEGMENT_ROWS * 2));
+    }
+}
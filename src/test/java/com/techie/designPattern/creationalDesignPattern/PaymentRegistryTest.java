@@ -0,0 +1,76 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentRegistryTest {
+
+    @Test
+    void resolve_isCaseInsensitive_andReturnsTheSameKind() {
+        var registry = new PaymentRegistry();
+
+        assertSame(PaymentType.UPI.kind(), registry.resolve("upi"));
+        assertSame(PaymentType.UPI.kind(), registry.resolve("UPI"));
+        assertSame(PaymentType.CREDIT_CARD.kind(), registry.resolve("Credit_Card"));
+    }
+
+    @Test
+    void resolve_ignoresTheDefaultLocale() {
+        var saved = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // "CREDIT_CARD".toLowerCase() is "credıt_card" in Turkish, which the old switch rejected
+            assertSame(PaymentType.CREDIT_CARD.kind(), new PaymentRegistry().resolve("CREDIT_CARD"));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    @Test
+    void kind_createsWithFixedDetails_orFromVarargs() {
+        var nb = PaymentType.NETBANKING.kind();
+
+        assertEquals(new NetBankingPayment("12345678", "IFSC0001"), nb.create("12345678", "IFSC0001"));
+        assertEquals(new UPIPayment("user@bank"), PaymentType.UPI.kind().create("user@bank"));
+        assertEquals(new UPIPayment("user@bank"), PaymentType.UPI.kind().create("user@bank", "ignored", "extra"));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> nb.create(new String[] {"12345678"}));
+    }
+
+    @Test
+    void register_addsTypeNames_withoutTouchingTheFactory() {
+        var registry = new PaymentRegistry();
+
+        var card = registry.register("card", 2, CreditCardPayment::new);
+        for (int i = 0; i < 40; i++) {
+            registry.register("alias-" + i, 1, (upiId, unused) -> new UPIPayment(upiId));
+        }
+
+        assertSame(card, registry.resolve("CARD"));
+        assertEquals(new UPIPayment("u@b"), registry.resolve("ALIAS-39").create("u@b"));
+        assertSame(PaymentType.UPI.kind(), registry.resolve("upi"), "growing the table keeps earlier kinds");
+        assertThrows(IllegalArgumentException.class, () -> registry.register("Card", 2, CreditCardPayment::new));
+        assertFalse(new PaymentRegistry().isRegistered("card"), "registries are independent");
+    }
+
+    @Test
+    void resolve_unknownType_throwsWithTheName() {
+        var e = assertThrows(IllegalArgumentException.class, () -> new PaymentRegistry().resolve("cash"));
+
+        assertEquals("Unknown payment type: cash", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRegistry().resolve("up"));
+    }
+
+    @Test
+    void factoryRegister_isSeenByCreatePayment() {
+        if (!PaymentRegistry.standard().isRegistered("gpay")) {
+            PaymentFactory.register("gpay", 1, (upiId, unused) -> new UPIPayment(upiId));
+        }
+
+        Payment payment = PaymentFactory.createPayment("GPay", "user@okbank");
+
+        assertEquals("UPI processed: user@okbank", PaymentFactory.processPayment(payment, 10.0));
+    }
+}
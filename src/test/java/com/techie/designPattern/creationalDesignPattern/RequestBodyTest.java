@@ -0,0 +1,112 @@
+package com.techie.designPattern.creationalDesignPattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.SubmissionPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBodyTest {
+    @TempDir
+    Path dir;
+
+    private static byte[] written(RequestBody body) throws IOException {
+        var out = new ByteArrayOutputStream();
+        long n = body.writeTo(Channels.newChannel(out));
+        assertEquals(out.size(), n);
+        return out.toByteArray();
+    }
+
+    @Test
+    void text_isUtf8_withMatchingContentLength() throws IOException {
+        var body = RequestBody.of("Grüße 🚀");
+
+        assertArrayEquals("Grüße 🚀".getBytes(StandardCharsets.UTF_8), written(body));
+        assertEquals("Grüße 🚀".getBytes(StandardCharsets.UTF_8).length, body.contentLength());
+        assertSame(RequestBody.EMPTY, RequestBody.of(""));
+        assertTrue(RequestBody.EMPTY.isEmpty());
+    }
+
+    @Test
+    void bytes_sendsPositionToLimit_andCanBeWrittenAgain() throws IOException {
+        var buffer = ByteBuffer.allocateDirect(8).put("abcdefgh".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(2).limit(6);
+        var body = RequestBody.of(buffer);
+
+        assertEquals("cdef", new String(written(body), StandardCharsets.US_ASCII));
+        assertEquals("cdef", new String(written(body), StandardCharsets.US_ASCII));
+        assertEquals(2, buffer.position(), "the caller's buffer is not consumed");
+    }
+
+    @Test
+    void fileRegion_isTransferredStraightIntoAFileChannel() throws IOException {
+        var source = Files.write(dir.resolve("upload.bin"), "0123456789".getBytes(StandardCharsets.US_ASCII));
+        var target = dir.resolve("copy.bin");
+        var body = RequestBody.ofFile(source, 3, 5);
+
+        try (var channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertEquals(5, body.writeTo(channel));
+        }
+
+        assertEquals("34567", Files.readString(target));
+        assertEquals(10, RequestBody.ofFile(source).contentLength());
+    }
+
+    @Test
+    void fileRegion_pastTheEndOfTheFile_fails() throws IOException {
+        var source = Files.write(dir.resolve("short.bin"), new byte[4]);
+
+        assertThrows(IOException.class, () -> written(RequestBody.ofFile(source, 2, 10)));
+        assertThrows(IllegalArgumentException.class, () -> RequestBody.ofFile(source, -1, 1));
+    }
+
+    @Test
+    void streamed_writesEveryPublishedBuffer() throws IOException {
+        var publisher = new SubmissionPublisher<ByteBuffer>();
+        var body = RequestBody.ofPublisher(publisher, RequestBody.UNKNOWN_LENGTH);
+        var feeder = new Thread(() -> {
+            while (publisher.getNumberOfSubscribers() == 0) {
+                Thread.onSpinWait();
+            }
+            for (int i = 0; i < 100; i++) {
+                publisher.submit(ByteBuffer.wrap(("chunk" + i + ";").getBytes(StandardCharsets.US_ASCII)));
+            }
+            publisher.close();
+        });
+        feeder.start();
+
+        var text = new String(written(body), StandardCharsets.US_ASCII);
+
+        assertTrue(text.startsWith("chunk0;chunk1;"));
+        assertTrue(text.endsWith("chunk99;"));
+        assertFalse(body.isEmpty());
+    }
+
+    @Test
+    void streamed_publisherError_surfacesAsIOException() {
+        var body = RequestBody.ofPublisher(subscriber -> subscriber.onError(new IllegalStateException("source gone")), 10);
+
+        var e = assertThrows(IOException.class, () -> written(body));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void request_withStreamedBody_isReadThroughContent() {
+        var request = HttpRequest.builder().url("https://upload.test").method("PUT")
+                .body(ByteBuffer.wrap(new byte[1024])).build();
+
+        assertEquals(1024, request.content().contentLength());
+        assertThrows(IllegalStateException.class, request::body);
+        assertEquals("", HttpRequest.reusableBuilder().url("https://x").build().body(), "reset clears a streamed body");
+    }
+}
@@ -2,6 +2,13 @@ package com.techie.designPattern.creationalDesignPattern;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SingletonTest {
@@ -28,5 +35,97 @@ public class SingletonTest {
         var readBack = ConfigurationManager.INSTANCE.getConfig();
         assertSame(replacement, readBack, "After updateConfig the stored reference should be identical to the one provided");
     }
-}
 
+    @Test
+    void updateConfig_incrementsVersion() {
+        var manager = ConfigurationManager.INSTANCE;
+        long before = manager.getVersion();
+        var current = manager.getConfig();
+
+        manager.updateConfig(new ConfigurationManager.Config("k-" + before, current.dbUrl(), current.timeout()));
+
+        assertTrue(manager.getVersion() > before, "version should increase on every update");
+        assertEquals("k-" + before, manager.getVersioned().config().apiKey());
+    }
+
+    @Test
+    void compareAndSetUpdate_onlyAppliesToExpectedConfig() {
+        var manager = ConfigurationManager.INSTANCE;
+        var current = manager.getConfig();
+        var stale = new ConfigurationManager.Config(current.apiKey(), current.dbUrl(), current.timeout());
+        var next = new ConfigurationManager.Config("cas-key", current.dbUrl(), current.timeout());
+
+        assertFalse(manager.updateConfig(stale, next), "an equal but different instance is not the expected config");
+        assertSame(current, manager.getConfig());
+
+        long version = manager.getVersion();
+        assertTrue(manager.updateConfig(current, next));
+        assertSame(next, manager.getConfig());
+        assertEquals(version + 1, manager.getVersion());
+    }
+
+    @Test
+    void subscribe_receivesCurrentThenChanges_offTheWriterThread() throws Exception {
+        var manager = ConfigurationManager.INSTANCE;
+        var seen = new CopyOnWriteArrayList<ConfigurationManager.Versioned>();
+        var listenerThread = new AtomicReference<Thread>();
+        var updated = new CountDownLatch(1);
+        var marker = new ConfigurationManager.Config("subscribed-key", "jdbc:test", 5);
+
+        try (var ignored = manager.subscribe(versioned -> {
+            seen.add(versioned);
+            listenerThread.set(Thread.currentThread());
+            if (versioned.config() == marker) {
+                updated.countDown();
+            }
+        })) {
+            manager.updateConfig(marker);
+            assertTrue(updated.await(5, TimeUnit.SECONDS), "subscriber should be notified of the update");
+        }
+
+        assertNotSame(Thread.currentThread(), listenerThread.get(), "listeners must not run on the writer thread");
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i).version() > seen.get(i - 1).version(), "versions must arrive in order: " + seen);
+        }
+    }
+
+    @Test
+    void closedSubscription_stopsReceivingUpdates() throws Exception {
+        var manager = ConfigurationManager.INSTANCE;
+        var calls = new AtomicInteger();
+        var first = new CountDownLatch(1);
+        var subscription = manager.subscribe(versioned -> {
+            calls.incrementAndGet();
+            first.countDown();
+        });
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+        subscription.close();
+        int afterClose = calls.get();
+
+        var current = manager.getConfig();
+        manager.updateConfig(new ConfigurationManager.Config("after-close", current.dbUrl(), current.timeout()));
+        Thread.sleep(50);
+
+        assertEquals(afterClose, calls.get());
+    }
+
+    @Test
+    void derive_recomputesOnlyWhenVersionChanges() {
+        var manager = ConfigurationManager.INSTANCE;
+        var computations = new AtomicInteger();
+        var host = manager.derive(config -> {
+            computations.incrementAndGet();
+            return List.of(config.dbUrl().split("//"));
+        });
+
+        var first = host.get();
+        assertSame(first, host.get(), "unchanged config should reuse the cached value");
+        assertEquals(1, computations.get());
+
+        var current = manager.getConfig();
+        manager.updateConfig(new ConfigurationManager.Config(current.apiKey(), "jdbc:mysql://db", current.timeout()));
+
+        assertEquals(List.of("jdbc:mysql:", "db"), host.get());
+        assertEquals(2, computations.get());
+    }
+}